@@ -0,0 +1,67 @@
+package graph.benchmarks;
+
+import graph.Graph;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loading a random graph with four edges per vertex edge by edge through
+ * {@link Graph#addEdge} against in one go through {@link Graph.Builder}. The
+ * edge triples are prepared once, vertices hold their own edge lists and are
+ * created per invocation like the edge objects.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkLoadBenchmark {
+    @Param({"100000", "1000000"})
+    public int vertices;
+
+    @Param({"DIRECTED", "UNDIRECTED"})
+    public Graph.TYPE type;
+
+    private int[][] edges;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        edges = Datasets.randomEdges(vertices, 4 * vertices);
+    }
+
+    @Benchmark
+    public Graph<Integer> addEdges() {
+        List<Graph.Vertex<Integer>> vertexList = Datasets.integerVertices(vertices);
+        Graph<Integer> graph = new Graph<>(type);
+        for (Graph.Vertex<Integer> vertex : vertexList) {
+            graph.addVertex(vertex);
+        }
+        for (int i = 0; i < edges[0].length; i++) {
+            graph.addEdge(new Graph.Edge<>(edges[2][i], vertexList.get(edges[0][i]), vertexList.get(edges[1][i])));
+        }
+        return graph;
+    }
+
+    @Benchmark
+    public Graph<Integer> builder() {
+        return new Graph.Builder<Integer>(type, vertices, edges[0].length)
+                .addVertices(Datasets.integerVertices(vertices))
+                .addEdges(edges[0], edges[1], edges[2])
+                .build();
+    }
+}
@@ -0,0 +1,102 @@
+package graph.benchmarks;
+
+import graph.GraphChangeLog;
+import graph.JobApplicationNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Durable updates through {@link GraphChangeLog} on top of a snapshot of a data
+ * set: status updates of random applications, and withdrawing an application
+ * and applying again. The log is compacted between iterations, outside the
+ * measurement, so it does not grow without bound.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChangeLogBenchmark {
+    private static final int QUERY_COUNT = 1 << 12;
+    private static final String[] STATUSES = {"Applied", "Interviewing", "Offered", "Rejected"};
+
+    @Param({"10000", "100000"})
+    public int jobSeekers;
+
+    private Path directory;
+    private GraphChangeLog changeLog;
+    private String[] seekerNames;
+    private String[] jobTitles;
+    private String[] companies;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("graph-changelog");
+        Path snapshot = directory.resolve("graph.snapshot");
+        Files.copy(Datasets.snapshotFile(jobSeekers), snapshot);
+        changeLog = GraphChangeLog.open(snapshot, directory.resolve("graph.log"), 0);
+
+        List<JobApplicationNode> applications = changeLog.getGraph().getApplications();
+        Random random = new Random(Datasets.SEED);
+        seekerNames = new String[QUERY_COUNT];
+        jobTitles = new String[QUERY_COUNT];
+        companies = new String[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            JobApplicationNode application = applications.get(random.nextInt(applications.size()));
+            seekerNames[i] = application.getJobSeeker().getName();
+            jobTitles[i] = application.getJob().getTitle();
+            companies[i] = application.getApplicationCompany();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void compact() throws IOException {
+        changeLog.compact();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        changeLog.close();
+        Datasets.deleteDirectory(directory);
+    }
+
+    private int nextQuery() {
+        int query = next;
+        next = (next + 1) & (QUERY_COUNT - 1);
+        return query;
+    }
+
+    @Benchmark
+    public void updateStatus() throws IOException {
+        int query = nextQuery();
+        changeLog.updateStatus(seekerNames[query], jobTitles[query], STATUSES[query & (STATUSES.length - 1)]);
+    }
+
+    @Benchmark
+    public void removeAndAddApplication() throws IOException {
+        int query = nextQuery();
+        changeLog.removeApplication(seekerNames[query], jobTitles[query]);
+        changeLog.addApplication(seekerNames[query], jobTitles[query], companies[query], "Applied");
+    }
+}
@@ -0,0 +1,108 @@
+package graph.benchmarks;
+
+import graph.GraphChangeLog;
+import graph.JobApplicationNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Starting up from a snapshot and a log of 100,000 status updates with
+ * {@link GraphChangeLog#open}, and folding that log into a new snapshot with
+ * {@link GraphChangeLog#compact()}. Every compaction works on fresh copies of
+ * both files, opened before the measurement.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChangeLogReplayBenchmark {
+    private static final int UPDATES = 100_000;
+
+    @Param({"10000", "100000"})
+    public int jobSeekers;
+
+    private Path directory;
+    private Path snapshot;
+    private Path log;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("graph-changelog");
+        snapshot = directory.resolve("graph.snapshot");
+        log = directory.resolve("graph.log");
+        Files.copy(Datasets.snapshotFile(jobSeekers), snapshot);
+        try (GraphChangeLog changeLog = GraphChangeLog.open(snapshot, log, 0)) {
+            List<JobApplicationNode> applications = changeLog.getGraph().getApplications();
+            Random random = new Random(Datasets.SEED);
+            for (int i = 0; i < UPDATES; i++) {
+                JobApplicationNode application = applications.get(random.nextInt(applications.size()));
+                changeLog.updateStatus(application.getJobSeeker().getName(), application.getJob().getTitle(),
+                        "Status " + i);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Datasets.deleteDirectory(directory);
+    }
+
+    /**
+     * A change log opened on copies of the snapshot and log, ready to compact.
+     */
+    @State(Scope.Thread)
+    public static class Compaction {
+        private Path directory;
+        private GraphChangeLog changeLog;
+
+        @Setup(Level.Invocation)
+        public void setUp(ChangeLogReplayBenchmark files) throws IOException {
+            directory = Files.createTempDirectory("graph-compaction");
+            Path snapshot = directory.resolve("graph.snapshot");
+            Path log = directory.resolve("graph.log");
+            Files.copy(files.snapshot, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            Files.copy(files.log, log, StandardCopyOption.REPLACE_EXISTING);
+            changeLog = GraphChangeLog.open(snapshot, log, 0);
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() throws IOException {
+            changeLog.close();
+            Datasets.deleteDirectory(directory);
+        }
+    }
+
+    @Benchmark
+    public int openAndReplay() throws IOException {
+        try (GraphChangeLog changeLog = GraphChangeLog.open(snapshot, log, 0)) {
+            return changeLog.getReplayedCount();
+        }
+    }
+
+    @Benchmark
+    public void compact(Compaction compaction) throws IOException {
+        compaction.changeLog.compact();
+    }
+}
@@ -0,0 +1,135 @@
+package graph.benchmarks;
+
+import graph.ConcurrentGraph;
+import graph.Graph;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Readers taking snapshots of a random vertex's two-hop neighbourhood while one
+ * writer adds and withdraws batches of edges on a {@link ConcurrentGraph} with
+ * four random edges per vertex. The writer alternates between adding the next
+ * batch and removing it again, so the graph keeps its size. The lookup group
+ * has the readers find a random vertex by value through a snapshot instead.
+ * Sample time gives the p50 and p99 latencies of both sides.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Group)
+public class ConcurrentGraphBenchmark {
+    private static final int READERS = 3;
+
+    @Param({"100000", "1000000"})
+    public int vertices;
+
+    @Param({"1", "1024"})
+    public int batchSize;
+
+    private ConcurrentGraph<Integer> graph;
+    private List<Graph.Vertex<Integer>> vertexList;
+    private int[][] updates;
+    private int cursor;
+    private boolean added;
+
+    @Setup
+    public void setUp() {
+        vertexList = Datasets.integerVertices(vertices);
+        int[][] edges = Datasets.randomEdges(vertices, 4 * vertices);
+        graph = new ConcurrentGraph<>(Graph.TYPE.UNDIRECTED);
+        graph.applyBatch(g -> {
+            vertexList.forEach(g::addVertex);
+            for (int i = 0; i < edges[0].length; i++) {
+                g.addEdge(edge(edges, i));
+            }
+        });
+        // Costs of 100 and up keep the updates apart from the graph's own edges
+        updates = Datasets.randomEdges(vertices, Math.max(batchSize, 65536));
+        for (int i = 0; i < updates[2].length; i++) {
+            updates[2][i] += 100;
+        }
+        cursor = 0;
+        added = false;
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(READERS)
+    public long twoHopRead() {
+        long sum = 0;
+        try (ConcurrentGraph.Snapshot<Integer> snapshot = graph.snapshot()) {
+            Graph.Vertex<Integer> vertex = vertexList.get(ThreadLocalRandom.current().nextInt(vertices));
+            for (Graph.Edge<Integer> edge : snapshot.getEdges(vertex)) {
+                for (Graph.Edge<Integer> next : snapshot.getEdges(edge.getToVertex())) {
+                    sum += next.getCost();
+                }
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public long write() {
+        return writeBatch();
+    }
+
+    @Benchmark
+    @Group("lookupWrite")
+    @GroupThreads(READERS)
+    public Graph.Vertex<Integer> lookup() {
+        try (ConcurrentGraph.Snapshot<Integer> snapshot = graph.snapshot()) {
+            return snapshot.findVertexByValue(ThreadLocalRandom.current().nextInt(vertices));
+        }
+    }
+
+    @Benchmark
+    @Group("lookupWrite")
+    @GroupThreads(1)
+    public long writeDuringLookups() {
+        return writeBatch();
+    }
+
+    private long writeBatch() {
+        int from = cursor;
+        if (added) {
+            graph.applyBatch(g -> {
+                for (int i = from; i < from + batchSize; i++) {
+                    g.removeEdge(edge(updates, i));
+                }
+            });
+            cursor = (from + batchSize + batchSize > updates[0].length) ? 0 : from + batchSize;
+        } else {
+            graph.applyBatch(g -> {
+                for (int i = from; i < from + batchSize; i++) {
+                    g.addEdge(edge(updates, i));
+                }
+            });
+        }
+        added = !added;
+        return graph.getVersion();
+    }
+
+    private Graph.Edge<Integer> edge(int[][] edges, int i) {
+        return new Graph.Edge<>(edges[2][i], vertexList.get(edges[0][i]), vertexList.get(edges[1][i]));
+    }
+}
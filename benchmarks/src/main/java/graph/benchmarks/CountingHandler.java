@@ -0,0 +1,39 @@
+package graph.benchmarks;
+
+import graph.RecordParser;
+
+/**
+ * Record handler that only touches the parsed fields, for measuring the
+ * tokenizers without building a graph.
+ */
+final class CountingHandler implements RecordParser.Handler {
+    long fields;
+    long invalid;
+
+    @Override
+    public void jobSeeker(String name, String[] skills, int experienceYears, String preferredLocation) {
+        fields += name.length() + skills.length + experienceYears;
+    }
+
+    @Override
+    public void job(String title, String company, String location, String description) {
+        fields += title.length() + company.length() + location.length() + description.length();
+    }
+
+    @Override
+    public void application(String jobSeekerName, String jobTitle, String company, String status,
+            CharSequence line) {
+        fields += jobSeekerName.length() + jobTitle.length() + company.length() + status.length();
+    }
+
+    @Override
+    public void skillEdge(String jobSeekerName, String jobTitle, String company, String[] requiredSkills,
+            CharSequence line) {
+        fields += jobSeekerName.length() + jobTitle.length() + company.length() + requiredSkills.length;
+    }
+
+    @Override
+    public void invalid(CharSequence line) {
+        invalid++;
+    }
+}
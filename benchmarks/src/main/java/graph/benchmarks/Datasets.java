@@ -0,0 +1,130 @@
+package graph.benchmarks;
+
+import graph.CreateGraph;
+import graph.DataGenerator;
+import graph.Graph;
+import graph.GraphSnapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Data files and graphs shared by the benchmarks. Files are written by
+ * {@link DataGenerator} with a fixed seed, so every run and every fork measures
+ * the same data, and are kept in {@code ${java.io.tmpdir}/graph-benchmarks}
+ * between runs.
+ */
+final class Datasets {
+    static final int JOBS_PER_JOB_SEEKER_DIVISOR = 4;
+    static final int SKILL_COUNT = 1000;
+    static final int APPLICATIONS_PER_JOB_SEEKER = 2;
+    static final double SKILL_SKEW = 1.0;
+    static final long SEED = 42;
+
+    private static final Path DIRECTORY = Paths.get(System.getProperty("java.io.tmpdir"), "graph-benchmarks");
+
+    private Datasets() {
+    }
+
+    /**
+     * The data file for the given number of job seekers, generated on first use.
+     */
+    static synchronized Path dataFile(int jobSeekers) {
+        Path file = DIRECTORY.resolve("graph_data_" + jobSeekers + "_" + SEED + ".txt");
+        if (!Files.exists(file)) {
+            try {
+                Files.createDirectories(DIRECTORY);
+                // Generate next to the final name and move, so an interrupted run leaves no partial file
+                Path partial = Files.createTempFile(DIRECTORY, "graph_data", ".tmp");
+                DataGenerator.generateDataFile(partial.toString(), jobSeekers,
+                        Math.max(1, jobSeekers / JOBS_PER_JOB_SEEKER_DIVISOR), SKILL_COUNT,
+                        APPLICATIONS_PER_JOB_SEEKER, SKILL_SKEW, SEED);
+                Files.move(partial, file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * The parsed data file for the given number of job seekers.
+     */
+    static CreateGraph load(int jobSeekers) {
+        CreateGraph graph = new CreateGraph();
+        try {
+            graph.parseMapped(dataFile(jobSeekers));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return graph;
+    }
+
+    /**
+     * Snapshot of the parsed data file, written on first use.
+     */
+    static synchronized Path snapshotFile(int jobSeekers) {
+        Path file = DIRECTORY.resolve("graph_data_" + jobSeekers + "_" + SEED + ".jgs");
+        if (!Files.exists(file)) {
+            try {
+                Files.createDirectories(DIRECTORY);
+                Path partial = Files.createTempFile(DIRECTORY, "graph_data", ".tmp");
+                GraphSnapshot.save(load(jobSeekers), partial);
+                Files.move(partial, file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Random synthetic edges, as {from, to, costs}, between vertices numbered
+     * 0..vertices-1 with costs below 100. The same arguments always give the
+     * same edges.
+     */
+    static int[][] randomEdges(int vertices, int edges) {
+        Random random = new Random(SEED);
+        int[] from = new int[edges];
+        int[] to = new int[edges];
+        int[] costs = new int[edges];
+        for (int i = 0; i < edges; i++) {
+            from[i] = random.nextInt(vertices);
+            to[i] = random.nextInt(vertices);
+            costs[i] = random.nextInt(100);
+        }
+        return new int[][] {from, to, costs};
+    }
+
+    /**
+     * Vertices valued 0..count-1.
+     */
+    static List<Graph.Vertex<Integer>> integerVertices(int count) {
+        List<Graph.Vertex<Integer>> vertices = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            vertices.add(new Graph.Vertex<>(i, 0));
+        }
+        return vertices;
+    }
+
+    /**
+     * Delete a directory the benchmarks worked in, with everything in it.
+     */
+    static void deleteDirectory(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package graph.benchmarks;
+
+import graph.CsrGraph;
+import graph.Graph;
+
+import java.lang.ref.Reference;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Heap bytes per edge of a random graph with ten edges per vertex: the edge
+ * objects and lists of a directed {@link Graph}, its frozen {@link CsrGraph},
+ * and an undirected graph with reciprocal edge objects against one with
+ * implicit reciprocals. The figure of interest is the bytesPerEdge counter,
+ * the time is dominated by the garbage collections taken to measure it.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EdgeMemoryBenchmark {
+    @Param({"2000000"})
+    public int edges;
+
+    private int[][] triples;
+
+    /**
+     * Bytes per edge of the last invocation.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        public double bytesPerEdge;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        triples = Datasets.randomEdges(Math.max(1, edges / 10), edges);
+    }
+
+    @Benchmark
+    public void directedObjects(Footprint footprint) {
+        footprint.bytesPerEdge = bytesPerEdge(new Graph<>(Graph.TYPE.DIRECTED));
+    }
+
+    @Benchmark
+    public void directedCsr(Footprint footprint) {
+        Graph<Integer> graph = new Graph<>(Graph.TYPE.DIRECTED);
+        addEdges(graph, addVertices(graph));
+        CsrGraph<Integer> csr = graph.freeze();
+        footprint.bytesPerEdge = csr.getAdjacencyBytes() / (double) csr.getEdgeCount();
+    }
+
+    @Benchmark
+    public void undirectedReciprocal(Footprint footprint) {
+        footprint.bytesPerEdge = bytesPerEdge(new Graph<>(Graph.TYPE.UNDIRECTED, false));
+    }
+
+    @Benchmark
+    public void undirectedImplicit(Footprint footprint) {
+        footprint.bytesPerEdge = bytesPerEdge(new Graph<>(Graph.TYPE.UNDIRECTED, true));
+    }
+
+    // Heap taken by adding the edges, per edge added
+    private double bytesPerEdge(Graph<Integer> graph) {
+        List<Graph.Vertex<Integer>> vertices = addVertices(graph);
+        long withVertices = usedMemory();
+        addEdges(graph, vertices);
+        long withEdges = usedMemory();
+        // Compiled code may otherwise drop the graph before it is measured
+        Reference.reachabilityFence(graph);
+        return (withEdges - withVertices) / (double) edges;
+    }
+
+    private List<Graph.Vertex<Integer>> addVertices(Graph<Integer> graph) {
+        List<Graph.Vertex<Integer>> vertices = Datasets.integerVertices(Math.max(1, edges / 10));
+        for (Graph.Vertex<Integer> vertex : vertices) {
+            graph.addVertex(vertex);
+        }
+        return vertices;
+    }
+
+    private void addEdges(Graph<Integer> graph, List<Graph.Vertex<Integer>> vertices) {
+        for (int i = 0; i < triples[0].length; i++) {
+            graph.addEdge(new Graph.Edge<>(triples[2][i], vertices.get(triples[0][i]), vertices.get(triples[1][i])));
+        }
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,63 @@
+package graph.benchmarks;
+
+import graph.Graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Withdrawing half of the edges of a random undirected graph with four edges
+ * per vertex through {@link Graph#removeEdges}. Every invocation removes from
+ * a freshly built graph, the build is not measured.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EdgeRemovalBenchmark {
+    @Param({"100000", "1000000"})
+    public int vertices;
+
+    private Graph<Integer> graph;
+    private List<Graph.Edge<Integer>> removals;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        List<Graph.Vertex<Integer>> vertexList = Datasets.integerVertices(vertices);
+        int[][] edges = Datasets.randomEdges(vertices, 4 * vertices);
+        graph = new Graph<>(Graph.TYPE.UNDIRECTED);
+        for (Graph.Vertex<Integer> vertex : vertexList) {
+            graph.addVertex(vertex);
+        }
+        removals = new ArrayList<>(edges[0].length / 2);
+        for (int i = 0; i < edges[0].length; i++) {
+            Graph.Edge<Integer> edge = new Graph.Edge<>(edges[2][i], vertexList.get(edges[0][i]),
+                    vertexList.get(edges[1][i]));
+            graph.addEdge(edge);
+            if (i < edges[0].length / 2) {
+                removals.add(edge);
+            }
+        }
+    }
+
+    @Benchmark
+    public int removeHalf() {
+        return graph.removeEdges(removals);
+    }
+}
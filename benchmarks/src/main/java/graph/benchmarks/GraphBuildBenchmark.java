@@ -0,0 +1,95 @@
+package graph.benchmarks;
+
+import graph.CreateGraph;
+import graph.Graph;
+import graph.JobApplicationNode;
+import graph.JobNode;
+import graph.JobSeekerNode;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building a {@link Graph} with {@link Graph#addVertex} and {@link Graph#addEdge}
+ * from the seekers, jobs and applications of a data set. Values and endpoints
+ * are prepared once, the vertex and edge objects are created per invocation
+ * as a caller would.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GraphBuildBenchmark {
+    @Param({"10000", "100000"})
+    public int jobSeekers;
+
+    private String[] values;
+    // Endpoints of every application as indexes into values
+    private int[] from;
+    private int[] to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CreateGraph data = Datasets.load(jobSeekers);
+        List<JobSeekerNode> seekers = data.getJobSeekers();
+        List<JobNode> jobs = data.getJobs();
+        Map<Object, Integer> ids = new IdentityHashMap<>();
+        values = new String[seekers.size() + jobs.size()];
+        for (JobSeekerNode seeker : seekers) {
+            ids.put(seeker, ids.size());
+            values[ids.size() - 1] = seeker.getName();
+        }
+        for (JobNode job : jobs) {
+            ids.put(job, ids.size());
+            values[ids.size() - 1] = job.getTitle();
+        }
+        List<JobApplicationNode> applications = data.getApplications();
+        from = new int[applications.size()];
+        to = new int[applications.size()];
+        for (int i = 0; i < applications.size(); i++) {
+            from[i] = ids.get(applications.get(i).getJobSeeker());
+            to[i] = ids.get(applications.get(i).getJob());
+        }
+    }
+
+    @Benchmark
+    public Graph<String> addVertices() {
+        Graph<String> graph = new Graph<>(Graph.TYPE.UNDIRECTED);
+        for (String value : values) {
+            graph.addVertex(new Graph.Vertex<>(value, 0));
+        }
+        return graph;
+    }
+
+    @Benchmark
+    public Graph<String> addVerticesAndEdges() {
+        Graph<String> graph = new Graph<>(Graph.TYPE.UNDIRECTED);
+        @SuppressWarnings("unchecked")
+        Graph.Vertex<String>[] vertices = new Graph.Vertex[values.length];
+        for (int i = 0; i < values.length; i++) {
+            vertices[i] = new Graph.Vertex<>(values[i], 0);
+            graph.addVertex(vertices[i]);
+        }
+        for (int i = 0; i < from.length; i++) {
+            graph.addEdge(new Graph.Edge<>(1, vertices[from[i]], vertices[to[i]]));
+        }
+        return graph;
+    }
+}
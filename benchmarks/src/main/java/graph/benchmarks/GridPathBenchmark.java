@@ -0,0 +1,111 @@
+package graph.benchmarks;
+
+import graph.AStar;
+import graph.BidirectionalDijkstra;
+import graph.CsrGraph;
+import graph.Dijkstra;
+import graph.Graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Point-to-point queries on a square grid whose vertices carry coordinates,
+ * the case {@link AStar} is meant for, against plain and bidirectional
+ * Dijkstra. Edge costs never undercut the straight line distance, so all three
+ * return the same distances.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GridPathBenchmark {
+    private static final int QUERY_COUNT = 1 << 10;
+
+    @Param({"300", "1000"})
+    public int side;
+
+    private Dijkstra<Integer> dijkstra;
+    private AStar<Integer> aStar;
+    private BidirectionalDijkstra<Integer> bidirectional;
+    private int[] starts;
+    private int[] ends;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(Datasets.SEED);
+        Graph<Integer> graph = new Graph<>(Graph.TYPE.UNDIRECTED);
+        List<Graph.Vertex<Integer>> vertices = new ArrayList<>(side * side);
+        for (int i = 0; i < side; i++) {
+            for (int j = 0; j < side; j++) {
+                Graph.Vertex<Integer> vertex = new Graph.Vertex<>(i * side + j, i * 10, j * 10);
+                vertices.add(vertex);
+                graph.addVertex(vertex);
+            }
+        }
+        for (int i = 0; i < side; i++) {
+            for (int j = 0; j < side; j++) {
+                Graph.Vertex<Integer> vertex = vertices.get(i * side + j);
+                if (i + 1 < side) {
+                    graph.addEdge(new Graph.Edge<>(10 + random.nextInt(6), vertex, vertices.get((i + 1) * side + j)));
+                }
+                if (j + 1 < side) {
+                    graph.addEdge(new Graph.Edge<>(10 + random.nextInt(6), vertex, vertices.get(i * side + j + 1)));
+                }
+            }
+        }
+
+        CsrGraph<Integer> csr = graph.freeze();
+        dijkstra = new Dijkstra<>(csr);
+        aStar = new AStar<>(csr);
+        bidirectional = new BidirectionalDijkstra<>(csr);
+        starts = new int[QUERY_COUNT];
+        ends = new int[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            starts[i] = random.nextInt(csr.getVertexCount());
+            ends[i] = random.nextInt(csr.getVertexCount());
+        }
+    }
+
+    private int nextQuery() {
+        int query = next;
+        next = (next + 1) & (QUERY_COUNT - 1);
+        return query;
+    }
+
+    @Benchmark
+    public long dijkstra() {
+        int query = nextQuery();
+        return dijkstra.getDistance(starts[query], ends[query]);
+    }
+
+    @Benchmark
+    public long aStar() {
+        int query = nextQuery();
+        return aStar.getDistance(starts[query], ends[query]);
+    }
+
+    @Benchmark
+    public long bidirectionalDijkstra() {
+        int query = nextQuery();
+        return bidirectional.getDistance(starts[query], ends[query]);
+    }
+}
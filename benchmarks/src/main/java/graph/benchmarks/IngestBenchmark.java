@@ -0,0 +1,93 @@
+package graph.benchmarks;
+
+import graph.CreateGraph;
+import graph.GraphSnapshot;
+import graph.MappedRecordReader;
+import graph.RecordParser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loading a whole data file: {@link CreateGraph#parseData(InputStream)}, the
+ * memory mapped reader and a binary snapshot of the same graph. The tokenize
+ * cases read and parse the file line by line or memory mapped without
+ * building the graph.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IngestBenchmark {
+    @Param({"10000", "100000"})
+    public int jobSeekers;
+
+    private Path dataFile;
+    private Path snapshotFile;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataFile = Datasets.dataFile(jobSeekers);
+        snapshotFile = Datasets.snapshotFile(jobSeekers);
+    }
+
+    @Benchmark
+    public CreateGraph parseData() throws IOException {
+        CreateGraph graph = new CreateGraph();
+        try (InputStream in = Files.newInputStream(dataFile)) {
+            graph.parseData(in);
+        }
+        return graph;
+    }
+
+    @Benchmark
+    public CreateGraph parseMapped() throws IOException {
+        CreateGraph graph = new CreateGraph();
+        graph.parseMapped(dataFile);
+        return graph;
+    }
+
+    @Benchmark
+    public CreateGraph loadSnapshot() throws IOException {
+        return GraphSnapshot.load(snapshotFile);
+    }
+
+    @Benchmark
+    public long tokenizeReader() throws IOException {
+        CountingHandler handler = new CountingHandler();
+        try (BufferedReader lines = Files.newBufferedReader(dataFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                RecordParser.parse(line, handler);
+            }
+        }
+        return handler.fields;
+    }
+
+    @Benchmark
+    public long tokenizeMapped() throws IOException {
+        CountingHandler handler = new CountingHandler();
+        MappedRecordReader.read(dataFile, handler);
+        return handler.fields;
+    }
+}
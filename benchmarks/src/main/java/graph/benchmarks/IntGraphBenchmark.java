@@ -0,0 +1,125 @@
+package graph.benchmarks;
+
+import graph.BidirectionalDijkstra;
+import graph.CsrGraph;
+import graph.Dijkstra;
+import graph.Graph;
+import graph.IntGraph;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link IntGraph} against a {@link Graph} frozen into a {@link CsrGraph} on a
+ * random undirected graph with four edges per vertex: building either one from
+ * the same edge triples, full Dijkstra searches and point-to-point
+ * bidirectional queries from random vertices.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IntGraphBenchmark {
+    private static final int QUERY_COUNT = 1 << 10;
+
+    @Param({"100000", "1000000"})
+    public int vertices;
+
+    private int[][] edges;
+    private Dijkstra<Integer> csrDijkstra;
+    private Dijkstra<Integer> intDijkstra;
+    private BidirectionalDijkstra<Integer> csrBidirectional;
+    private BidirectionalDijkstra<Integer> intBidirectional;
+    private int[] starts;
+    private int[] ends;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        edges = Datasets.randomEdges(vertices, 4 * vertices);
+        CsrGraph<Integer> csr = buildGraphAndFreeze();
+        IntGraph<Integer> ints = buildIntGraph();
+        csrDijkstra = new Dijkstra<>(csr);
+        intDijkstra = new Dijkstra<>(ints);
+        csrBidirectional = new BidirectionalDijkstra<>(csr);
+        intBidirectional = new BidirectionalDijkstra<>(ints);
+        Random random = new Random(Datasets.SEED);
+        starts = new int[QUERY_COUNT];
+        ends = new int[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            starts[i] = random.nextInt(vertices);
+            ends[i] = random.nextInt(vertices);
+        }
+    }
+
+    private int nextQuery() {
+        int query = next;
+        next = (next + 1) & (QUERY_COUNT - 1);
+        return query;
+    }
+
+    @Benchmark
+    public CsrGraph<Integer> buildGraphAndFreeze() {
+        List<Graph.Vertex<Integer>> vertexList = Datasets.integerVertices(vertices);
+        Graph<Integer> graph = new Graph<>(Graph.TYPE.UNDIRECTED);
+        for (Graph.Vertex<Integer> vertex : vertexList) {
+            graph.addVertex(vertex);
+        }
+        for (int i = 0; i < edges[0].length; i++) {
+            graph.addEdge(new Graph.Edge<>(edges[2][i], vertexList.get(edges[0][i]), vertexList.get(edges[1][i])));
+        }
+        return graph.freeze();
+    }
+
+    @Benchmark
+    public IntGraph<Integer> buildIntGraph() {
+        IntGraph<Integer> graph = new IntGraph<>(Graph.TYPE.UNDIRECTED);
+        for (Graph.Vertex<Integer> vertex : Datasets.integerVertices(vertices)) {
+            graph.addVertex(vertex);
+        }
+        for (int i = 0; i < edges[0].length; i++) {
+            graph.addEdge(edges[0][i], edges[1][i], edges[2][i]);
+        }
+        return graph;
+    }
+
+    @Benchmark
+    public int fullSearchCsr() {
+        csrDijkstra.search(starts[nextQuery()], -1);
+        return csrDijkstra.getSettledCount();
+    }
+
+    @Benchmark
+    public int fullSearchIntGraph() {
+        intDijkstra.search(starts[nextQuery()], -1);
+        return intDijkstra.getSettledCount();
+    }
+
+    @Benchmark
+    public long bidirectionalCsr() {
+        int query = nextQuery();
+        return csrBidirectional.getDistance(starts[query], ends[query]);
+    }
+
+    @Benchmark
+    public long bidirectionalIntGraph() {
+        int query = nextQuery();
+        return intBidirectional.getDistance(starts[query], ends[query]);
+    }
+}
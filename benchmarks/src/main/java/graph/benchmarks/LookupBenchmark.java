@@ -0,0 +1,84 @@
+package graph.benchmarks;
+
+import graph.Graph;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Graph#findVertexByValue} and {@link Graph#findVertexByName} for
+ * values drawn at random from the graph, plus a miss, against the linear scan
+ * the lookups used before the vertex indexes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LookupBenchmark {
+    private static final int KEY_COUNT = 1 << 12;
+
+    @Param({"10000", "100000"})
+    public int jobSeekers;
+
+    private Graph<String> graph;
+    private String[] keys;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = Datasets.load(jobSeekers).toGraph();
+        Random random = new Random(Datasets.SEED);
+        keys = new String[KEY_COUNT];
+        for (int i = 0; i < keys.length; i++) {
+            // Fresh strings, so lookups hash and compare rather than hit identity
+            keys[i] = new String(graph.getVertices().get(random.nextInt(graph.getVertices().size())).getValue());
+        }
+    }
+
+    private String nextKey() {
+        String key = keys[next];
+        next = (next + 1) & (KEY_COUNT - 1);
+        return key;
+    }
+
+    @Benchmark
+    public Graph.Vertex<String> findVertexByValue() {
+        return graph.findVertexByValue(nextKey());
+    }
+
+    @Benchmark
+    public Graph.Vertex<String> findVertexByName() {
+        return graph.findVertexByName(nextKey());
+    }
+
+    @Benchmark
+    public Graph.Vertex<String> findVertexByValueMiss() {
+        return graph.findVertexByValue("No such vertex");
+    }
+
+    @Benchmark
+    public Graph.Vertex<String> linearScan() {
+        String key = nextKey();
+        for (Graph.Vertex<String> vertex : graph.getVertices()) {
+            if (vertex.getValue().equals(key)) {
+                return vertex;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,121 @@
+package graph.benchmarks;
+
+import graph.CreateGraph;
+import graph.JobRecommender;
+import graph.JobSeekerNode;
+import graph.SkillVector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Skill matching: seekers holding all or any of a set of skills through the
+ * skill index, a full coverage scan over skill lists against skill vectors,
+ * and top-k job recommendations for one seeker or for all of them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MatchingBenchmark {
+    private static final int QUERY_COUNT = 1 << 8;
+
+    @Param({"10000", "100000"})
+    public int jobSeekers;
+
+    private CreateGraph graph;
+    private JobRecommender recommender;
+    // Skill sets of random seekers, so queries follow the skill skew of the data
+    private List<List<String>> skillQueries;
+    private JobSeekerNode[] seekerQueries;
+    private SkillVector[] vectorQueries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = Datasets.load(jobSeekers);
+        recommender = new JobRecommender(graph);
+        Random random = new Random(Datasets.SEED);
+        List<JobSeekerNode> seekers = graph.getJobSeekers();
+        seekerQueries = new JobSeekerNode[QUERY_COUNT];
+        vectorQueries = new SkillVector[QUERY_COUNT];
+        skillQueries = new ArrayList<>(QUERY_COUNT);
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            seekerQueries[i] = seekers.get(random.nextInt(seekers.size()));
+            skillQueries.add(seekerQueries[i].getSkills());
+            vectorQueries[i] = SkillVector.of(seekerQueries[i].getSkills());
+        }
+    }
+
+    private int nextQuery() {
+        int query = next;
+        next = (next + 1) & (QUERY_COUNT - 1);
+        return query;
+    }
+
+    @Benchmark
+    public List<JobSeekerNode> withAllSkills() {
+        return graph.getJobSeekersWithAllSkills(skillQueries.get(nextQuery()));
+    }
+
+    @Benchmark
+    public List<JobSeekerNode> withAnySkill() {
+        return graph.getJobSeekersWithAnySkill(skillQueries.get(nextQuery()));
+    }
+
+    @Benchmark
+    public List<JobRecommender.Recommendation> recommend() {
+        return recommender.recommend(seekerQueries[nextQuery()], 10);
+    }
+
+    @Benchmark
+    public int coverageScanLists() {
+        List<String> required = skillQueries.get(nextQuery());
+        int covered = 0;
+        for (JobSeekerNode seeker : graph.getJobSeekers()) {
+            if (seeker.getSkills().containsAll(required)) {
+                covered++;
+            }
+        }
+        return covered;
+    }
+
+    @Benchmark
+    public int coverageScanVectors() {
+        SkillVector required = vectorQueries[nextQuery()];
+        int covered = 0;
+        for (JobSeekerNode seeker : graph.getJobSeekers()) {
+            if (seeker.hasAllSkills(required)) {
+                covered++;
+            }
+        }
+        return covered;
+    }
+
+    @Benchmark
+    public JobRecommender buildRecommender() {
+        return new JobRecommender(graph);
+    }
+
+    @Benchmark
+    public List<List<JobRecommender.Recommendation>> recommendAll() {
+        return recommender.recommendAll(10);
+    }
+}
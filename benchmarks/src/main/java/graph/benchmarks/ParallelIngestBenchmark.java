@@ -0,0 +1,63 @@
+package graph.benchmarks;
+
+import graph.CreateGraph;
+import graph.ParallelGraphLoader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loading a whole data file with {@link ParallelGraphLoader} in 4 MB chunks
+ * on a pool of the given number of threads. Compare with
+ * {@link IngestBenchmark} for the sequential readers.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelIngestBenchmark {
+    private static final int CHUNK_SIZE = 4 << 20;
+
+    @Param({"10000", "100000"})
+    public int jobSeekers;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private Path dataFile;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataFile = Datasets.dataFile(jobSeekers);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public CreateGraph load() throws IOException {
+        return new ParallelGraphLoader(pool, CHUNK_SIZE).load(dataFile);
+    }
+}
@@ -0,0 +1,76 @@
+package graph.benchmarks;
+
+import graph.BidirectionalDijkstra;
+import graph.CsrGraph;
+import graph.Dijkstra;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Point-to-point shortest path queries between random vertices of the frozen
+ * seeker/job graph, with plain and bidirectional Dijkstra.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PathBenchmark {
+    private static final int QUERY_COUNT = 1 << 10;
+
+    @Param({"10000", "100000"})
+    public int jobSeekers;
+
+    private Dijkstra<String> dijkstra;
+    private BidirectionalDijkstra<String> bidirectional;
+    private int[] starts;
+    private int[] ends;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CsrGraph<String> graph = Datasets.load(jobSeekers).toGraph().freeze();
+        dijkstra = new Dijkstra<>(graph);
+        bidirectional = new BidirectionalDijkstra<>(graph);
+        Random random = new Random(Datasets.SEED);
+        starts = new int[QUERY_COUNT];
+        ends = new int[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            starts[i] = random.nextInt(graph.getVertexCount());
+            ends[i] = random.nextInt(graph.getVertexCount());
+        }
+    }
+
+    private int nextQuery() {
+        int query = next;
+        next = (next + 1) & (QUERY_COUNT - 1);
+        return query;
+    }
+
+    @Benchmark
+    public long dijkstra() {
+        int query = nextQuery();
+        return dijkstra.getDistance(starts[query], ends[query]);
+    }
+
+    @Benchmark
+    public long bidirectionalDijkstra() {
+        int query = nextQuery();
+        return bidirectional.getDistance(starts[query], ends[query]);
+    }
+}
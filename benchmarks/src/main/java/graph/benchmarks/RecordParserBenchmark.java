@@ -0,0 +1,123 @@
+package graph.benchmarks;
+
+import graph.RecordParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Tokenizing one line of a data file with {@link RecordParser} against the
+ * String.split chain parseData used before it. Lines are taken in file order,
+ * so the mix of record types is the file's.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RecordParserBenchmark {
+    @Param({"10000"})
+    public int jobSeekers;
+
+    private String[] lines;
+    private CountingHandler handler;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<String> all = Files.readAllLines(Datasets.dataFile(jobSeekers), StandardCharsets.UTF_8);
+        lines = all.toArray(new String[0]);
+        handler = new CountingHandler();
+    }
+
+    @TearDown(Level.Trial)
+    public void checkParsed() {
+        if (handler.invalid > 0) {
+            throw new IllegalStateException(handler.invalid + " lines failed to parse");
+        }
+    }
+
+    private String nextLine() {
+        String line = lines[next];
+        next = (next + 1 == lines.length) ? 0 : next + 1;
+        return line;
+    }
+
+    @Benchmark
+    public long recordParser() {
+        RecordParser.parse(nextLine(), handler);
+        return handler.fields;
+    }
+
+    @Benchmark
+    public long split() {
+        splitParse(nextLine(), handler);
+        return handler.fields;
+    }
+
+    // Tokenizing as parseData did before RecordParser, also taking skill lines
+    // with the "Job Seeker: " prefix DataGenerator writes
+    private static void splitParse(String line, RecordParser.Handler handler) {
+        String[] parts = line.split(": ", 2);
+        switch (parts[0]) {
+            case "Job Seeker":
+                if (parts[1].contains(" has the following skills required for ")) {
+                    splitSkillEdge(parts[1], line, handler);
+                    break;
+                }
+                String[] seekerParts = parts[1].split(" \\(Skills: ");
+                String[] skillsAndExperience = seekerParts[1].split(", Experience: ");
+                String[] experienceAndLocation = skillsAndExperience[1].split(" years", 2);
+                String location = experienceAndLocation[1].startsWith(", Preferred Location: ")
+                        ? experienceAndLocation[1].split(", Preferred Location: ")[1].replace(")", "")
+                        : null;
+                handler.jobSeeker(seekerParts[0], skillsAndExperience[0].split(", "),
+                        Integer.parseInt(experienceAndLocation[0]), location);
+                break;
+            case "Job":
+                String[] jobParts = parts[1].split(" \\(Company: ");
+                String[] companyAndLocation = jobParts[1].split(", Location: ");
+                handler.job(jobParts[0], companyAndLocation[0], companyAndLocation[1].split(", Description: ")[0],
+                        companyAndLocation[1].split(", Description: ")[1]);
+                break;
+            case "Job Application":
+                String[] applicationParts = parts[1].split(" applied for ");
+                String[] jobAndCompany = applicationParts[1].split(" at ");
+                handler.application(applicationParts[0], jobAndCompany[0], jobAndCompany[1].split(" \\(Status: ")[0],
+                        jobAndCompany[1].split(" \\(Status: ")[1].replace(")", ""), line);
+                break;
+            case "Job Seeker Skill":
+                splitSkillEdge(parts[1], line, handler);
+                break;
+            default:
+                handler.invalid(line);
+                break;
+        }
+    }
+
+    private static void splitSkillEdge(String record, String line, RecordParser.Handler handler) {
+        String[] skillParts = record.split(" has the following skills required for ");
+        String[] skillJobAndCompany = skillParts[1].split(" at ");
+        handler.skillEdge(skillParts[0], skillJobAndCompany[0],
+                skillJobAndCompany[1].split(" \\(Required Skills: ")[0],
+                skillJobAndCompany[1].split(" \\(Required Skills: ")[1].replace(")", "").split(", "), line);
+    }
+}
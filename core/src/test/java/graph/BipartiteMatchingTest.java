@@ -0,0 +1,125 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph.Edge;
+import graph.Graph.Vertex;
+
+/**
+ * Hopcroft-Karp over a frozen graph and over an {@link IntGraph} finding
+ * matchings as large as a plain augmenting path search over the {@link Graph}
+ * they came from, made of the graph's edges and using every vertex once.
+ */
+public class BipartiteMatchingTest {
+
+	private static final int LEFT = 60;
+	private static final int RIGHT = 50;
+
+	@Test
+	public void matchingsAreAsLargeAsOnTheGraph() {
+		for (Graph.TYPE type : Graph.TYPE.values()) {
+			for (long seed = 0; seed < 8; seed++) {
+				final Random random = new Random(seed);
+				final Graph<Integer> graph = new Graph<Integer>(type);
+				final List<Vertex<Integer>> left = new ArrayList<Vertex<Integer>>();
+				final List<Vertex<Integer>> right = new ArrayList<Vertex<Integer>>();
+				for (int i = 0; i < LEFT + RIGHT; i++) {
+					final Vertex<Integer> v = new Vertex<Integer>(i, 0);
+					(i < LEFT ? left : right).add(v);
+					graph.addVertex(v);
+				}
+				// Sparse enough to leave vertices unmatched, with a few edges
+				// inside the left side that the matching has to ignore
+				final int edges = (int) (LEFT * (1 + seed % 3));
+				for (int i = 0; i < edges; i++)
+					graph.addEdge(new Edge<Integer>(1, left.get(random.nextInt(LEFT)), right.get(random.nextInt(RIGHT))));
+				for (int i = 0; i < 10; i++)
+					graph.addEdge(new Edge<Integer>(1, left.get(random.nextInt(LEFT)), left.get(random.nextInt(LEFT))));
+
+				final int expected = maximumMatching(left);
+				final List<IntAdjacency<Integer>> backends = new ArrayList<IntAdjacency<Integer>>();
+				backends.add(graph.freeze());
+				backends.add(new IntGraph<Integer>(graph));
+				for (IntAdjacency<Integer> backend : backends) {
+					final String where = type + " seed " + seed + " " + backend.getClass().getSimpleName();
+					final BipartiteMatching<Integer> matching = new BipartiteMatching<Integer>(backend);
+					// Twice, the second query reuses the arrays of the first
+					for (int query = 0; query < 2; query++) {
+						final Map<Vertex<Integer>, Vertex<Integer>> pairs = matching.getMatching(left);
+						assertEquals(expected, pairs.size(), where);
+						assertEquals(expected, matching.getSize(), where);
+						check(left, pairs, where);
+						for (Map.Entry<Vertex<Integer>, Vertex<Integer>> pair : pairs.entrySet()) {
+							assertEquals(backend.getId(pair.getValue()), matching.getMate(backend.getId(pair.getKey())));
+							assertEquals(backend.getId(pair.getKey()), matching.getMate(backend.getId(pair.getValue())));
+						}
+					}
+				}
+			}
+		}
+	}
+
+	// Every pair is an edge from the left to the right side, no right vertex twice
+	private static void check(List<Vertex<Integer>> left, Map<Vertex<Integer>, Vertex<Integer>> pairs,
+			String where) {
+		final Set<Vertex<Integer>> leftSet = Collections
+				.newSetFromMap(new IdentityHashMap<Vertex<Integer>, Boolean>());
+		leftSet.addAll(left);
+		final Set<Vertex<Integer>> used = Collections.newSetFromMap(new IdentityHashMap<Vertex<Integer>, Boolean>());
+		for (Map.Entry<Vertex<Integer>, Vertex<Integer>> pair : pairs.entrySet()) {
+			final Vertex<Integer> u = pair.getKey();
+			final Vertex<Integer> v = pair.getValue();
+			assertTrue(leftSet.contains(u), where);
+			assertFalse(leftSet.contains(v), where);
+			assertTrue(used.add(v), where);
+			assertNotNull(u.getEdge(v), where);
+			assertSame(v, u.getEdge(v).getOtherVertex(u), where);
+		}
+	}
+
+	// Reference: one augmenting path search per left vertex over the vertices'
+	// own edge lists
+	private static int maximumMatching(List<Vertex<Integer>> left) {
+		final Set<Vertex<Integer>> leftSet = Collections
+				.newSetFromMap(new IdentityHashMap<Vertex<Integer>, Boolean>());
+		leftSet.addAll(left);
+		final Map<Vertex<Integer>, Vertex<Integer>> mate = new IdentityHashMap<Vertex<Integer>, Vertex<Integer>>();
+		int size = 0;
+		for (Vertex<Integer> u : left) {
+			final Set<Vertex<Integer>> seen = Collections
+					.newSetFromMap(new IdentityHashMap<Vertex<Integer>, Boolean>());
+			if (augment(u, leftSet, mate, seen))
+				size++;
+		}
+		return size;
+	}
+
+	private static boolean augment(Vertex<Integer> u, Set<Vertex<Integer>> leftSet,
+			Map<Vertex<Integer>, Vertex<Integer>> mate, Set<Vertex<Integer>> seen) {
+		for (Edge<Integer> e : u.getEdges()) {
+			final Vertex<Integer> v = e.getOtherVertex(u);
+			if (leftSet.contains(v) || !seen.add(v))
+				continue;
+			final Vertex<Integer> w = mate.get(v);
+			if (w == null || augment(w, leftSet, mate, seen)) {
+				mate.put(v, u);
+				return true;
+			}
+		}
+		return false;
+	}
+}
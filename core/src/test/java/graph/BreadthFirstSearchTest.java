@@ -0,0 +1,110 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph.Edge;
+import graph.Graph.Vertex;
+
+/**
+ * Breadth-first search over a frozen graph and over an {@link IntGraph} agreeing
+ * with a plain breadth-first search over the {@link Graph} they came from.
+ */
+public class BreadthFirstSearchTest {
+
+	private static final int VERTICES = 200;
+	private static final int EDGES = 400;
+
+	@Test
+	public void hopsAndPathsAgreeWithTheGraph() {
+		for (Graph.TYPE type : Graph.TYPE.values()) {
+			final Random random = new Random(4);
+			final Graph<Integer> graph = randomGraph(type, random);
+			final List<IntAdjacency<Integer>> backends = new ArrayList<IntAdjacency<Integer>>();
+			backends.add(graph.freeze());
+			backends.add(new IntGraph<Integer>(graph));
+
+			for (IntAdjacency<Integer> backend : backends) {
+				final BreadthFirstSearch<Integer> search = new BreadthFirstSearch<Integer>(backend);
+				for (int q = 0; q < 100; q++) {
+					final Vertex<Integer> start = graph.getVertices().get(random.nextInt(VERTICES));
+					final Vertex<Integer> end = graph.getVertices().get(random.nextInt(VERTICES));
+					final Map<Vertex<Integer>, Integer> expected = hops(start);
+					final String where = type + " " + backend.getClass().getSimpleName() + " query " + q;
+
+					// Full search, every vertex at the expected depth
+					search.search(backend.getId(start), -1);
+					for (Vertex<Integer> v : graph.getVertices()) {
+						final Integer hops = expected.get(v);
+						assertEquals(hops != null ? hops : BreadthFirstSearch.UNREACHABLE,
+								search.getHops(backend.getId(v)), where);
+					}
+					assertEquals(expected.size(), search.getVisitedCount(), where);
+
+					// Early exit, and the path of as many edges leading from start to end
+					final Integer hops = expected.get(end);
+					assertEquals(hops != null ? hops : BreadthFirstSearch.UNREACHABLE,
+							search.getHops(backend.getId(start), backend.getId(end)), where);
+					final List<Edge<Integer>> path = search.getPath(start, end);
+					if (hops == null) {
+						assertNull(path, where);
+						continue;
+					}
+					assertNotNull(path, where);
+					assertEquals(hops.intValue(), path.size(), where);
+					Vertex<Integer> at = start;
+					for (Edge<Integer> e : path) {
+						assertSame(at, e.getFromVertex(), where);
+						at = e.getToVertex();
+					}
+					assertSame(end, at, where);
+				}
+			}
+		}
+	}
+
+	// Reference search over the vertices' own edge lists
+	private static Map<Vertex<Integer>, Integer> hops(Vertex<Integer> start) {
+		final Map<Vertex<Integer>, Integer> hops = new IdentityHashMap<Vertex<Integer>, Integer>();
+		final ArrayDeque<Vertex<Integer>> queue = new ArrayDeque<Vertex<Integer>>();
+		hops.put(start, 0);
+		queue.add(start);
+		while (!queue.isEmpty()) {
+			final Vertex<Integer> u = queue.poll();
+			for (Edge<Integer> e : u.getEdges()) {
+				final Vertex<Integer> v = e.getOtherVertex(u);
+				if (!hops.containsKey(v)) {
+					hops.put(v, hops.get(u) + 1);
+					queue.add(v);
+				}
+			}
+		}
+		return hops;
+	}
+
+	private static Graph<Integer> randomGraph(Graph.TYPE type, Random random) {
+		final Graph<Integer> graph = new Graph<Integer>(type);
+		final List<Vertex<Integer>> vertices = new ArrayList<Vertex<Integer>>();
+		for (int i = 0; i < VERTICES; i++) {
+			final Vertex<Integer> v = new Vertex<Integer>(i, 0);
+			vertices.add(v);
+			graph.addVertex(v);
+		}
+		for (int i = 0; i < EDGES; i++) {
+			graph.addEdge(new Edge<Integer>(random.nextInt(10), vertices.get(random.nextInt(VERTICES)),
+					vertices.get(random.nextInt(VERTICES))));
+		}
+		return graph;
+	}
+}
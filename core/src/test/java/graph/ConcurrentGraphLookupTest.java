@@ -0,0 +1,139 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph.Vertex;
+
+/**
+ * Lookups by value and name through a snapshot answer as of the snapshot's
+ * version, whatever the writer did to the indexed vertices since, and promote
+ * duplicates in the order {@link Graph} does.
+ */
+public class ConcurrentGraphLookupTest {
+
+	@Test
+	public void removedVertexIsFoundThroughAnOlderSnapshot() {
+		final ConcurrentGraph<String> graph = new ConcurrentGraph<String>();
+		final Vertex<String> vertex = new Vertex<String>("a", 0);
+		graph.addVertex(vertex);
+
+		try (ConcurrentGraph.Snapshot<String> snapshot = graph.snapshot()) {
+			graph.removeVertex(vertex);
+			assertSame(vertex, snapshot.findVertexByValue("a"));
+			assertSame(vertex, snapshot.findVertexByName("a"));
+			assertNull(graph.findVertexByValue("a"));
+			assertNull(graph.findVertexByName("a"));
+		}
+	}
+
+	@Test
+	public void promotedDuplicateIsNotFoundThroughAnOlderSnapshot() {
+		final ConcurrentGraph<String> graph = new ConcurrentGraph<String>();
+		final Vertex<String> first = new Vertex<String>("a", 0);
+		final Vertex<String> second = new Vertex<String>("a", 1);
+		graph.addVertex(first);
+		graph.addVertex(second);
+
+		try (ConcurrentGraph.Snapshot<String> snapshot = graph.snapshot()) {
+			graph.removeVertex(first);
+			assertSame(first, snapshot.findVertexByValue("a"));
+			assertSame(first, snapshot.findVertexByName("a"));
+			assertSame(second, graph.findVertexByValue("a"));
+			assertSame(second, graph.findVertexByName("a"));
+		}
+	}
+
+	@Test
+	public void vertexAddedLaterIsNotFoundThroughAnOlderSnapshot() {
+		final ConcurrentGraph<String> graph = new ConcurrentGraph<String>();
+		final Vertex<String> first = new Vertex<String>("a", 0);
+		graph.addVertex(first);
+		graph.removeVertex(first);
+
+		try (ConcurrentGraph.Snapshot<String> snapshot = graph.snapshot()) {
+			final Vertex<String> later = new Vertex<String>("a", 1);
+			graph.addVertex(later);
+			assertNull(snapshot.findVertexByValue("a"));
+			assertSame(later, graph.findVertexByValue("a"));
+
+			// Re-adding the first vertex leaves the index with the later one
+			graph.removeVertex(later);
+			graph.addVertex(first);
+			graph.addVertex(later);
+			assertNull(snapshot.findVertexByName("a"));
+			assertSame(first, graph.findVertexByName("a"));
+		}
+	}
+
+	@Test
+	public void lookupsStayRightOnceOldVersionsAreReclaimed() {
+		final ConcurrentGraph<String> graph = new ConcurrentGraph<String>();
+		final Vertex<String> first = new Vertex<String>("a", 0);
+		final Vertex<String> second = new Vertex<String>("a", 1);
+		for (int i = 0; i < 3; i++) {
+			graph.addVertex(first);
+			graph.addVertex(second);
+			graph.removeVertex(first);
+			assertSame(second, graph.findVertexByValue("a"));
+			graph.removeVertex(second);
+			assertNull(graph.findVertexByValue("a"));
+			assertNull(graph.findVertexByName("a"));
+		}
+		graph.addVertex(second);
+		assertSame(second, graph.findVertexByValue("a"));
+	}
+
+	@Test
+	public void promotesDuplicatesInRegistrationOrderLikeGraph() {
+		for (long seed = 0; seed < 8; seed++) {
+			final Random random = new Random(seed);
+			final Graph<Integer> expected = new Graph<Integer>(Graph.TYPE.DIRECTED);
+			final ConcurrentGraph<Integer> graph = new ConcurrentGraph<Integer>(Graph.TYPE.DIRECTED);
+			final List<Vertex<Integer>> present = new ArrayList<Vertex<Integer>>();
+			final List<Vertex<Integer>> removed = new ArrayList<Vertex<Integer>>();
+			for (int step = 0; step < 2000; step++) {
+				// Several changes in one version now and then
+				final int changes = random.nextInt(4) == 0 ? 1 + random.nextInt(4) : 1;
+				graph.applyBatch(g -> {
+					for (int i = 0; i < changes; i++)
+						change(random, expected, g, present, removed);
+				});
+				for (int value = 0; value < 6; value++) {
+					final String where = "seed " + seed + " step " + step + " value " + value;
+					assertSame(expected.findVertexByValue(value), graph.findVertexByValue(value), where);
+					assertSame(expected.findVertexByName(Integer.toString(value)),
+							graph.findVertexByName(Integer.toString(value)), where);
+				}
+			}
+		}
+	}
+
+	// Adds a new vertex, re-adds a removed one or removes a present one
+	private static void change(Random random, Graph<Integer> expected, ConcurrentGraph<Integer> graph,
+			List<Vertex<Integer>> present, List<Vertex<Integer>> removed) {
+		final int op = random.nextInt(5);
+		if (present.isEmpty() || op < 2) {
+			final Vertex<Integer> vertex = new Vertex<Integer>(random.nextInt(6), 0);
+			expected.addVertex(vertex);
+			graph.addVertex(vertex);
+			present.add(vertex);
+		} else if (op == 2 && !removed.isEmpty()) {
+			final Vertex<Integer> vertex = removed.remove(random.nextInt(removed.size()));
+			expected.addVertex(vertex);
+			graph.addVertex(vertex);
+			present.add(vertex);
+		} else {
+			final Vertex<Integer> vertex = present.remove(random.nextInt(present.size()));
+			expected.removeVertex(vertex);
+			graph.removeVertex(vertex);
+			removed.add(vertex);
+		}
+	}
+}
@@ -0,0 +1,182 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph.Edge;
+import graph.Graph.Vertex;
+
+/**
+ * Readers taking snapshots while one writer adds and removes edges and
+ * vertices in batches. Every batch leaves the graph with a multiple of
+ * {@link #EDGES_PER_BATCH} edges and balanced reciprocals, so a reader that
+ * sees part of a batch, or a mix of two versions, fails the checks.
+ */
+public class ConcurrentGraphStressTest {
+
+	private static final int VERTICES = 64;
+	private static final int BATCHES = 4000;
+	private static final int EDGES_PER_BATCH = 4;
+	private static final int READERS = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+
+	@Test
+	public void directed() throws InterruptedException {
+		run(Graph.TYPE.DIRECTED);
+	}
+
+	@Test
+	public void undirected() throws InterruptedException {
+		run(Graph.TYPE.UNDIRECTED);
+	}
+
+	private static void run(Graph.TYPE type) throws InterruptedException {
+		final ConcurrentGraph<Integer> graph = new ConcurrentGraph<Integer>(type);
+		final List<Vertex<Integer>> vertices = new ArrayList<Vertex<Integer>>();
+		for (int i = 0; i < VERTICES; i++)
+			vertices.add(new Vertex<Integer>(i, 0));
+		graph.applyBatch(g -> vertices.forEach(g::addVertex));
+
+		final AtomicBoolean writing = new AtomicBoolean(true);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		final List<Thread> readers = new ArrayList<Thread>();
+		for (int r = 0; r < READERS; r++) {
+			final Random random = new Random(r);
+			final Thread reader = new Thread(() -> {
+				try {
+					long version = -1;
+					while (writing.get() && failure.get() == null) {
+						try (ConcurrentGraph.Snapshot<Integer> snapshot = graph.snapshot()) {
+							assertTrue(snapshot.getVersion() >= version, "versions went backwards");
+							version = snapshot.getVersion();
+							check(snapshot, vertices, random);
+						}
+					}
+				} catch (Throwable t) {
+					failure.compareAndSet(null, t);
+				}
+			});
+			reader.start();
+			readers.add(reader);
+		}
+
+		try {
+			write(graph, vertices, new Random(42));
+		} finally {
+			writing.set(false);
+			for (Thread reader : readers)
+				reader.join();
+		}
+		if (failure.get() != null)
+			throw new AssertionError("Reader saw an inconsistent snapshot", failure.get());
+
+		// Versions nobody pins any more were reclaimed, the latest still reads right
+		try (ConcurrentGraph.Snapshot<Integer> snapshot = graph.snapshot()) {
+			check(snapshot, vertices, new Random(0));
+		}
+	}
+
+	// Every batch adds or removes whole groups of EDGES_PER_BATCH edges
+	private static void write(ConcurrentGraph<Integer> graph, List<Vertex<Integer>> vertices, Random random) {
+		final List<List<Edge<Integer>>> groups = new ArrayList<List<Edge<Integer>>>();
+		// A fresh cost for every edge keeps additions from being duplicates
+		int cost = 0;
+		for (int batch = 0; batch < BATCHES; batch++) {
+			final int op = random.nextInt(10);
+			if (op < 6 || groups.isEmpty()) {
+				final List<Edge<Integer>> group = new ArrayList<Edge<Integer>>();
+				while (group.size() < EDGES_PER_BATCH) {
+					final Vertex<Integer> from = vertices.get(random.nextInt(VERTICES));
+					final Vertex<Integer> to = vertices.get(random.nextInt(VERTICES));
+					if (from != to)
+						group.add(new Edge<Integer>(++cost, from, to));
+				}
+				graph.applyBatch(g -> group.forEach(g::addEdge));
+				groups.add(group);
+			} else if (op < 9) {
+				final List<Edge<Integer>> group = groups.remove(random.nextInt(groups.size()));
+				graph.applyBatch(g -> group.forEach(g::removeEdge));
+			} else {
+				// A vertex leaves with its edges, and every group that touched it
+				final Vertex<Integer> vertex = vertices.get(random.nextInt(VERTICES));
+				final List<List<Edge<Integer>>> gone = new ArrayList<List<Edge<Integer>>>();
+				for (List<Edge<Integer>> group : groups) {
+					for (Edge<Integer> e : group) {
+						if (e.getFromVertex() == vertex || e.getToVertex() == vertex) {
+							gone.add(group);
+							break;
+						}
+					}
+				}
+				groups.removeAll(gone);
+				graph.applyBatch(g -> {
+					for (List<Edge<Integer>> group : gone)
+						group.forEach(g::removeEdge);
+					g.removeVertex(vertex);
+				});
+				graph.addVertex(vertex);
+			}
+		}
+	}
+
+	private static void check(ConcurrentGraph.Snapshot<Integer> snapshot, List<Vertex<Integer>> vertices,
+			Random random) {
+		final boolean undirected = snapshot.getType() == Graph.TYPE.UNDIRECTED;
+		final int perBatch = EDGES_PER_BATCH * (undirected ? 2 : 1);
+		final String where = "version " + snapshot.getVersion();
+
+		final List<Vertex<Integer>> present = snapshot.getVertices();
+		assertEquals(snapshot.getVertexCount(), present.size(), where + ": vertex count");
+		final List<Edge<Integer>> edges = snapshot.getEdges();
+		assertEquals(snapshot.getEdgeCount(), edges.size(), where + ": edge count");
+		assertEquals(0, edges.size() % perBatch, where + ": part of a batch is visible");
+
+		final Map<String, Integer> out = new HashMap<String, Integer>();
+		for (Edge<Integer> e : edges) {
+			assertTrue(snapshot.containsVertex(e.getFromVertex()), where + ": edge from a missing vertex");
+			assertTrue(snapshot.containsVertex(e.getToVertex()), where + ": edge to a missing vertex");
+			count(out, e.getFromVertex().getValue(), e.getToVertex().getValue(), e.getCost());
+		}
+		if (undirected) {
+			for (Map.Entry<String, Integer> entry : out.entrySet()) {
+				final String[] key = entry.getKey().split(",");
+				final String reciprocal = key[1] + "," + key[0] + "," + key[2] + ",";
+				assertEquals(entry.getValue(), out.get(reciprocal), where + ": no reciprocal of " + entry.getKey());
+			}
+		}
+
+		// Incoming lists mirror the outgoing ones, and reading twice gives the same
+		final Map<String, Integer> in = new HashMap<String, Integer>();
+		for (Vertex<Integer> v : present) {
+			for (Edge<Integer> e : snapshot.getIncomingEdges(v)) {
+				assertTrue(e.getToVertex() == v, where + ": incoming edge of " + v.getValue() + " points elsewhere");
+				count(in, e.getFromVertex().getValue(), e.getToVertex().getValue(), e.getCost());
+			}
+		}
+		assertEquals(out, in, where + ": incoming edges");
+		final Vertex<Integer> v = vertices.get(random.nextInt(vertices.size()));
+		assertEquals(snapshot.getEdges(v), snapshot.getEdges(v), where + ": edges of " + v.getValue() + " changed");
+		// Values are unique, a vertex is found exactly while it is part of the version
+		final Vertex<Integer> expected = snapshot.containsVertex(v) ? v : null;
+		assertTrue(snapshot.findVertexByValue(v.getValue()) == expected, where + ": lookup of " + v.getValue());
+		assertTrue(snapshot.findVertexByName(v.getValue().toString()) == expected, where + ": lookup of " + v.getValue());
+
+		assertEquals(edges.size(), snapshot.freeze().getEdgeCount(), where + ": frozen edges");
+	}
+
+	private static void count(Map<String, Integer> counts, int... key) {
+		final StringBuilder builder = new StringBuilder();
+		for (int k : key)
+			builder.append(k).append(',');
+		counts.merge(builder.toString(), 1, Integer::sum);
+	}
+}
@@ -0,0 +1,78 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph.Edge;
+import graph.Graph.Vertex;
+
+/**
+ * Edge objects resolved from the slots of a frozen graph and of its
+ * transpose.
+ */
+public class CsrGraphTest {
+
+	private static final int VERTICES = 100;
+	private static final int EDGES = 400;
+
+	@Test
+	public void transposeResolvesTheEdgesItReversed() {
+		final Graph<Integer> graph = randomGraph(new Random(1));
+		final Set<Edge<Integer>> edges = Collections.newSetFromMap(new IdentityHashMap<Edge<Integer>, Boolean>());
+		edges.addAll(graph.getEdges());
+		final CsrGraph<Integer> csr = graph.freeze();
+		final CsrGraph<Integer> reverse = csr.transpose();
+
+		assertEquals(csr.getEdgeCount(), reverse.getEdgeCount());
+		for (int v = 0; v < reverse.getVertexCount(); v++) {
+			for (int slot = reverse.firstEdge(v), end = reverse.endEdge(v); slot < end; slot++) {
+				final Edge<Integer> edge = reverse.getEdge(v, slot);
+				assertNotNull(edge);
+				assertTrue(edges.contains(edge));
+				assertSame(reverse.getVertex(v), edge.getToVertex());
+				assertSame(reverse.getVertex(reverse.getTarget(slot)), edge.getFromVertex());
+				assertEquals(reverse.getCost(slot), edge.getCost());
+				assertSame(edge, reverse.findEdge(v, reverse.getTarget(slot), reverse.getCost(slot)));
+			}
+		}
+	}
+
+	@Test
+	public void transposeOfTransposeResolvesForward() {
+		final CsrGraph<Integer> csr = randomGraph(new Random(2)).freeze();
+		final CsrGraph<Integer> twice = csr.transpose().transpose();
+		for (int v = 0; v < twice.getVertexCount(); v++) {
+			for (int slot = twice.firstEdge(v), end = twice.endEdge(v); slot < end; slot++) {
+				final Edge<Integer> edge = twice.getEdge(v, slot);
+				assertSame(twice.getVertex(v), edge.getFromVertex());
+				assertSame(twice.getVertex(twice.getTarget(slot)), edge.getToVertex());
+			}
+		}
+	}
+
+	private static Graph<Integer> randomGraph(Random random) {
+		final Graph<Integer> graph = new Graph<Integer>(Graph.TYPE.DIRECTED);
+		final List<Vertex<Integer>> vertices = new ArrayList<Vertex<Integer>>();
+		for (int i = 0; i < VERTICES; i++) {
+			final Vertex<Integer> v = new Vertex<Integer>(i, 0);
+			vertices.add(v);
+			graph.addVertex(v);
+		}
+		for (int i = 0; i < EDGES; i++) {
+			graph.addEdge(new Edge<Integer>(random.nextInt(10), vertices.get(random.nextInt(VERTICES)),
+					vertices.get(random.nextInt(VERTICES))));
+		}
+		return graph;
+	}
+}
@@ -0,0 +1,246 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Crash recovery of {@link GraphChangeLog}: logs cut short, corrupted, left
+ * behind by a compaction or written across a failed compaction have to reopen
+ * to the graph of the changes that made it to disk, and nothing else.
+ */
+public class GraphChangeLogTest {
+
+	private static final int CHANGES = 8;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void reopensToTheSameGraph() throws IOException {
+		final Path snapshot = directory.resolve("graph.snapshot");
+		final Path log = directory.resolve("graph.log");
+		final List<String> states = new ArrayList<String>();
+		try (GraphChangeLog changeLog = GraphChangeLog.open(snapshot, log, 0)) {
+			mutate(changeLog, log, 0, states, null);
+			// Rejected changes do not reach the log
+			final long size = Files.size(log);
+			assertThrows(IllegalArgumentException.class,
+					() -> changeLog.addApplication("Nobody", "Job 0", "Company", "Applied"));
+			assertThrows(IllegalArgumentException.class, () -> changeLog.updateStatus("Nobody", "Job 0", "Offered"));
+			assertEquals(size, Files.size(log));
+		}
+		final String expected = states.get(states.size() - 1);
+
+		try (GraphChangeLog changeLog = GraphChangeLog.open(snapshot, log, 0)) {
+			assertEquals(expected, describe(changeLog.getGraph()));
+			assertEquals(states.size() - 1, changeLog.getReplayedCount());
+			assertEquals(0, changeLog.getDroppedBytes());
+			changeLog.compact();
+			changeLog.updateStatus("Seeker 2", "Job 2", "Hired");
+		}
+		try (GraphChangeLog changeLog = GraphChangeLog.open(snapshot, log, 0)) {
+			assertEquals(1, changeLog.getReplayedCount());
+			assertEquals(expected.replace("Seeker 2|Job 2|Company 2|Interviewing", "Seeker 2|Job 2|Company 2|Hired"),
+					describe(changeLog.getGraph()));
+		}
+	}
+
+	@Test
+	public void dropsARecordTornAnywhere() throws IOException {
+		final Path snapshot = directory.resolve("graph.snapshot");
+		final Path log = directory.resolve("graph.log");
+		final List<String> states = new ArrayList<String>();
+		final List<Long> sizes = new ArrayList<Long>();
+		try (GraphChangeLog changeLog = GraphChangeLog.open(snapshot, log, 0)) {
+			mutate(changeLog, log, 0, states, sizes);
+		}
+		final Path full = directory.resolve("full.log");
+		Files.copy(log, full);
+
+		final int last = sizes.size() - 1;
+		for (long cut = sizes.get(last - 1) + 1; cut < sizes.get(last); cut++) {
+			Files.copy(full, log, StandardCopyOption.REPLACE_EXISTING);
+			truncate(log, cut);
+			try (GraphChangeLog changeLog = GraphChangeLog.open(snapshot, log, 0)) {
+				assertEquals(states.get(last - 1), describe(changeLog.getGraph()), "cut at " + cut);
+				assertEquals(last - 1, changeLog.getReplayedCount());
+				assertEquals(cut - sizes.get(last - 1), changeLog.getDroppedBytes());
+				assertEquals((long) sizes.get(last - 1), Files.size(log));
+				// Appends continue after the last intact record
+				changeLog.updateStatus("Seeker 0", "Job 0", "Rejected");
+			}
+			try (GraphChangeLog changeLog = GraphChangeLog.open(snapshot, log, 0)) {
+				assertEquals(last, changeLog.getReplayedCount());
+				assertEquals(0, changeLog.getDroppedBytes());
+			}
+		}
+	}
+
+	@Test
+	public void stopsAtAChecksumMismatch() throws IOException {
+		final Path snapshot = directory.resolve("graph.snapshot");
+		final Path log = directory.resolve("graph.log");
+		final List<String> states = new ArrayList<String>();
+		final List<Long> sizes = new ArrayList<Long>();
+		try (GraphChangeLog changeLog = GraphChangeLog.open(snapshot, log, 0)) {
+			mutate(changeLog, log, 0, states, sizes);
+		}
+		final Path full = directory.resolve("full.log");
+		Files.copy(log, full);
+
+		// sizes.get(0) is the header, record i spans sizes i to i + 1
+		for (int record = 0; record < sizes.size() - 1; record++) {
+			final long start = sizes.get(record);
+			// The checksum field and the first and last payload byte
+			for (long offset : new long[] { start + 4, start + 8, sizes.get(record + 1) - 1 }) {
+				Files.copy(full, log, StandardCopyOption.REPLACE_EXISTING);
+				flip(log, offset);
+				try (GraphChangeLog changeLog = GraphChangeLog.open(snapshot, log, 0)) {
+					final String where = "record " + record + " byte " + offset;
+					assertEquals(states.get(record), describe(changeLog.getGraph()), where);
+					assertEquals(record, changeLog.getReplayedCount(), where);
+					assertEquals(Files.size(full) - start, changeLog.getDroppedBytes(), where);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void ignoresALogOfAnotherSnapshot() throws IOException {
+		final Path snapshot = directory.resolve("graph.snapshot");
+		final Path log = directory.resolve("graph.log");
+		final List<String> states = new ArrayList<String>();
+		final Path stale = directory.resolve("stale.log");
+		try (GraphChangeLog changeLog = GraphChangeLog.open(snapshot, log, 0)) {
+			mutate(changeLog, log, 0, states, null);
+			changeLog.compact();
+			mutate(changeLog, log, CHANGES, states, null);
+			Files.copy(log, stale);
+			changeLog.compact();
+		}
+		final String expected = states.get(states.size() - 1);
+
+		// A crash between the two moves of the last compaction: the new snapshot
+		// is in place, the log still holds the changes it already contains
+		Files.copy(stale, log, StandardCopyOption.REPLACE_EXISTING);
+		try (GraphChangeLog changeLog = GraphChangeLog.open(snapshot, log, 0)) {
+			assertEquals(expected, describe(changeLog.getGraph()));
+			assertEquals(0, changeLog.getReplayedCount());
+			changeLog.addJob("Job late", "Company late", "Remote", "Added after recovery");
+		}
+		try (GraphChangeLog changeLog = GraphChangeLog.open(snapshot, log, 0)) {
+			assertEquals(1, changeLog.getReplayedCount());
+			assertEquals(CHANGES + 1, changeLog.getGraph().getJobs().size());
+		}
+	}
+
+	@Test
+	public void keepsLoggingAfterACompactionFailedBetweenTheMoves() throws IOException {
+		final Path snapshot = directory.resolve("graph.snapshot");
+		final Path log = directory.resolve("graph.log");
+		final List<String> states = new ArrayList<String>();
+		try (GraphChangeLog changeLog = GraphChangeLog.open(snapshot, log, 0)) {
+			mutate(changeLog, log, 0, states, null);
+			final long snapshotBefore = Files.exists(snapshot) ? Files.size(snapshot) : 0;
+			changeLog.afterSnapshotMove = () -> {
+				throw new UncheckedIOException(new IOException("Disk full"));
+			};
+			assertThrows(UncheckedIOException.class, changeLog::compact);
+			assertTrue(Files.size(snapshot) > snapshotBefore);
+
+			// The instance now logs on top of the snapshot that was moved in place
+			changeLog.afterSnapshotMove = null;
+			mutate(changeLog, log, CHANGES, states, null);
+		}
+		try (GraphChangeLog changeLog = GraphChangeLog.open(snapshot, log, 0)) {
+			assertEquals(states.get(states.size() - 1), describe(changeLog.getGraph()));
+			assertEquals(CHANGES + CHANGES / 2 + 2, changeLog.getReplayedCount());
+		}
+	}
+
+	/**
+	 * Seekers, jobs and applications numbered from first on, a status update and
+	 * a withdrawn application. Records the graph after every change, and the log
+	 * size before the first and after every change if sizes is not null.
+	 */
+	private static void mutate(GraphChangeLog changeLog, Path log, int first, List<String> states,
+			List<Long> sizes) throws IOException {
+		if (states.isEmpty())
+			states.add(describe(changeLog.getGraph()));
+		if (sizes != null)
+			sizes.add(Files.size(log));
+		for (int i = first; i < first + CHANGES; i++) {
+			if (i % 2 == 0)
+				changeLog.addJobSeeker("Seeker " + i, Arrays.asList("Java", "SQL", "Skill " + i), i,
+						i % 4 == 0 ? null : "City \u00e9 " + i);
+			else
+				changeLog.addJob("Job " + (i - 1), "Company " + (i - 1), "City " + i, "Description " + i);
+			record(changeLog, log, states, sizes);
+		}
+		for (int i = first; i < first + CHANGES; i += 2) {
+			changeLog.addApplication("Seeker " + i, "Job " + i, "Company " + i, "Applied");
+			record(changeLog, log, states, sizes);
+		}
+		changeLog.updateStatus("Seeker " + (first + 2), "Job " + (first + 2), "Interviewing");
+		record(changeLog, log, states, sizes);
+		changeLog.removeApplication("Seeker " + first, "Job " + first);
+		record(changeLog, log, states, sizes);
+	}
+
+	private static void record(GraphChangeLog changeLog, Path log, List<String> states, List<Long> sizes)
+			throws IOException {
+		states.add(describe(changeLog.getGraph()));
+		if (sizes != null)
+			sizes.add(Files.size(log));
+	}
+
+	/**
+	 * Everything the log stores, in an order that does not depend on how
+	 * removals reordered the applications.
+	 */
+	private static String describe(CreateGraph graph) {
+		final StringBuilder builder = new StringBuilder();
+		for (JobSeekerNode seeker : graph.getJobSeekers())
+			builder.append(seeker.getName()).append('|').append(seeker.getSkills()).append('|')
+					.append(seeker.getExperienceYears()).append('|').append(seeker.getPreferredLocation()).append('\n');
+		for (JobNode job : graph.getJobs())
+			builder.append(job.getTitle()).append('|').append(job.getCompany()).append('|').append(job.getLocation())
+					.append('|').append(job.getDescription()).append('\n');
+		final List<String> applications = new ArrayList<String>();
+		for (JobApplicationNode application : graph.getApplications())
+			applications.add(application.getJobSeeker().getName() + '|' + application.getJob().getTitle() + '|'
+					+ application.getApplicationCompany() + '|' + application.getStatus());
+		Collections.sort(applications);
+		for (String application : applications)
+			builder.append(application).append('\n');
+		return builder.toString();
+	}
+
+	private static void truncate(Path file, long size) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.truncate(size);
+		}
+	}
+
+	private static void flip(Path file, long offset) throws IOException {
+		final byte[] bytes = Files.readAllBytes(file);
+		bytes[(int) offset] ^= 0x40;
+		Files.write(file, bytes);
+	}
+}
@@ -0,0 +1,234 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph.Edge;
+import graph.Graph.Vertex;
+
+/**
+ * Random sequences of edge additions and removals checked against a plain set
+ * of (from, to, cost) triples after every step: the edge list, every vertex's
+ * adjacency lists and a frozen snapshot have to hold exactly the modelled
+ * edges, whatever order swap-removal left them in.
+ */
+public class GraphRemoveEdgeTest {
+
+	private static final int VERTICES = 24;
+	private static final int STEPS = 2000;
+	private static final int MAX_COST = 3;
+
+	@Test
+	public void directed() {
+		for (long seed = 0; seed < 8; seed++)
+			run(new Graph<Integer>(Graph.TYPE.DIRECTED), seed);
+	}
+
+	@Test
+	public void undirected() {
+		for (long seed = 0; seed < 8; seed++)
+			run(new Graph<Integer>(Graph.TYPE.UNDIRECTED), seed);
+	}
+
+	@Test
+	public void undirectedImplicit() {
+		for (long seed = 0; seed < 8; seed++)
+			run(new Graph<Integer>(Graph.TYPE.UNDIRECTED, true), seed);
+	}
+
+	@Test
+	public void removingAnAbsentEdgeChangesNothing() {
+		final Graph<Integer> graph = new Graph<Integer>(Graph.TYPE.DIRECTED);
+		final Vertex<Integer> a = new Vertex<Integer>(0, 0);
+		final Vertex<Integer> b = new Vertex<Integer>(1, 0);
+		graph.addVertex(a);
+		graph.addVertex(b);
+		graph.addEdge(new Edge<Integer>(1, a, b));
+
+		assertFalse(graph.removeEdge(new Edge<Integer>(1, b, a)));
+		assertFalse(graph.removeEdge(new Edge<Integer>(2, a, b)));
+		assertEquals(1, graph.getEdges().size());
+		assertTrue(graph.removeEdge(new Edge<Integer>(1, a, b)));
+		assertFalse(graph.removeEdge(new Edge<Integer>(1, a, b)));
+		assertTrue(graph.getEdges().isEmpty());
+		assertTrue(a.getEdges().isEmpty());
+		assertTrue(b.getIncomingEdges().isEmpty());
+	}
+
+	@Test
+	public void changingTheCostRekeysTheEdge() {
+		final Graph<Integer> graph = new Graph<Integer>(Graph.TYPE.UNDIRECTED);
+		final Vertex<Integer> a = new Vertex<Integer>(0, 0);
+		final Vertex<Integer> b = new Vertex<Integer>(1, 0);
+		graph.addVertex(a);
+		graph.addVertex(b);
+		final Edge<Integer> edge = new Edge<Integer>(1, a, b);
+		graph.addEdge(edge);
+		graph.addEdge(new Edge<Integer>(3, a, b));
+
+		assertThrows(IllegalStateException.class, () -> edge.setCost(2));
+		assertFalse(graph.setCost(edge, 3));
+		assertTrue(graph.setCost(edge, 2));
+		assertEquals(2, b.getEdge(a).getCost());
+
+		graph.addEdge(new Edge<Integer>(2, b, a));
+		assertEquals(4, graph.getEdges().size());
+		graph.addEdge(new Edge<Integer>(1, a, b));
+		assertEquals(6, graph.getEdges().size());
+		assertTrue(graph.removeEdge(new Edge<Integer>(2, b, a)));
+		assertEquals(4, graph.getEdges().size());
+		assertFalse(graph.removeEdge(new Edge<Integer>(2, a, b)));
+
+		edge.setCost(5);
+		assertFalse(graph.setCost(edge, 6));
+	}
+
+	private static void run(Graph<Integer> graph, long seed) {
+		final Random random = new Random(seed);
+		final List<Vertex<Integer>> vertices = new ArrayList<Vertex<Integer>>();
+		for (int i = 0; i < VERTICES; i++) {
+			final Vertex<Integer> v = new Vertex<Integer>(i, 0);
+			vertices.add(v);
+			graph.addVertex(v);
+		}
+		final Model model = new Model(graph.getType() == Graph.TYPE.UNDIRECTED);
+
+		for (int step = 0; step < STEPS; step++) {
+			final int from = random.nextInt(VERTICES);
+			int to = random.nextInt(VERTICES - 1);
+			if (to >= from)
+				to++;
+			final int cost = 1 + random.nextInt(MAX_COST);
+			final Edge<Integer> edge = new Edge<Integer>(cost, vertices.get(from), vertices.get(to));
+
+			final int op = random.nextInt(10);
+			if (op < 5) {
+				graph.addEdge(edge);
+				model.add(from, to, cost);
+			} else if (op < 8) {
+				assertEquals(model.remove(from, to, cost), graph.removeEdge(edge), "seed " + seed + " step " + step);
+			} else {
+				// A batch of present and absent edges
+				final List<Edge<Integer>> batch = new ArrayList<Edge<Integer>>(graph.getEdges());
+				Collections.shuffle(batch, random);
+				final List<Edge<Integer>> removals = new ArrayList<Edge<Integer>>(batch.subList(0,
+						Math.min(3, batch.size())));
+				removals.add(edge);
+				int expected = 0;
+				for (Edge<Integer> e : removals) {
+					if (model.remove(e.getFromVertex().getValue(), e.getToVertex().getValue(), e.getCost()))
+						expected++;
+				}
+				assertEquals(expected, graph.removeEdges(removals), "seed " + seed + " step " + step);
+			}
+			check(graph, vertices, model, "seed " + seed + " step " + step);
+		}
+	}
+
+	private static void check(Graph<Integer> graph, List<Vertex<Integer>> vertices, Model model, String where) {
+		final boolean undirected = graph.getType() == Graph.TYPE.UNDIRECTED;
+		final boolean implicit = graph.hasImplicitReciprocals();
+
+		// getEdges() holds every edge once, or an edge and its reciprocal
+		final Map<String, Integer> expected = new HashMap<String, Integer>();
+		for (int[] e : model.edges()) {
+			count(expected, e[0], e[1], e[2]);
+			if (undirected && !implicit)
+				count(expected, e[1], e[0], e[2]);
+		}
+		final Map<String, Integer> actual = new HashMap<String, Integer>();
+		for (Edge<Integer> e : graph.getEdges())
+			count(actual, e.getFromVertex().getValue(), e.getToVertex().getValue(), e.getCost());
+		assertEquals(expected, actual, where + ": edges");
+
+		for (Vertex<Integer> v : vertices) {
+			final int id = v.getValue();
+			final Map<String, Integer> out = new HashMap<String, Integer>();
+			final Map<String, Integer> in = new HashMap<String, Integer>();
+			for (int[] e : model.edges()) {
+				if (e[0] == id)
+					count(out, e[1], e[2]);
+				if (e[1] == id)
+					count(in, e[0], e[2]);
+				if (undirected) {
+					// Both directions leave and reach either endpoint
+					if (e[1] == id)
+						count(out, e[0], e[2]);
+					if (e[0] == id)
+						count(in, e[1], e[2]);
+				}
+			}
+
+			final Map<String, Integer> edges = new HashMap<String, Integer>();
+			for (Edge<Integer> e : v.getEdges())
+				count(edges, e.getOtherVertex(v).getValue(), e.getCost());
+			assertEquals(out, edges, where + ": edges of " + id);
+			final Map<String, Integer> incoming = new HashMap<String, Integer>();
+			for (Edge<Integer> e : v.getIncomingEdges())
+				count(incoming, e.getOtherVertex(v).getValue(), e.getCost());
+			assertEquals(in, incoming, where + ": incoming edges of " + id);
+		}
+
+		final CsrGraph<Integer> frozen = graph.freeze();
+		assertEquals(model.edges().size() * (undirected ? 2 : 1), frozen.getEdgeCount(), where + ": frozen edges");
+	}
+
+	private static void count(Map<String, Integer> counts, int... key) {
+		final StringBuilder builder = new StringBuilder();
+		for (int k : key)
+			builder.append(k).append(',');
+		counts.merge(builder.toString(), 1, Integer::sum);
+	}
+
+	/**
+	 * The edges the graph should hold. An undirected edge is the same edge from
+	 * either end.
+	 */
+	private static final class Model {
+		private final boolean undirected;
+		private final List<int[]> edges = new ArrayList<int[]>();
+
+		private Model(boolean undirected) {
+			this.undirected = undirected;
+		}
+
+		private List<int[]> edges() {
+			return edges;
+		}
+
+		private void add(int from, int to, int cost) {
+			if (indexOf(from, to, cost) < 0)
+				edges.add(new int[] { from, to, cost });
+		}
+
+		private boolean remove(int from, int to, int cost) {
+			final int i = indexOf(from, to, cost);
+			if (i < 0)
+				return false;
+			edges.remove(i);
+			return true;
+		}
+
+		private int indexOf(int from, int to, int cost) {
+			for (int i = 0; i < edges.size(); i++) {
+				final int[] e = edges.get(i);
+				if (e[2] != cost)
+					continue;
+				if ((e[0] == from && e[1] == to) || (undirected && e[0] == to && e[1] == from))
+					return i;
+			}
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph.Edge;
+import graph.Graph.Vertex;
+
+/**
+ * Random sequences of vertex additions and removals with many duplicate
+ * values, checked against the vertices in the order they were added: the
+ * lookups have to find the earliest remaining vertex with a value or name,
+ * and the vertex list has to hold exactly the remaining vertices.
+ */
+public class GraphRemoveVertexTest {
+
+	private static final int STEPS = 3000;
+	private static final int VALUES = 8;
+
+	@Test
+	public void promotesInRegistrationOrder() {
+		for (long seed = 0; seed < 8; seed++)
+			run(seed);
+	}
+
+	@Test
+	public void removesTouchingEdges() {
+		final Graph<Integer> graph = new Graph<Integer>(Graph.TYPE.UNDIRECTED);
+		final Vertex<Integer> a = new Vertex<Integer>(1, 0);
+		final Vertex<Integer> b = new Vertex<Integer>(2, 0);
+		final Vertex<Integer> c = new Vertex<Integer>(3, 0);
+		graph.addVertex(a);
+		graph.addVertex(b);
+		graph.addVertex(c);
+		graph.addEdge(new Edge<Integer>(1, a, b));
+		graph.addEdge(new Edge<Integer>(2, b, c));
+
+		assertTrue(graph.removeVertex(a));
+		assertFalse(graph.removeVertex(a));
+		assertEquals(2, graph.getVertices().size());
+		assertEquals(2, graph.getEdges().size());
+		assertEquals(1, b.getEdges().size());
+		assertNull(graph.findVertexByValue(1));
+	}
+
+	private static void run(long seed) {
+		final Random random = new Random(seed);
+		final Graph<Integer> graph = new Graph<Integer>(Graph.TYPE.DIRECTED);
+		final List<Vertex<Integer>> added = new ArrayList<Vertex<Integer>>();
+		for (int step = 0; step < STEPS; step++) {
+			if (added.isEmpty() || random.nextInt(3) > 0) {
+				final Vertex<Integer> vertex = new Vertex<Integer>(random.nextInt(VALUES), 0);
+				graph.addVertex(vertex);
+				added.add(vertex);
+				if (added.size() > 1 && random.nextBoolean()) {
+					final Vertex<Integer> other = added.get(random.nextInt(added.size()));
+					graph.addEdge(new Edge<Integer>(random.nextInt(3), vertex, other));
+				}
+			} else {
+				final Vertex<Integer> vertex = added.remove(random.nextInt(added.size()));
+				assertTrue(graph.removeVertex(vertex));
+			}
+			check(graph, added);
+		}
+	}
+
+	private static void check(Graph<Integer> graph, List<Vertex<Integer>> added) {
+		final Set<Vertex<Integer>> expected = Collections.newSetFromMap(new IdentityHashMap<Vertex<Integer>, Boolean>());
+		expected.addAll(added);
+		assertEquals(added.size(), graph.getVertices().size());
+		for (Vertex<Integer> v : graph.getVertices())
+			assertTrue(expected.contains(v));
+
+		for (int value = 0; value < VALUES; value++) {
+			Vertex<Integer> first = null;
+			for (Vertex<Integer> v : added) {
+				if (v.getValue() == value) {
+					first = v;
+					break;
+				}
+			}
+			assertSame(first, graph.findVertexByValue(value));
+			assertSame(first, graph.findVertexByName(Integer.toString(value)));
+		}
+		for (Edge<Integer> e : graph.getEdges()) {
+			assertTrue(expected.contains(e.getFromVertex()));
+			assertTrue(expected.contains(e.getToVertex()));
+		}
+	}
+}
@@ -0,0 +1,171 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph.CostPathPair;
+import graph.Graph.Edge;
+import graph.Graph.Vertex;
+
+/**
+ * The transpose and the edge objects of an {@link IntGraph}, and the path
+ * searches over it agreeing with the same searches over a frozen graph.
+ */
+public class IntGraphTest {
+
+	private static final int VERTICES = 200;
+	private static final int EDGES = 800;
+
+	@Test
+	public void transposeReversesEveryEdge() {
+		final IntGraph<Integer> graph = randomIntGraph(Graph.TYPE.DIRECTED, new Random(1));
+		final IntGraph<Integer> reverse = graph.transpose();
+
+		assertEquals(graph.getVertexCount(), reverse.getVertexCount());
+		assertEquals(graph.getEdgeCount(), reverse.getEdgeCount());
+		for (int u = 0; u < graph.getVertexCount(); u++) {
+			assertSame(graph.getVertex(u), reverse.getVertex(u));
+			for (int slot = graph.firstEdge(u), end = graph.endEdge(u); slot < end; slot++)
+				assertTrue(reverse.containsEdge(graph.getTarget(slot), u, graph.getCost(slot)));
+		}
+	}
+
+	@Test
+	public void undirectedGraphIsItsOwnTranspose() {
+		final IntGraph<Integer> graph = randomIntGraph(Graph.TYPE.UNDIRECTED, new Random(1));
+		assertSame(graph, graph.transpose());
+	}
+
+	@Test
+	public void edgeObjectsAreKeptWhileTheirEdgesLast() {
+		final Random random = new Random(2);
+		final IntGraph<Integer> graph = randomIntGraph(Graph.TYPE.DIRECTED, random);
+		final Map<String, Edge<Integer>> handedOut = new HashMap<String, Edge<Integer>>();
+
+		for (int step = 0; step < 2000; step++) {
+			final int from = random.nextInt(VERTICES);
+			final int to = random.nextInt(VERTICES);
+			final int cost = random.nextInt(4);
+			// Additions move blocks and compact the arrays, removals move slots
+			if (random.nextBoolean())
+				graph.addEdge(from, to, cost);
+			else if (graph.removeEdge(from, to, cost))
+				handedOut.remove(from + "," + to + "," + cost);
+
+			final int v = random.nextInt(VERTICES);
+			for (int slot = graph.firstEdge(v), end = graph.endEdge(v); slot < end; slot++) {
+				final Edge<Integer> edge = graph.getEdge(v, slot);
+				assertSame(graph.getVertex(v), edge.getFromVertex());
+				assertSame(graph.getVertex(graph.getTarget(slot)), edge.getToVertex());
+				assertEquals(graph.getCost(slot), edge.getCost());
+				final Edge<Integer> earlier = handedOut.putIfAbsent(v + "," + graph.getTarget(slot) + ","
+						+ graph.getCost(slot), edge);
+				if (earlier != null)
+					assertSame(earlier, edge, "step " + step);
+			}
+		}
+	}
+
+	@Test
+	public void pathSearchesAgreeWithTheFrozenGraph() {
+		for (Graph.TYPE type : Graph.TYPE.values()) {
+			final Random random = new Random(3);
+			final Graph<Integer> graph = randomGraph(type, random);
+			final CsrGraph<Integer> csr = graph.freeze();
+			final IntGraph<Integer> ints = new IntGraph<Integer>(graph);
+
+			final Dijkstra<Integer> expected = new Dijkstra<Integer>(csr);
+			final AStar<Integer> aStar = new AStar<Integer>(ints);
+			final BidirectionalDijkstra<Integer> bidirectional = new BidirectionalDijkstra<Integer>(ints);
+			for (int q = 0; q < 200; q++) {
+				final Vertex<Integer> start = ints.getVertex(random.nextInt(VERTICES));
+				final Vertex<Integer> end = ints.getVertex(random.nextInt(VERTICES));
+				final CostPathPair<Integer> path = expected.getShortestPath(start, end);
+
+				final long distance = (path != null) ? path.getCost() : Dijkstra.UNREACHABLE;
+				assertEquals(distance, aStar.getDistance(ints.getId(start), ints.getId(end)), type + " a*");
+				checkPath(start, end, path, aStar.getShortestPath(start, end));
+				assertEquals(distance, bidirectional.getDistance(ints.getId(start), ints.getId(end)),
+						type + " bidirectional");
+				checkPath(start, end, path, bidirectional.getShortestPath(start, end));
+			}
+		}
+	}
+
+	@Test
+	public void pathCostsBeyondIntFailLoudly() {
+		final IntGraph<Integer> graph = new IntGraph<Integer>(Graph.TYPE.DIRECTED);
+		for (int i = 0; i < 3; i++)
+			graph.addVertex(new Vertex<Integer>(i, 0));
+		graph.addEdge(0, 1, Integer.MAX_VALUE);
+		graph.addEdge(1, 2, Integer.MAX_VALUE);
+		final long expected = 2L * Integer.MAX_VALUE;
+
+		final Dijkstra<Integer> dijkstra = new Dijkstra<Integer>(graph);
+		final AStar<Integer> aStar = new AStar<Integer>(graph);
+		final BidirectionalDijkstra<Integer> bidirectional = new BidirectionalDijkstra<Integer>(graph);
+		assertEquals(expected, dijkstra.getDistance(0, 2));
+		assertEquals(expected, aStar.getDistance(0, 2));
+		assertEquals(expected, bidirectional.getDistance(0, 2));
+		assertThrows(ArithmeticException.class, () -> dijkstra.getShortestPath(graph.getVertex(0), graph.getVertex(2)));
+		assertThrows(ArithmeticException.class, () -> aStar.getShortestPath(graph.getVertex(0), graph.getVertex(2)));
+		assertThrows(ArithmeticException.class,
+				() -> bidirectional.getShortestPath(graph.getVertex(0), graph.getVertex(2)));
+	}
+
+	// The path has the expected cost and leads from start to end over its edges
+	private static void checkPath(Vertex<Integer> start, Vertex<Integer> end, CostPathPair<Integer> expected,
+			CostPathPair<Integer> actual) {
+		if (expected == null) {
+			assertNull(actual);
+			return;
+		}
+		assertNotNull(actual);
+		assertEquals(expected.getCost(), actual.getCost());
+		Vertex<Integer> at = start;
+		int cost = 0;
+		for (Edge<Integer> e : actual.getPath()) {
+			assertNotNull(e);
+			at = e.getOtherVertex(at);
+			cost += e.getCost();
+		}
+		assertSame(end, at);
+		assertEquals(expected.getCost(), cost);
+	}
+
+	private static Graph<Integer> randomGraph(Graph.TYPE type, Random random) {
+		final Graph<Integer> graph = new Graph<Integer>(type);
+		final List<Vertex<Integer>> vertices = new ArrayList<Vertex<Integer>>();
+		for (int i = 0; i < VERTICES; i++) {
+			final Vertex<Integer> v = new Vertex<Integer>(i, 0);
+			vertices.add(v);
+			graph.addVertex(v);
+		}
+		for (int i = 0; i < EDGES; i++) {
+			graph.addEdge(new Edge<Integer>(random.nextInt(10), vertices.get(random.nextInt(VERTICES)),
+					vertices.get(random.nextInt(VERTICES))));
+		}
+		return graph;
+	}
+
+	private static IntGraph<Integer> randomIntGraph(Graph.TYPE type, Random random) {
+		final IntGraph<Integer> graph = new IntGraph<Integer>(type);
+		for (int i = 0; i < VERTICES; i++)
+			graph.addVertex(new Vertex<Integer>(i, 0));
+		for (int i = 0; i < EDGES; i++)
+			graph.addEdge(random.nextInt(VERTICES), random.nextInt(VERTICES), random.nextInt(4));
+		return graph;
+	}
+}
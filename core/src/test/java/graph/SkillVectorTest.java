@@ -0,0 +1,68 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Skill vectors only mix with vectors and indexes of their own dictionary, and
+ * the nodes built on them report their skills from the vector alone.
+ */
+public class SkillVectorTest {
+
+	@Test
+	public void vectorsOfDifferentDictionariesDoNotMix() {
+		final SkillDictionary first = new SkillDictionary();
+		final SkillDictionary second = new SkillDictionary();
+		final SkillVector a = SkillVector.of(Arrays.asList("Java", "SQL"), first);
+		final SkillVector b = SkillVector.of(Arrays.asList("Java", "SQL"), second);
+
+		assertNotEquals(a, b);
+		assertThrows(IllegalArgumentException.class, () -> a.containsAll(b));
+		assertThrows(IllegalArgumentException.class, () -> a.intersectionCount(b));
+		assertThrows(IllegalArgumentException.class, () -> a.or(b));
+		assertTrue(a.containsAll(SkillVector.EMPTY));
+		assertEquals(a, a.or(SkillVector.EMPTY));
+		assertEquals(Arrays.asList("Java", "SQL"), SkillVector.EMPTY.or(a).getNames());
+	}
+
+	@Test
+	public void indexRejectsVectorsOfAnotherDictionary() {
+		final SkillDictionary dictionary = new SkillDictionary();
+		final SkillIndex index = new SkillIndex(dictionary);
+		index.addJobSeeker(0, SkillVector.of(Arrays.asList("Java"), dictionary));
+		index.addJobSeeker(1, Arrays.asList("Java", "SQL"));
+
+		final SkillVector foreign = SkillVector.of(Arrays.asList("Java"), new SkillDictionary());
+		assertThrows(IllegalArgumentException.class, () -> index.addJobSeeker(2, foreign));
+		assertThrows(IllegalArgumentException.class, () -> index.getJobSeekersWithAll(foreign));
+		assertThrows(IllegalArgumentException.class, () -> index.getJobsWithAny(foreign));
+		assertArrayEquals(new int[] { 0, 1 },
+				index.getJobSeekersWithAll(SkillVector.of(Arrays.asList("Java"), dictionary)));
+		assertArrayEquals(new int[] { 0, 1 }, index.getJobSeekersWithAny(SkillVector.EMPTY.or(
+				SkillVector.of(Collections.singletonList("Java"), dictionary))));
+	}
+
+	@Test
+	public void nodesDeriveTheirSkillsFromTheVector() {
+		final SkillDictionary global = SkillDictionary.getGlobal();
+		global.intern("skill-vector-test-a");
+		global.intern("skill-vector-test-b");
+		final JobSeekerNode seeker = new JobSeekerNode("Seeker",
+				Arrays.asList("skill-vector-test-b", "skill-vector-test-a", "skill-vector-test-b"), 3);
+		assertEquals(Arrays.asList("skill-vector-test-a", "skill-vector-test-b"), seeker.getSkills());
+		assertEquals(2, seeker.getSkillVector().cardinality());
+
+		final JobSkillEdge edge = new JobSkillEdge(seeker, null, Arrays.asList("skill-vector-test-b"));
+		assertEquals(Collections.singletonList("skill-vector-test-b"), edge.getRequiredSkills());
+		edge.setRequiredSkills(Collections.<String> emptyList());
+		assertTrue(edge.getRequiredSkills().isEmpty());
+	}
+}
@@ -0,0 +1,144 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import graph.Graph.CostPathPair;
+import graph.Graph.Edge;
+import graph.Graph.Vertex;
+
+/**
+ * A* search over an {@link IntAdjacency}, a frozen {@link CsrGraph} or an
+ * {@link IntGraph}. Like {@link Dijkstra} but the frontier is ordered by cost
+ * so far plus an estimate of the remaining cost, which steers the search
+ * towards the goal and settles fewer vertices.
+ * <p>
+ * The default estimate is the straight line distance between the vertex
+ * coordinates ({@link Vertex#getX()}, {@link Vertex#getY()}), rounded down. It
+ * only yields shortest paths when no edge costs less than the distance between
+ * its endpoints; override {@link #heuristicCostEstimate(int, int)} otherwise.
+ * Scratch arrays are reused across queries, an instance is not thread safe.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/A*_search_algorithm">A* Search
+ *      Algorithm (Wikipedia)</a> <br>
+ */
+public class AStar<T extends Comparable<T>> {
+
+	private final IntAdjacency<T> graph;
+	private final double[] x;
+	private final double[] y;
+	private final IndexedMinHeap heap;
+	private final long[] distance;
+	private final int[] predecessor;
+	private final int[] predecessorSlot;
+	private final int[] stamp;
+	private int query = 0;
+	private int settled = 0;
+
+	/**
+	 * @param graph the graph to search, an IntGraph must not gain vertices
+	 *              afterwards
+	 */
+	public AStar(IntAdjacency<T> graph) {
+		final int n = graph.getVertexCount();
+		this.graph = graph;
+		this.x = new double[n];
+		this.y = new double[n];
+		for (int v = 0; v < n; v++) {
+			x[v] = graph.getVertex(v).getX();
+			y[v] = graph.getVertex(v).getY();
+		}
+		this.heap = new IndexedMinHeap(n);
+		this.distance = new long[n];
+		this.predecessor = new int[n];
+		this.predecessorSlot = new int[n];
+		this.stamp = new int[n];
+	}
+
+	/**
+	 * @return the cheapest path from start to goal or null if there is none
+	 * @throws ArithmeticException if the path costs more than
+	 *             Integer.MAX_VALUE, getDistance() returns the full cost
+	 */
+	public CostPathPair<T> getShortestPath(Vertex<T> start, Vertex<T> goal) {
+		final int s = graph.getId(start);
+		final int t = graph.getId(goal);
+		if (s < 0 || t < 0)
+			throw new IllegalArgumentException("Both vertices need to be part of the graph.");
+
+		if (getDistance(s, t) == Dijkstra.UNREACHABLE)
+			return null;
+
+		final List<Edge<T>> path = new ArrayList<Edge<T>>();
+		for (int v = t; v != s; v = predecessor[v])
+			path.add(graph.getEdge(predecessor[v], predecessorSlot[v]));
+		Collections.reverse(path);
+		return new CostPathPair<T>(Math.toIntExact(distance[t]), path);
+	}
+
+	/**
+	 * Allocation free single-pair query.
+	 *
+	 * @return the path cost or {@link Dijkstra#UNREACHABLE}
+	 */
+	public long getDistance(int start, int goal) {
+		if (graph.getVertexCount() > stamp.length)
+			throw new IllegalStateException("The graph gained vertices after the search was created.");
+		if (++query == 0) {
+			Arrays.fill(stamp, 0);
+			query = 1;
+		}
+		heap.clear();
+		settled = 0;
+
+		reach(start, 0, -1, -1);
+		heap.insert(start, heuristicCostEstimate(start, goal));
+		while (!heap.isEmpty()) {
+			final int u = heap.poll();
+			settled++;
+			if (u == goal)
+				return distance[u];
+
+			final long du = distance[u];
+			for (int slot = graph.firstEdge(u), end = graph.endEdge(u); slot < end; slot++) {
+				final int cost = graph.getCost(slot);
+				if (cost < 0)
+					throw new IllegalArgumentException("Negative cost edges are not allowed.");
+				final int v = graph.getTarget(slot);
+				final long dv = du + cost;
+				if (stamp[v] != query) {
+					reach(v, dv, u, slot);
+					heap.insert(v, dv + heuristicCostEstimate(v, goal));
+				} else if (dv < distance[v] && heap.contains(v)) {
+					reach(v, dv, u, slot);
+					heap.decreaseKey(v, dv + heuristicCostEstimate(v, goal));
+				}
+			}
+		}
+		return Dijkstra.UNREACHABLE;
+	}
+
+	/** Number of vertices settled by the last query. */
+	public int getSettledCount() {
+		return settled;
+	}
+
+	/**
+	 * Lower bound of the cost from v to goal. Must never overestimate for the
+	 * search to return shortest paths.
+	 */
+	protected long heuristicCostEstimate(int v, int goal) {
+		final double dx = x[v] - x[goal];
+		final double dy = y[v] - y[goal];
+		return (long) Math.sqrt(dx * dx + dy * dy);
+	}
+
+	private void reach(int v, long d, int from, int slot) {
+		stamp[v] = query;
+		distance[v] = d;
+		predecessor[v] = from;
+		predecessorSlot[v] = slot;
+	}
+}
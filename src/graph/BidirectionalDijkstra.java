@@ -0,0 +1,174 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import graph.Graph.CostPathPair;
+import graph.Graph.Edge;
+import graph.Graph.Vertex;
+
+/**
+ * Bidirectional Dijkstra over an {@link IntAdjacency}, a frozen
+ * {@link CsrGraph} or an {@link IntGraph}. Grows one search from the start
+ * over the graph and one from the target over its transpose, always
+ * advancing the side with the smaller frontier key, and stops once the two
+ * frontiers together cannot beat the best meeting point found so far. On large
+ * graphs this settles far fewer vertices than a one sided search.
+ * <p>
+ * Scratch arrays are reused across queries, an instance is not thread safe.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Bidirectional_search">Bidirectional
+ *      search (Wikipedia)</a> <br>
+ */
+public class BidirectionalDijkstra<T extends Comparable<T>> {
+
+	private final IntAdjacency<T> forward;
+	private final IntAdjacency<T> backward;
+	private final Side forwardSide;
+	private final Side backwardSide;
+	private int query = 0;
+	private int meeting = -1;
+
+	/**
+	 * @param graph the graph to search, a directed IntGraph is transposed here
+	 *              and must not change afterwards
+	 */
+	public BidirectionalDijkstra(IntAdjacency<T> graph) {
+		this.forward = graph;
+		this.backward = graph.transpose();
+		this.forwardSide = new Side(graph.getVertexCount());
+		this.backwardSide = new Side(graph.getVertexCount());
+	}
+
+	/**
+	 * @return the cheapest path from start to end or null if there is none
+	 * @throws ArithmeticException if the path costs more than
+	 *             Integer.MAX_VALUE, getDistance() returns the full cost
+	 */
+	public CostPathPair<T> getShortestPath(Vertex<T> start, Vertex<T> end) {
+		final int s = forward.getId(start);
+		final int t = forward.getId(end);
+		if (s < 0 || t < 0)
+			throw new IllegalArgumentException("Both vertices need to be part of the graph.");
+
+		final long cost = getDistance(s, t);
+		if (cost == Dijkstra.UNREACHABLE)
+			return null;
+
+		final List<Edge<T>> path = new ArrayList<Edge<T>>();
+		for (int v = meeting; v != s; v = forwardSide.predecessor[v])
+			path.add(findEdge(forwardSide.predecessor[v], v, forwardSide.predecessorCost[v]));
+		Collections.reverse(path);
+		for (int v = meeting; v != t; v = backwardSide.predecessor[v])
+			path.add(findEdge(v, backwardSide.predecessor[v], backwardSide.predecessorCost[v]));
+		return new CostPathPair<T>(Math.toIntExact(cost), path);
+	}
+
+	/**
+	 * Allocation free single-pair query.
+	 *
+	 * @return the path cost or {@link Dijkstra#UNREACHABLE}
+	 */
+	public long getDistance(int start, int end) {
+		if (forward.getVertexCount() > forwardSide.stamp.length)
+			throw new IllegalStateException("The graph gained vertices after the search was created.");
+		if (++query == 0) {
+			forwardSide.resetStamps();
+			backwardSide.resetStamps();
+			query = 1;
+		}
+		forwardSide.start(start);
+		backwardSide.start(end);
+
+		long best = (start == end) ? 0 : Dijkstra.UNREACHABLE;
+		meeting = (start == end) ? start : -1;
+		while (!forwardSide.heap.isEmpty() && !backwardSide.heap.isEmpty()) {
+			final long topForward = forwardSide.heap.peekKey();
+			final long topBackward = backwardSide.heap.peekKey();
+			if (best != Dijkstra.UNREACHABLE && topForward + topBackward >= best)
+				break;
+
+			final boolean advanceForward = topForward <= topBackward;
+			final Side side = advanceForward ? forwardSide : backwardSide;
+			final Side other = advanceForward ? backwardSide : forwardSide;
+			final IntAdjacency<T> graph = advanceForward ? forward : backward;
+
+			final int u = side.heap.poll();
+			side.settled++;
+			final long du = side.distance[u];
+			for (int slot = graph.firstEdge(u), limit = graph.endEdge(u); slot < limit; slot++) {
+				final int cost = graph.getCost(slot);
+				if (cost < 0)
+					throw new IllegalArgumentException("Negative cost edges are not allowed.");
+				final int v = graph.getTarget(slot);
+				final long dv = du + cost;
+				if (side.stamp[v] != query) {
+					side.reach(v, dv, u, cost);
+					side.heap.insert(v, dv);
+				} else if (dv < side.distance[v] && side.heap.contains(v)) {
+					side.reach(v, dv, u, cost);
+					side.heap.decreaseKey(v, dv);
+				} else {
+					continue;
+				}
+				if (other.stamp[v] == query && dv + other.distance[v] < best) {
+					best = dv + other.distance[v];
+					meeting = v;
+				}
+			}
+		}
+		return best;
+	}
+
+	/** Number of vertices settled by both searches of the last query. */
+	public int getSettledCount() {
+		return forwardSide.settled + backwardSide.settled;
+	}
+
+	// The graph's edge from one vertex to another with the cost, the backward
+	// search only knows the endpoints of the edges it took
+	private Edge<T> findEdge(int from, int to, int cost) {
+		for (int slot = forward.firstEdge(from), end = forward.endEdge(from); slot < end; slot++) {
+			if (forward.getTarget(slot) == to && forward.getCost(slot) == cost)
+				return forward.getEdge(from, slot);
+		}
+		return null;
+	}
+
+	private final class Side {
+		private final IndexedMinHeap heap;
+		private final long[] distance;
+		private final int[] predecessor;
+		private final int[] predecessorCost;
+		private final int[] stamp;
+		private int settled = 0;
+
+		private Side(int n) {
+			this.heap = new IndexedMinHeap(n);
+			this.distance = new long[n];
+			this.predecessor = new int[n];
+			this.predecessorCost = new int[n];
+			this.stamp = new int[n];
+		}
+
+		private void start(int v) {
+			heap.clear();
+			settled = 0;
+			reach(v, 0, -1, 0);
+			heap.insert(v, 0);
+		}
+
+		private void reach(int v, long d, int from, int cost) {
+			stamp[v] = query;
+			distance[v] = d;
+			predecessor[v] = from;
+			predecessorCost[v] = cost;
+		}
+
+		private void resetStamps() {
+			Arrays.fill(stamp, 0);
+		}
+	}
+}
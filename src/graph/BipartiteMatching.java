@@ -0,0 +1,221 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import graph.Graph.Vertex;
+
+/**
+ * Maximum bipartite matching over an {@link IntAdjacency} with the
+ * Hopcroft-Karp algorithm, e.g. giving as many job seekers as possible one of
+ * the jobs they applied for without giving a job twice. The left side is passed
+ * to each query, the vertices the edges of the left side lead to form the right
+ * side and edges between two left vertices are ignored. Runs in O(E sqrt(V)).
+ * <p>
+ * Every phase layers the graph breadth-first from the free left vertices and
+ * then searches depth-first for vertex disjoint shortest augmenting paths. Both
+ * run on int arrays reused across queries, the depth-first search keeps an
+ * explicit stack so long paths cannot overflow the call stack. An instance is
+ * not thread safe, use one per thread.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Hopcroft%E2%80%93Karp_algorithm">
+ *      Hopcroft-Karp algorithm (Wikipedia)</a> <br>
+ */
+public class BipartiteMatching<T extends Comparable<T>> {
+
+	public static final int UNMATCHED = -1;
+	private static final int UNLAYERED = Integer.MAX_VALUE;
+
+	private final IntAdjacency<T> graph;
+	private final int[] mate;
+	private final int[] layer;
+	private final int[] cursor;
+	private final int[] queue;
+	private final int[] stack;
+	// v is on the left side of the current query when left[v] == query
+	private final int[] left;
+	private int query = 0;
+	private int size = 0;
+	// Layer of the left vertices next to a free right vertex in this phase
+	private int freeLayer = UNLAYERED;
+
+	/**
+	 * @param graph the graph to match in, an IntGraph must not gain vertices
+	 *              afterwards
+	 */
+	public BipartiteMatching(IntAdjacency<T> graph) {
+		final int n = graph.getVertexCount();
+		this.graph = graph;
+		this.mate = new int[n];
+		this.layer = new int[n];
+		this.cursor = new int[n];
+		this.queue = new int[n];
+		this.stack = new int[n];
+		this.left = new int[n];
+	}
+
+	/**
+	 * Match the given vertices to their neighbours.
+	 *
+	 * @return the left vertices mapped to the right vertices they are matched to,
+	 *         unmatched ones are left out
+	 */
+	public Map<Vertex<T>, Vertex<T>> getMatching(Collection<Vertex<T>> leftVertices) {
+		final int[] ids = new int[leftVertices.size()];
+		int i = 0;
+		for (Vertex<T> v : leftVertices) {
+			final int id = graph.getId(v);
+			if (id < 0)
+				throw new IllegalArgumentException("Vertex is not part of the graph: " + v.getValue());
+			ids[i++] = id;
+		}
+		match(ids);
+
+		final Map<Vertex<T>, Vertex<T>> matching = new IdentityHashMap<Vertex<T>, Vertex<T>>(size);
+		for (int u : ids) {
+			if (mate[u] != UNMATCHED)
+				matching.put(graph.getVertex(u), graph.getVertex(mate[u]));
+		}
+		return matching;
+	}
+
+	/**
+	 * Compute a maximum matching between the given vertices and their
+	 * neighbours. The matching is read through {@link #getMate(int)} until the
+	 * next query.
+	 *
+	 * @param leftVertices ids of the vertices of the left side
+	 * @return the number of matched pairs
+	 */
+	public int match(int[] leftVertices) {
+		final int n = graph.getVertexCount();
+		if (n > left.length)
+			throw new IllegalStateException("The graph gained vertices after the matching was created.");
+		if (++query == 0) {
+			// The stamp wrapped around, old stamps could look current again
+			Arrays.fill(left, 0);
+			query = 1;
+		}
+		Arrays.fill(mate, 0, n, UNMATCHED);
+		for (int u : leftVertices) {
+			if (u < 0 || u >= n)
+				throw new IndexOutOfBoundsException("No vertex with id " + u + ", the graph has " + n);
+			left[u] = query;
+		}
+
+		// A greedy start leaves only few vertices to the phases
+		size = 0;
+		for (int u : leftVertices) {
+			if (mate[u] != UNMATCHED)
+				continue;
+			for (int slot = graph.firstEdge(u), end = graph.endEdge(u); slot < end; slot++) {
+				final int v = graph.getTarget(slot);
+				if (left[v] != query && mate[v] == UNMATCHED) {
+					mate[u] = v;
+					mate[v] = u;
+					size++;
+					break;
+				}
+			}
+		}
+
+		while (layer(leftVertices)) {
+			for (int u : leftVertices) {
+				if (mate[u] == UNMATCHED && augment(u))
+					size++;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * @return the vertex v is matched to by the last query or {@link #UNMATCHED}
+	 */
+	public int getMate(int v) {
+		return mate[v];
+	}
+
+	/** Number of pairs matched by the last query. */
+	public int getSize() {
+		return size;
+	}
+
+	// Breadth-first layering over alternating paths from the free left vertices,
+	// true if a free right vertex is reachable
+	private boolean layer(int[] leftVertices) {
+		for (int u : leftVertices) {
+			layer[u] = UNLAYERED;
+			cursor[u] = graph.firstEdge(u);
+		}
+		int head = 0;
+		int tail = 0;
+		for (int u : leftVertices) {
+			if (mate[u] == UNMATCHED && layer[u] == UNLAYERED) {
+				layer[u] = 0;
+				queue[tail++] = u;
+			}
+		}
+
+		freeLayer = UNLAYERED;
+		while (head < tail) {
+			final int u = queue[head++];
+			// Only the shortest augmenting paths are searched
+			if (layer[u] > freeLayer)
+				break;
+			for (int slot = graph.firstEdge(u), end = graph.endEdge(u); slot < end; slot++) {
+				final int v = graph.getTarget(slot);
+				if (left[v] == query)
+					continue;
+				final int w = mate[v];
+				if (w == UNMATCHED) {
+					freeLayer = Math.min(freeLayer, layer[u]);
+				} else if (layer[w] == UNLAYERED) {
+					layer[w] = layer[u] + 1;
+					queue[tail++] = w;
+				}
+			}
+		}
+		return freeLayer != UNLAYERED;
+	}
+
+	// Depth-first search for an augmenting path along the layers, flips the
+	// path into the matching if one is found. Vertices without a path are taken
+	// out of the layering for the rest of the phase.
+	private boolean augment(int root) {
+		int top = 0;
+		stack[0] = root;
+		while (top >= 0) {
+			final int u = stack[top];
+			if (cursor[u] == graph.endEdge(u)) {
+				layer[u] = UNLAYERED;
+				top--;
+				if (top >= 0)
+					cursor[stack[top]]++;
+				continue;
+			}
+
+			final int v = graph.getTarget(cursor[u]);
+			if (left[v] != query) {
+				final int w = mate[v];
+				if (w == UNMATCHED) {
+					if (layer[u] == freeLayer) {
+						for (int i = top; i >= 0; i--) {
+							final int x = stack[i];
+							final int y = graph.getTarget(cursor[x]);
+							mate[x] = y;
+							mate[y] = x;
+						}
+						return true;
+					}
+				} else if (layer[w] == layer[u] + 1 && layer[w] <= freeLayer) {
+					stack[++top] = w;
+					continue;
+				}
+			}
+			cursor[u]++;
+		}
+		return false;
+	}
+}
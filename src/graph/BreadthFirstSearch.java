@@ -0,0 +1,152 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import graph.Graph.Edge;
+import graph.Graph.Vertex;
+
+/**
+ * Breadth-first search over an {@link IntAdjacency}. Visits the vertices
+ * reachable from a start vertex in order of the number of edges on the way,
+ * ignoring costs, and finds the paths with the fewest edges.
+ * <p>
+ * Like {@link Dijkstra} an instance owns its queue and scratch arrays and
+ * reuses them for every query, so the int based queries do not allocate. An
+ * instance is not thread safe, use one per thread.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Breadth-first_search">Breadth-first
+ *      search (Wikipedia)</a> <br>
+ */
+public class BreadthFirstSearch<T extends Comparable<T>> {
+
+	public static final int UNREACHABLE = -1;
+
+	private final IntAdjacency<T> graph;
+	private final int[] queue;
+	private final int[] hops;
+	private final int[] predecessor;
+	private final int[] predecessorSlot;
+	// hops/predecessor of v are only valid when stamp[v] == query
+	private final int[] stamp;
+	private int query = 0;
+	private int visited = 0;
+	private int source = -1;
+
+	/**
+	 * @param graph the graph to search, an IntGraph must not gain vertices
+	 *              afterwards
+	 */
+	public BreadthFirstSearch(IntAdjacency<T> graph) {
+		final int n = graph.getVertexCount();
+		this.graph = graph;
+		this.queue = new int[n];
+		this.hops = new int[n];
+		this.predecessor = new int[n];
+		this.predecessorSlot = new int[n];
+		this.stamp = new int[n];
+	}
+
+	/**
+	 * @return the edges of a path with the fewest edges from start to end, empty
+	 *         if both are the same vertex, or null if there is no path
+	 */
+	public List<Edge<T>> getPath(Vertex<T> start, Vertex<T> end) {
+		final int s = idOf(start);
+		final int t = idOf(end);
+		search(s, t);
+		if (getHops(t) == UNREACHABLE)
+			return null;
+
+		final List<Edge<T>> path = new ArrayList<Edge<T>>(hops[t]);
+		for (int v = t; v != source; v = predecessor[v])
+			path.add(graph.getEdge(predecessor[v], predecessorSlot[v]));
+		Collections.reverse(path);
+		return path;
+	}
+
+	/**
+	 * Allocation free single-pair query. Stops as soon as target is reached.
+	 *
+	 * @return the number of edges on the shortest path or {@link #UNREACHABLE}
+	 */
+	public int getHops(int start, int target) {
+		search(start, target);
+		return getHops(target);
+	}
+
+	/**
+	 * Visit vertices from start level by level, stopping early once target is
+	 * dequeued. Pass -1 as target to visit everything reachable. Results are read
+	 * through {@link #getHops(int)} and {@link #getPredecessor(int)} until the
+	 * next search.
+	 */
+	public void search(int start, int target) {
+		if (graph.getVertexCount() > stamp.length)
+			throw new IllegalStateException("The graph gained vertices after the search was created.");
+		if (++query == 0) {
+			// The stamp wrapped around, old stamps could look current again
+			Arrays.fill(stamp, 0);
+			query = 1;
+		}
+		visited = 0;
+		source = start;
+
+		int head = 0;
+		int tail = 0;
+		reach(start, 0, -1, -1);
+		queue[tail++] = start;
+		while (head < tail) {
+			final int u = queue[head++];
+			visited++;
+			if (u == target)
+				break;
+
+			final int next = hops[u] + 1;
+			for (int slot = graph.firstEdge(u), end = graph.endEdge(u); slot < end; slot++) {
+				final int v = graph.getTarget(slot);
+				if (stamp[v] != query) {
+					reach(v, next, u, slot);
+					queue[tail++] = v;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the number of edges from the start of the last search or
+	 *         {@link #UNREACHABLE}
+	 */
+	public int getHops(int v) {
+		return (stamp[v] == query) ? hops[v] : UNREACHABLE;
+	}
+
+	/**
+	 * @return the vertex before v on its path or -1 for the start vertex and
+	 *         unreached vertices
+	 */
+	public int getPredecessor(int v) {
+		return (stamp[v] == query) ? predecessor[v] : -1;
+	}
+
+	/** Number of vertices dequeued by the last search. */
+	public int getVisitedCount() {
+		return visited;
+	}
+
+	private void reach(int v, int h, int from, int slot) {
+		stamp[v] = query;
+		hops[v] = h;
+		predecessor[v] = from;
+		predecessorSlot[v] = slot;
+	}
+
+	private int idOf(Vertex<T> vertex) {
+		final int id = graph.getId(vertex);
+		if (id < 0)
+			throw new IllegalArgumentException("Vertex is not part of the graph: " + vertex.getValue());
+		return id;
+	}
+}
@@ -0,0 +1,758 @@
+package graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import graph.Graph.Edge;
+import graph.Graph.EdgeKey;
+import graph.Graph.Vertex;
+
+/**
+ * Thread-safe counterpart of {@link Graph} for many readers running matching
+ * and path queries while a writer adds and removes vertices and edges.
+ * <p>
+ * The graph is multi-versioned. Every vertex keeps a short chain of versions
+ * of its outgoing and incoming edges, newest first, and every completed write
+ * or batch of writes publishes a new graph version. A reader pins the latest
+ * published version with {@link #snapshot()} and sees exactly that version
+ * until it closes the snapshot, no matter what is written meanwhile: a bulk
+ * update applied with {@link #applyBatch(Consumer)} is visible completely or
+ * not at all. Readers never lock or wait. Versions no reader can see any more
+ * are reclaimed by the writer.
+ * <p>
+ * Writers are serialized by one lock. The convenience read methods of the
+ * graph itself pin the latest version for the duration of the call, so each
+ * result is consistent on its own.
+ * <p>
+ * Vertices and edges are the {@link Vertex} and {@link Edge} objects of
+ * {@link Graph}; their own edge lists are not used, ask the graph or a
+ * snapshot for adjacency instead.
+ */
+@SuppressWarnings("unchecked")
+public class ConcurrentGraph<T extends Comparable<T>> {
+
+	private static final Edge<?>[] NO_EDGES = new Edge<?>[0];
+	// Reader count of an epoch that was reclaimed and can no longer be pinned
+	private static final int RECLAIMED = -1;
+
+	private final Graph.TYPE type;
+	private final Map<Vertex<T>, Versions<T>> versions = new ConcurrentHashMap<Vertex<T>, Versions<T>>();
+	// Vertex registered for each value / value name, as in Graph, versioned like
+	// the edges so that a reader finds the vertex its version indexed. Later
+	// duplicates wait in registration order to be promoted.
+	private final Map<T, Indexed<T>> valueIndex = new ConcurrentHashMap<T, Indexed<T>>();
+	private final Map<String, Indexed<T>> nameIndex = new ConcurrentHashMap<String, Indexed<T>>();
+
+	// Latest published version, the only one a reader can start to pin
+	private volatile Epoch current = new Epoch(0, 0, 0);
+
+	// Writer state, guarded by writeLock
+	private final ReentrantLock writeLock = new ReentrantLock();
+	private final Map<EdgeKey<T>, Edge<T>> edgeIndex = new HashMap<EdgeKey<T>, Edge<T>>();
+	private int batchDepth = 0;
+	private int vertexCount = 0;
+	private int edgeCount = 0;
+	private List<Versions<T>> touched = new ArrayList<Versions<T>>();
+	private List<Indexed<T>> touchedValues = new ArrayList<Indexed<T>>();
+	private List<Indexed<T>> touchedNames = new ArrayList<Indexed<T>>();
+	// Oldest epoch that may still be pinned, and the vertices changed by each
+	// published version whose older versions are not reclaimed yet
+	private Epoch oldest = current;
+	private final ArrayDeque<Touched<T>> unreclaimed = new ArrayDeque<Touched<T>>();
+
+	public ConcurrentGraph() {
+		this(Graph.TYPE.UNDIRECTED);
+	}
+
+	public ConcurrentGraph(Graph.TYPE type) {
+		this.type = type;
+	}
+
+	/**
+	 * Copy the vertices and edges of a graph as the first version. The graph
+	 * must not change while it is copied.
+	 */
+	public ConcurrentGraph(Graph<T> graph) {
+		this(graph.getType());
+		applyBatch(g -> {
+			for (Vertex<T> v : graph.getVertices())
+				addVertex(v);
+			// Both directions of an undirected edge are in the lists already,
+			// edges stored once are turned around at the vertex they point at
+			for (Vertex<T> v : graph.getVertices()) {
+				for (Edge<T> e : v.getEdges())
+					link(e.getFromVertex() == v ? e : new Edge<T>(e.getCost(), v, e.getFromVertex()));
+			}
+		});
+	}
+
+	public Graph.TYPE getType() {
+		return type;
+	}
+
+	/**
+	 * Pin the latest published version of the graph. Older versions are kept
+	 * for as long as the snapshot is open, close it when done.
+	 *
+	 * @return a read only view of the graph as of now
+	 */
+	public Snapshot<T> snapshot() {
+		while (true) {
+			final Epoch epoch = current;
+			if (epoch.pin())
+				return new Snapshot<T>(this, epoch);
+			// Superseded and reclaimed between reading and pinning, take the next
+		}
+	}
+
+	/**
+	 * @return the number of the latest published version
+	 */
+	public long getVersion() {
+		return current.version;
+	}
+
+	public Vertex<T> findVertexByValue(T value) {
+		try (Snapshot<T> snapshot = snapshot()) {
+			return snapshot.findVertexByValue(value);
+		}
+	}
+
+	public Vertex<T> findVertexByName(String name) {
+		try (Snapshot<T> snapshot = snapshot()) {
+			return snapshot.findVertexByName(name);
+		}
+	}
+
+	public boolean containsVertex(Vertex<T> vertex) {
+		try (Snapshot<T> snapshot = snapshot()) {
+			return snapshot.containsVertex(vertex);
+		}
+	}
+
+	public List<Vertex<T>> getVertices() {
+		try (Snapshot<T> snapshot = snapshot()) {
+			return snapshot.getVertices();
+		}
+	}
+
+	public int getVertexCount() {
+		return current.vertexCount;
+	}
+
+	/**
+	 * Number of edges, counting both directions of an undirected edge like
+	 * {@link Graph#getEdges()}.
+	 */
+	public int getEdgeCount() {
+		return current.edgeCount;
+	}
+
+	public List<Edge<T>> getEdges() {
+		try (Snapshot<T> snapshot = snapshot()) {
+			return snapshot.getEdges();
+		}
+	}
+
+	public List<Edge<T>> getEdges(Vertex<T> vertex) {
+		try (Snapshot<T> snapshot = snapshot()) {
+			return snapshot.getEdges(vertex);
+		}
+	}
+
+	public List<Edge<T>> getIncomingEdges(Vertex<T> vertex) {
+		try (Snapshot<T> snapshot = snapshot()) {
+			return snapshot.getIncomingEdges(vertex);
+		}
+	}
+
+	public CsrGraph<T> freeze() {
+		try (Snapshot<T> snapshot = snapshot()) {
+			return snapshot.freeze();
+		}
+	}
+
+	/**
+	 * Apply several changes as one version. Readers see either none or all of
+	 * them. The graph's write lock is held throughout, so the updates should
+	 * not wait for other threads. Changes made before an exception are
+	 * published.
+	 *
+	 * @param updates calls addVertex, addEdge, removeEdge and removeVertex on
+	 *                the graph it is given
+	 */
+	public void applyBatch(Consumer<? super ConcurrentGraph<T>> updates) {
+		writeLock.lock();
+		batchDepth++;
+		try {
+			updates.accept(this);
+		} finally {
+			batchDepth--;
+			publishUnlessBatch();
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Add a vertex to the graph.
+	 *
+	 * @param vertex the vertex to be added to the graph
+	 * @return true if the vertex was not part of the graph yet
+	 */
+	public boolean addVertex(Vertex<T> vertex) {
+		if (vertex == null)
+			return false;
+		writeLock.lock();
+		try {
+			Versions<T> vertexVersions = versions.get(vertex);
+			if (vertexVersions != null && vertexVersions.head.present)
+				return false;
+			if (vertexVersions == null) {
+				vertexVersions = new Versions<T>(vertex);
+				versions.put(vertex, vertexVersions);
+			}
+			writable(vertexVersions).present = true;
+			vertexCount++;
+
+			final T value = vertex.getValue();
+			if (value != null) {
+				indexIfAbsent(valueIndex, value, vertex, touchedValues);
+				indexIfAbsent(nameIndex, value.toString(), vertex, touchedNames);
+			}
+			return true;
+		} finally {
+			publishUnlessBatch();
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Remove a vertex and every edge touching it from the graph.
+	 *
+	 * @param vertex the vertex to be removed from the graph
+	 * @return true if the vertex was part of the graph
+	 */
+	public boolean removeVertex(Vertex<T> vertex) {
+		if (vertex == null)
+			return false;
+		writeLock.lock();
+		try {
+			final Versions<T> vertexVersions = versions.get(vertex);
+			if (vertexVersions == null || !vertexVersions.head.present)
+				return false;
+
+			for (Edge<T> e : vertexVersions.head.out)
+				unlink(e);
+			for (Edge<T> e : vertexVersions.head.in)
+				unlink(e);
+			writable(vertexVersions).present = false;
+			vertexCount--;
+
+			final T value = vertex.getValue();
+			if (value != null) {
+				unindex(valueIndex.get(value), vertex, touchedValues);
+				unindex(nameIndex.get(value.toString()), vertex, touchedNames);
+			}
+			return true;
+		} finally {
+			publishUnlessBatch();
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Add an edge, and its reciprocal in an undirected graph, between two
+	 * vertices of the graph.
+	 *
+	 * @param edge the edge to be added to the graph
+	 * @return false if an endpoint is not part of the graph or an edge between
+	 *         the same vertices with the same cost already is
+	 */
+	public boolean addEdge(Edge<T> edge) {
+		if (edge == null)
+			return false;
+		writeLock.lock();
+		try {
+			if (!link(edge))
+				return false;
+			if (type == Graph.TYPE.UNDIRECTED)
+				link(new Edge<T>(edge.getCost(), edge.getToVertex(), edge.getFromVertex()));
+			return true;
+		} finally {
+			publishUnlessBatch();
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Remove an edge, and its reciprocal in an undirected graph, from the graph.
+	 * The edge the graph holds between the same vertices with the same cost is
+	 * removed, which need not be the given instance.
+	 *
+	 * @param edge the edge to be removed from the graph
+	 * @return true if the graph held the edge
+	 */
+	public boolean removeEdge(Edge<T> edge) {
+		if (edge == null)
+			return false;
+		writeLock.lock();
+		try {
+			final Edge<T> stored = edgeIndex.get(key(edge));
+			if (stored == null)
+				return false;
+			unlink(stored);
+			if (type == Graph.TYPE.UNDIRECTED) {
+				final Edge<T> reciprocal = edgeIndex.get(
+						new EdgeKey<T>(stored.getCost(), stored.getToVertex(), stored.getFromVertex()));
+				if (reciprocal != null)
+					unlink(reciprocal);
+			}
+			return true;
+		} finally {
+			publishUnlessBatch();
+			writeLock.unlock();
+		}
+	}
+
+	// Appends the edge to both endpoints unless it is a duplicate or an
+	// endpoint is missing, under the write lock
+	private boolean link(Edge<T> edge) {
+		final Versions<T> from = versions.get(edge.getFromVertex());
+		final Versions<T> to = versions.get(edge.getToVertex());
+		if (from == null || !from.head.present || to == null || !to.head.present)
+			return false;
+		if (edgeIndex.putIfAbsent(key(edge), edge) != null)
+			return false;
+
+		final Node<T> out = writable(from);
+		out.out = with(out.out, edge);
+		final Node<T> in = writable(to);
+		in.in = with(in.in, edge);
+		edgeCount++;
+		return true;
+	}
+
+	private void unlink(Edge<T> edge) {
+		if (!edgeIndex.remove(key(edge), edge))
+			return;
+		final Node<T> out = writable(versions.get(edge.getFromVertex()));
+		out.out = without(out.out, edge);
+		final Node<T> in = writable(versions.get(edge.getToVertex()));
+		in.in = without(in.in, edge);
+		edgeCount--;
+	}
+
+	// The vertex's node of the version being written, created on first change
+	private Node<T> writable(Versions<T> vertexVersions) {
+		final long pending = current.version + 1;
+		final Node<T> head = vertexVersions.head;
+		if (head != null && head.version == pending)
+			return head;
+		final Node<T> node = new Node<T>(pending, head);
+		vertexVersions.head = node;
+		touched.add(vertexVersions);
+		return node;
+	}
+
+	// Index the vertex under the key unless the version being written already
+	// holds a vertex there, in which case it waits behind the earlier ones
+	private <K> void indexIfAbsent(Map<K, Indexed<T>> index, K key, Vertex<T> vertex, List<Indexed<T>> touchedKeys) {
+		Indexed<T> indexed = index.get(key);
+		if (indexed == null) {
+			indexed = new Indexed<T>(key);
+			index.put(key, indexed);
+		}
+		if (indexed.head == null || indexed.head.vertex == null)
+			index(indexed, vertex, touchedKeys);
+		else
+			indexed.shadowed.addLast(vertex);
+	}
+
+	// The removed vertex shadowed any later duplicates, promote the earliest
+	// registered one. A shadowed vertex just leaves the line.
+	private void unindex(Indexed<T> indexed, Vertex<T> vertex, List<Indexed<T>> touchedKeys) {
+		if (indexed == null)
+			return;
+		if (indexed.head != null && indexed.head.vertex == vertex)
+			index(indexed, indexed.shadowed.pollFirst(), touchedKeys);
+		else
+			indexed.shadowed.remove(vertex);
+	}
+
+	// Points the key at the vertex, or at none, from the version being written on
+	private void index(Indexed<T> indexed, Vertex<T> vertex, List<Indexed<T>> touchedKeys) {
+		final long pending = current.version + 1;
+		final IndexEntry<T> head = indexed.head;
+		if (head != null && head.version == pending) {
+			head.vertex = vertex;
+			return;
+		}
+		indexed.head = new IndexEntry<T>(pending, vertex, head);
+		touchedKeys.add(indexed);
+	}
+
+	private void publishUnlessBatch() {
+		if (batchDepth > 0 || touched.isEmpty())
+			return;
+		final Epoch published = new Epoch(current.version + 1, vertexCount, edgeCount);
+		current.next = published;
+		current = published;
+		unreclaimed.add(new Touched<T>(published.version, touched, touchedValues, touchedNames));
+		touched = new ArrayList<Versions<T>>();
+		touchedValues = new ArrayList<Indexed<T>>();
+		touchedNames = new ArrayList<Indexed<T>>();
+		reclaim();
+	}
+
+	// Drops the versions that no pinned or future snapshot can see
+	private void reclaim() {
+		while (oldest != current && oldest.reclaim())
+			oldest = oldest.next;
+		final long visible = oldest.version;
+		while (!unreclaimed.isEmpty() && unreclaimed.peek().version <= visible) {
+			final Touched<T> changed = unreclaimed.poll();
+			for (Versions<T> vertexVersions : changed.vertices) {
+				final Node<T> node = vertexVersions.at(visible);
+				if (node == null)
+					continue;
+				node.older = null;
+				if (node == vertexVersions.head && !node.present)
+					versions.remove(vertexVersions.vertex, vertexVersions);
+			}
+			reclaim(valueIndex, changed.values, visible);
+			reclaim(nameIndex, changed.names, visible);
+		}
+	}
+
+	private static <K, T extends Comparable<T>> void reclaim(Map<K, Indexed<T>> index, List<Indexed<T>> keys,
+			long visible) {
+		for (Indexed<T> indexed : keys) {
+			final IndexEntry<T> entry = indexed.at(visible);
+			if (entry == null)
+				continue;
+			entry.older = null;
+			if (entry == indexed.head && entry.vertex == null)
+				index.remove(indexed.key, indexed);
+		}
+	}
+
+	private static <T extends Comparable<T>> EdgeKey<T> key(Edge<T> edge) {
+		return new EdgeKey<T>(edge.getCost(), edge.getFromVertex(), edge.getToVertex());
+	}
+
+	private static <T extends Comparable<T>> Edge<T>[] with(Edge<T>[] edges, Edge<T> edge) {
+		final Edge<T>[] copy = Arrays.copyOf(edges, edges.length + 1);
+		copy[edges.length] = edge;
+		return copy;
+	}
+
+	private static <T extends Comparable<T>> Edge<T>[] without(Edge<T>[] edges, Edge<T> edge) {
+		for (int i = 0; i < edges.length; i++) {
+			if (edges[i] == edge) {
+				if (edges.length == 1)
+					return (Edge<T>[]) NO_EDGES;
+				final Edge<T>[] copy = Arrays.copyOf(edges, edges.length - 1);
+				System.arraycopy(edges, i + 1, copy, i, edges.length - i - 1);
+				return copy;
+			}
+		}
+		return edges;
+	}
+
+	/**
+	 * Read only view of one version of a {@link ConcurrentGraph}. Lists returned
+	 * by a snapshot never change. Close the snapshot when done so that the
+	 * version can be reclaimed, it cannot be used afterwards.
+	 */
+	public static final class Snapshot<T extends Comparable<T>> implements AutoCloseable {
+		private final ConcurrentGraph<T> graph;
+		private final Epoch epoch;
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		private Snapshot(ConcurrentGraph<T> graph, Epoch epoch) {
+			this.graph = graph;
+			this.epoch = epoch;
+		}
+
+		public long getVersion() {
+			return epoch.version;
+		}
+
+		public Graph.TYPE getType() {
+			return graph.type;
+		}
+
+		/**
+		 * Find the first vertex added to the graph with the given value in O(1),
+		 * or a later one with the value if the first was removed, as of this
+		 * version. Vertices added or removed since do not change the result.
+		 *
+		 * @param value the value to look up
+		 * @return the vertex or null if no vertex holds the value
+		 */
+		public Vertex<T> findVertexByValue(T value) {
+			checkOpen();
+			return (value != null) ? lookup(graph.valueIndex.get(value)) : null;
+		}
+
+		/**
+		 * Find the first vertex added to the graph whose value's toString()
+		 * equals the given name in O(1), see {@link #findVertexByValue}.
+		 *
+		 * @param name the name to look up
+		 * @return the vertex or null if no vertex has the name
+		 */
+		public Vertex<T> findVertexByName(String name) {
+			checkOpen();
+			return (name != null) ? lookup(graph.nameIndex.get(name)) : null;
+		}
+
+		public boolean containsVertex(Vertex<T> vertex) {
+			return node(vertex) != null;
+		}
+
+		/**
+		 * @return the vertices, in no particular order
+		 */
+		public List<Vertex<T>> getVertices() {
+			checkOpen();
+			final List<Vertex<T>> vertices = new ArrayList<Vertex<T>>(epoch.vertexCount);
+			for (Versions<T> vertexVersions : graph.versions.values()) {
+				final Node<T> node = vertexVersions.at(epoch.version);
+				if (node != null && node.present)
+					vertices.add(vertexVersions.vertex);
+			}
+			return vertices;
+		}
+
+		public int getVertexCount() {
+			return epoch.vertexCount;
+		}
+
+		public int getEdgeCount() {
+			return epoch.edgeCount;
+		}
+
+		public List<Edge<T>> getEdges() {
+			checkOpen();
+			final List<Edge<T>> edges = new ArrayList<Edge<T>>(epoch.edgeCount);
+			for (Versions<T> vertexVersions : graph.versions.values()) {
+				final Node<T> node = vertexVersions.at(epoch.version);
+				if (node != null && node.present)
+					Collections.addAll(edges, node.out);
+			}
+			return edges;
+		}
+
+		/**
+		 * @return read only list, empty if the vertex is not part of this version
+		 */
+		public List<Edge<T>> getEdges(Vertex<T> vertex) {
+			final Node<T> node = node(vertex);
+			return (node != null) ? Collections.unmodifiableList(Arrays.asList(node.out))
+					: Collections.<Edge<T>>emptyList();
+		}
+
+		/**
+		 * @return read only list, empty if the vertex is not part of this version
+		 */
+		public List<Edge<T>> getIncomingEdges(Vertex<T> vertex) {
+			final Node<T> node = node(vertex);
+			return (node != null) ? Collections.unmodifiableList(Arrays.asList(node.in))
+					: Collections.<Edge<T>>emptyList();
+		}
+
+		/**
+		 * Take an immutable compressed sparse row snapshot of this version.
+		 */
+		public CsrGraph<T> freeze() {
+			checkOpen();
+			// The version's vertex count is exact, every present node fills one row
+			final Vertex<T>[] vertices = Graph.<T>newVertexArray(epoch.vertexCount);
+			final Edge<T>[][] edges = Graph.<T>newAdjacency(epoch.vertexCount);
+			int i = 0;
+			for (Versions<T> vertexVersions : graph.versions.values()) {
+				final Node<T> node = vertexVersions.at(epoch.version);
+				if (node != null && node.present) {
+					vertices[i] = vertexVersions.vertex;
+					edges[i++] = node.out;
+				}
+			}
+			return new CsrGraph<T>(graph.type, vertices, edges);
+		}
+
+		@Override
+		public void close() {
+			if (closed.compareAndSet(false, true))
+				epoch.unpin();
+		}
+
+		private void checkOpen() {
+			if (closed.get())
+				throw new IllegalStateException("Snapshot of version " + epoch.version + " is closed");
+		}
+
+		// The vertex indexed under a key as of this version
+		private Vertex<T> lookup(Indexed<T> indexed) {
+			final IndexEntry<T> entry = (indexed != null) ? indexed.at(epoch.version) : null;
+			return (entry != null) ? entry.vertex : null;
+		}
+
+		// The vertex's node of this version, null if the vertex is not part of it
+		private Node<T> node(Vertex<T> vertex) {
+			checkOpen();
+			final Versions<T> vertexVersions = (vertex != null) ? graph.versions.get(vertex) : null;
+			final Node<T> node = (vertexVersions != null) ? vertexVersions.at(epoch.version) : null;
+			return (node != null && node.present) ? node : null;
+		}
+	}
+
+	/**
+	 * A published version with the number of snapshots pinning it.
+	 */
+	private static final class Epoch {
+		private final long version;
+		private final int vertexCount;
+		private final int edgeCount;
+		private final AtomicInteger readers = new AtomicInteger();
+		// The version published after this one, set by the writer
+		private volatile Epoch next = null;
+
+		private Epoch(long version, int vertexCount, int edgeCount) {
+			this.version = version;
+			this.vertexCount = vertexCount;
+			this.edgeCount = edgeCount;
+		}
+
+		private boolean pin() {
+			while (true) {
+				final int count = readers.get();
+				if (count == RECLAIMED)
+					return false;
+				if (readers.compareAndSet(count, count + 1))
+					return true;
+			}
+		}
+
+		private void unpin() {
+			readers.decrementAndGet();
+		}
+
+		// Only once nobody pins it, and never again afterwards
+		private boolean reclaim() {
+			return readers.compareAndSet(0, RECLAIMED);
+		}
+	}
+
+	/**
+	 * Versions of one vertex's edges, newest first.
+	 */
+	private static final class Versions<T extends Comparable<T>> {
+		private final Vertex<T> vertex;
+		private volatile Node<T> head = null;
+
+		private Versions(Vertex<T> vertex) {
+			this.vertex = vertex;
+		}
+
+		// Newest node published at or before the version
+		private Node<T> at(long version) {
+			for (Node<T> node = head; node != null; node = node.older) {
+				if (node.version <= version)
+					return node;
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * A vertex's edges as of one version. Only the writer changes a node, and
+	 * only until its version is published; readers skip nodes newer than their
+	 * version.
+	 */
+	private static final class Node<T extends Comparable<T>> {
+		private final long version;
+		private boolean present = false;
+		private Edge<T>[] out = (Edge<T>[]) NO_EDGES;
+		private Edge<T>[] in = (Edge<T>[]) NO_EDGES;
+		// Cut by the writer once no reader can need the older versions
+		private Node<T> older;
+
+		private Node(long version, Node<T> older) {
+			this.version = version;
+			this.older = older;
+			if (older != null) {
+				this.present = older.present;
+				this.out = older.out;
+				this.in = older.in;
+			}
+		}
+	}
+
+	/**
+	 * Versions of the vertex indexed under one value or name, newest first.
+	 */
+	private static final class Indexed<T extends Comparable<T>> {
+		private final Object key;
+		private volatile IndexEntry<T> head = null;
+		// Present vertices with the key behind the indexed one, in registration
+		// order. Writer only, guarded by writeLock.
+		private final ArrayDeque<Vertex<T>> shadowed = new ArrayDeque<Vertex<T>>();
+
+		private Indexed(Object key) {
+			this.key = key;
+		}
+
+		// Newest entry published at or before the version
+		private IndexEntry<T> at(long version) {
+			for (IndexEntry<T> entry = head; entry != null; entry = entry.older) {
+				if (entry.version <= version)
+					return entry;
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * The vertex indexed under a key as of one version, null if there is none.
+	 * Written like a {@link Node}.
+	 */
+	private static final class IndexEntry<T extends Comparable<T>> {
+		private final long version;
+		private Vertex<T> vertex;
+		private IndexEntry<T> older;
+
+		private IndexEntry(long version, Vertex<T> vertex, IndexEntry<T> older) {
+			this.version = version;
+			this.vertex = vertex;
+			this.older = older;
+		}
+	}
+
+	/**
+	 * Vertices and index keys changed by one published version.
+	 */
+	private static final class Touched<T extends Comparable<T>> {
+		private final long version;
+		private final List<Versions<T>> vertices;
+		private final List<Indexed<T>> values;
+		private final List<Indexed<T>> names;
+
+		private Touched(long version, List<Versions<T>> vertices, List<Indexed<T>> values, List<Indexed<T>> names) {
+			this.version = version;
+			this.vertices = vertices;
+			this.values = values;
+			this.names = names;
+		}
+	}
+}
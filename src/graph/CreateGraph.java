@@ -3,15 +3,46 @@ import java.io.BufferedReader;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class CreateGraph {
-    private List<JobSeekerNode> jobSeekers = new ArrayList<>();
-    private List<JobNode> jobs = new ArrayList<>();
-    private List<JobApplicationNode> applications = new ArrayList<>();
-    private List<JobSkillEdge> skillEdges = new ArrayList<>();
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private ArrayList<JobSeekerNode> jobSeekers = new ArrayList<>();
+    private ArrayList<JobNode> jobs = new ArrayList<>();
+    private ArrayList<JobApplicationNode> applications = new ArrayList<>();
+    private ArrayList<JobSkillEdge> skillEdges = new ArrayList<>();
+    private SkillIndex skillIndex = new SkillIndex();
+    private Map<JobNode, Integer> jobIds = new IdentityHashMap<>();
+    // First seeker / job parsed under each name, like the old list scans returned
+    private Map<String, JobSeekerNode> jobSeekersByName = new HashMap<>();
+    private Map<String, JobNode> jobsByTitle = new HashMap<>();
+    // Applications and skill edges naming a seeker or job not parsed yet
+    private List<PendingReference> pendingReferences = new ArrayList<>();
+    private int deferredReferences = 0;
+    private int resolvedForwardReferences = 0;
+    private int unresolvedReferences = 0;
+    // Position of the first application of each seeker / job pair, built on the
+    // first lookup
+    private Map<ApplicationKey, Integer> applicationPositions;
+    private Set<ApplicationKey> duplicateApplications;
+    private final RecordParser.Handler recordHandler = new RecordHandler();
 
     public List<JobSeekerNode> getJobSeekers() {
         return this.jobSeekers;
@@ -29,105 +60,409 @@ public class CreateGraph {
         return this.skillEdges;
     }
 
+    /**
+     * @return how many applications and skill edges referenced a seeker or job
+     *         before its line and had to wait for the end of the input
+     */
+    public int getDeferredReferenceCount() {
+        return deferredReferences;
+    }
+
+    /**
+     * @return how many deferred references found their seeker and job later on
+     */
+    public int getResolvedForwardReferenceCount() {
+        return resolvedForwardReferences;
+    }
+
+    /**
+     * @return how many deferred references were dropped as invalid
+     */
+    public int getUnresolvedReferenceCount() {
+        return unresolvedReferences;
+    }
+
+    public SkillIndex getSkillIndex() {
+        return this.skillIndex;
+    }
+
+    public List<JobSeekerNode> getJobSeekersWithAllSkills(Collection<String> skills) {
+        return toJobSeekers(skillIndex.getJobSeekersWithAll(skills));
+    }
+
+    public List<JobSeekerNode> getJobSeekersWithAnySkill(Collection<String> skills) {
+        return toJobSeekers(skillIndex.getJobSeekersWithAny(skills));
+    }
+
+    private List<JobSeekerNode> toJobSeekers(int[] ids) {
+        List<JobSeekerNode> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(jobSeekers.get(id));
+        }
+        return result;
+    }
+
     public void parseData(String data) {
-        String[] lines = data.split("\n");
-
-        for (String line : lines) {
-            String[] parts = line.split(": ");
-            String category = parts[0];
-
-            switch (category) {
-                case "Job Seeker":
-                    String[] seekerParts = parts[1].split(" \\(Skills: ");
-                    String seekerName = seekerParts[0];
-                    String[] skillsAndExperience = seekerParts[1].split(", Experience: ");
-                    String[] skills = skillsAndExperience[0].split(", ");
-                    int experienceYears = Integer.parseInt(skillsAndExperience[1].replace(" years)", ""));
-
-                    JobSeekerNode jobSeeker = new JobSeekerNode(seekerName, Arrays.asList(skills), experienceYears);
-                    jobSeekers.add(jobSeeker);
-                    break;
-                case "Job":
-                    String[] jobParts = parts[1].split(" \\(Company: ");
-                    String title = jobParts[0];
-                    String[] companyAndLocation = jobParts[1].split(", Location: ");
-                    String company = companyAndLocation[0];
-                    String location = companyAndLocation[1].split(", Description: ")[0];
-                    String description = companyAndLocation[1].split(", Description: ")[1];
-
-                    JobNode job = new JobNode(title, company, location, description);
-                    jobs.add(job);
-                    break;
-                case "Job Application":
-                    String[] applicationParts = parts[1].split(" applied for ");
-                    String jobSeekerName = applicationParts[0];
-                    String[] jobAndCompany = applicationParts[1].split(" at ");
-                    String jobTitle = jobAndCompany[0];
-                    String applicationCompany = jobAndCompany[1].split(" \\(Status: ")[0];
-                    String status = jobAndCompany[1].split(" \\(Status: ")[1].replace(")", "");
-
-                    JobSeekerNode jobSeekerApp = findJobSeekerByName(jobSeekerName);
-                    JobNode jobApp = findJobByName(jobTitle);
-
-                    if (jobSeekerApp != null && jobApp != null) {
-                        applications.add(new JobApplicationNode(jobSeekerApp, jobApp, applicationCompany, status));
-                    } else {
-                        System.out.println("Invalid Job Application: " + line);
-                    }
-                    break;
-
-                case "Job Seeker Skill":
-                    String[] skillParts = parts[1].split(" has the following skills required for ");
-                    String skillSeekerName = skillParts[0];
-                    String[] skillJobAndCompany = skillParts[1].split(" at ");
-                    String skillJobTitle = skillJobAndCompany[0];
-                    String skillCompany = skillJobAndCompany[1].split(" \\(Required Skills: ")[0];
-                    String[] requiredSkills = skillJobAndCompany[1].replace(")", "").split(", ");
-
-                    JobSeekerNode skillSeeker = findJobSeekerByName(skillSeekerName);
-                    JobNode skillJob = findJobByName(skillJobTitle);
-
-                    if (skillSeeker != null && skillJob != null) {
-                        skillEdges.add(new JobSkillEdge(skillSeeker, skillJob, Arrays.asList(requiredSkills)));
-                    } else {
-                        System.out.println("Invalid Job Seeker Skill: " + line);
-                    }
-                    break;
-                default:
-                    System.out.println("Invalid line: " + line);
-                    break;
+        int start = 0;
+        int length = data.length();
+        // Same lines as split("\n"): trailing empty lines are dropped
+        while (length > 0 && data.charAt(length - 1) == '\n') {
+            length--;
+        }
+        while (start < length) {
+            int end = data.indexOf('\n', start);
+            if (end < 0 || end > length) {
+                end = length;
             }
+            parseLine(data.substring(start, end));
+            start = end + 1;
         }
+        resolvePendingReferences();
     }
 
-    private JobSeekerNode findJobSeekerByName(String name) {
-        for (JobSeekerNode jobSeeker : jobSeekers) {
-            if (jobSeeker.getName().equals(name)) {
-                return jobSeeker;
+    /**
+     * Parse records line by line as they are read, so memory stays bounded by
+     * the graph being built rather than by the size of the input.
+     */
+    public void parseData(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader
+                : new BufferedReader(reader, READ_BUFFER_SIZE);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            parseLine(line);
+        }
+        resolvePendingReferences();
+    }
+
+    public void parseData(InputStream in) throws IOException {
+        parseData(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse a file through a memory mapping of it, see
+     * {@link MappedRecordReader}. The file is read as UTF-8.
+     */
+    public void parseMapped(Path file) throws IOException {
+        MappedRecordReader.read(file, recordHandler);
+        resolvePendingReferences();
+    }
+
+    /**
+     * Parse a single record, without its line terminator. Applications and skill
+     * edges naming a seeker or job that has not been parsed yet are held back
+     * until {@link #resolvePendingReferences()}, which the parseData methods call
+     * at the end of their input.
+     */
+    public void parseLine(CharSequence line) {
+        RecordParser.parse(line, recordHandler);
+    }
+
+    /**
+     * Link the applications and skill edges held back by {@link #parseLine} to
+     * the seekers and jobs parsed since. References that still do not resolve
+     * are reported as invalid and dropped.
+     */
+    public void resolvePendingReferences() {
+        if (pendingReferences.isEmpty()) {
+            return;
+        }
+        List<PendingReference> pending = pendingReferences;
+        pendingReferences = new ArrayList<>();
+        for (PendingReference reference : pending) {
+            JobSeekerNode jobSeeker = findJobSeekerByName(reference.jobSeekerName);
+            JobNode job = findJobByName(reference.jobTitle);
+            if (jobSeeker == null || job == null) {
+                dropUnresolved(reference);
+            } else if (reference.requiredSkills == null) {
+                resolvedForwardReferences++;
+                addApplication(new JobApplicationNode(jobSeeker, job, reference.company, reference.status));
+            } else {
+                resolvedForwardReferences++;
+                linkSkillEdge(jobSeeker, job, reference.requiredSkills);
             }
         }
-        return null; // JobSeekerNode not found
     }
 
-    private JobNode findJobByName(String name) {
-        for (JobNode job : jobs) {
-            if (job.getTitle().equals(name)) {
-                return job;
+    private void addJobSeeker(String name, String[] skills, int experienceYears, String preferredLocation) {
+        JobSeekerNode jobSeeker = new JobSeekerNode(name, Arrays.asList(skills), experienceYears);
+        jobSeeker.setPreferredLocation(preferredLocation);
+        addJobSeeker(jobSeeker);
+    }
+
+    /**
+     * Make room for that many more nodes and edges, for loaders that know the
+     * counts up front. Saves the copies of growing the lists and maps one by one.
+     */
+    void ensureCapacity(int moreJobSeekers, int moreJobs, int moreApplications, int moreSkillEdges) {
+        jobSeekers.ensureCapacity(jobSeekers.size() + moreJobSeekers);
+        jobs.ensureCapacity(jobs.size() + moreJobs);
+        applications.ensureCapacity(applications.size() + moreApplications);
+        skillEdges.ensureCapacity(skillEdges.size() + moreSkillEdges);
+        if (jobSeekersByName.isEmpty() && moreJobSeekers > 0) {
+            jobSeekersByName = new HashMap<>(mapCapacity(moreJobSeekers));
+        }
+        if (jobsByTitle.isEmpty() && moreJobs > 0) {
+            jobsByTitle = new HashMap<>(mapCapacity(moreJobs));
+            jobIds = new IdentityHashMap<>(moreJobs);
+        }
+    }
+
+    // HashMap capacity that holds n entries without resizing
+    private static int mapCapacity(int n) {
+        return (int) Math.min(Integer.MAX_VALUE, n * 4L / 3 + 1);
+    }
+
+    void addJobSeeker(JobSeekerNode jobSeeker) {
+        skillIndex.addJobSeeker(jobSeekers.size(), jobSeeker.getSkillVector());
+        jobSeekers.add(jobSeeker);
+        jobSeekersByName.putIfAbsent(jobSeeker.getName(), jobSeeker);
+    }
+
+    private void addJob(String title, String company, String location, String description) {
+        addJob(new JobNode(title, company, location, description));
+    }
+
+    void addJob(JobNode job) {
+        jobIds.put(job, jobs.size());
+        jobs.add(job);
+        jobsByTitle.putIfAbsent(job.getTitle(), job);
+    }
+
+    private void addApplication(String jobSeekerName, String jobTitle, String company, String status,
+            CharSequence line) {
+        JobSeekerNode jobSeeker = findJobSeekerByName(jobSeekerName);
+        JobNode job = findJobByName(jobTitle);
+
+        if (jobSeeker != null && job != null) {
+            addApplication(new JobApplicationNode(jobSeeker, job, company, status));
+        } else {
+            defer(new PendingReference(jobSeekerName, jobTitle, company, status, null, line));
+        }
+    }
+
+    private void addSkillEdge(String jobSeekerName, String jobTitle, String[] requiredSkills, CharSequence line) {
+        JobSeekerNode jobSeeker = findJobSeekerByName(jobSeekerName);
+        JobNode job = findJobByName(jobTitle);
+
+        if (jobSeeker != null && job != null) {
+            linkSkillEdge(jobSeeker, job, requiredSkills);
+        } else {
+            defer(new PendingReference(jobSeekerName, jobTitle, null, null, requiredSkills, line));
+        }
+    }
+
+    private void linkSkillEdge(JobSeekerNode jobSeeker, JobNode job, String[] requiredSkills) {
+        addSkillEdge(new JobSkillEdge(jobSeeker, job, Arrays.asList(requiredSkills)));
+    }
+
+    void addApplication(JobApplicationNode application) {
+        if (applicationPositions != null) {
+            indexApplication(application, applications.size());
+        }
+        applications.add(application);
+    }
+
+    /**
+     * @return the application of the seeker for the job, null if there is none.
+     *         With several applications for the same pair the first one added
+     *         is returned.
+     */
+    public JobApplicationNode findApplication(String jobSeekerName, String jobTitle) {
+        int position = findApplicationPosition(jobSeekerName, jobTitle);
+        return position < 0 ? null : applications.get(position);
+    }
+
+    /**
+     * Remove the application of the seeker for the job in O(1). The last
+     * application takes the place of the removed one, so the order of
+     * {@link #getApplications()} changes.
+     *
+     * @return false if there was no such application
+     */
+    public boolean removeApplication(String jobSeekerName, String jobTitle) {
+        int position = findApplicationPosition(jobSeekerName, jobTitle);
+        if (position < 0) {
+            return false;
+        }
+        ApplicationKey key = new ApplicationKey(applications.get(position));
+        applicationPositions.remove(key);
+        int last = applications.size() - 1;
+        JobApplicationNode moved = applications.remove(last);
+        if (position != last) {
+            applications.set(position, moved);
+            ApplicationKey movedKey = new ApplicationKey(moved);
+            Integer movedPosition = applicationPositions.get(movedKey);
+            if (movedPosition != null && movedPosition == last) {
+                applicationPositions.put(movedKey, position);
+            }
+        }
+        if (duplicateApplications.contains(key)) {
+            // Another application of the pair takes over, found by a scan
+            duplicateApplications.remove(key);
+            for (int i = 0; i < applications.size(); i++) {
+                if (key.matches(applications.get(i))) {
+                    indexApplication(applications.get(i), i);
+                }
             }
         }
-        return null; // JobNode not found
+        return true;
     }
 
-    public void createGraph(String filename) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
-            StringBuilder data = new StringBuilder();
-            String line;
+    // Position in the application list, -1 if there is no such application
+    private int findApplicationPosition(String jobSeekerName, String jobTitle) {
+        JobSeekerNode jobSeeker = findJobSeekerByName(jobSeekerName);
+        JobNode job = findJobByName(jobTitle);
+        if (jobSeeker == null || job == null) {
+            return -1;
+        }
+        ApplicationKey key = new ApplicationKey(jobSeeker, job);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            if (applicationPositions == null || attempt > 0) {
+                // Built on first use, and again if the list was changed directly
+                indexApplications();
+            }
+            Integer position = applicationPositions.get(key);
+            if (position == null) {
+                return -1;
+            }
+            if (position < applications.size() && key.matches(applications.get(position))) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    private void indexApplications() {
+        applicationPositions = new HashMap<>(mapCapacity(applications.size()));
+        duplicateApplications = new HashSet<>();
+        for (int i = 0; i < applications.size(); i++) {
+            indexApplication(applications.get(i), i);
+        }
+    }
 
-            while ((line = reader.readLine()) != null) {
-                data.append(line).append("\n");
+    private void indexApplication(JobApplicationNode application, int position) {
+        ApplicationKey key = new ApplicationKey(application);
+        if (applicationPositions.putIfAbsent(key, position) != null) {
+            duplicateApplications.add(key);
+        }
+    }
+
+    void addSkillEdge(JobSkillEdge skillEdge) {
+        skillIndex.addJobSkills(jobIds.get(skillEdge.getJob()), skillEdge.getRequiredSkillVector());
+        skillEdges.add(skillEdge);
+    }
+
+    private void defer(PendingReference reference) {
+        deferredReferences++;
+        pendingReferences.add(reference);
+    }
+
+    void dropUnresolved(PendingReference reference) {
+        unresolvedReferences++;
+        System.out.println((reference.requiredSkills == null ? "Invalid Job Application: "
+                : "Invalid Job Seeker Skill: ") + reference.line);
+    }
+
+    /**
+     * Seeker and job of an application, compared by identity.
+     */
+    private static final class ApplicationKey {
+        private final JobSeekerNode jobSeeker;
+        private final JobNode job;
+
+        private ApplicationKey(JobApplicationNode application) {
+            this(application.getJobSeeker(), application.getJob());
+        }
+
+        private ApplicationKey(JobSeekerNode jobSeeker, JobNode job) {
+            this.jobSeeker = jobSeeker;
+            this.job = job;
+        }
+
+        private boolean matches(JobApplicationNode application) {
+            return application.getJobSeeker() == jobSeeker && application.getJob() == job;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(jobSeeker) + System.identityHashCode(job);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof ApplicationKey)) {
+                return false;
             }
+            ApplicationKey key = (ApplicationKey) other;
+            return key.jobSeeker == jobSeeker && key.job == job;
+        }
+    }
+
+    /**
+     * An application (requiredSkills is null) or skill edge whose seeker and job
+     * are looked up by name later.
+     */
+    static class PendingReference {
+        final String jobSeekerName;
+        final String jobTitle;
+        final String company;
+        final String status;
+        // null for applications
+        final String[] requiredSkills;
+        final String line;
+
+        PendingReference(String jobSeekerName, String jobTitle, String company, String status,
+                String[] requiredSkills, CharSequence line) {
+            this.jobSeekerName = jobSeekerName;
+            this.jobTitle = jobTitle;
+            this.company = company;
+            this.status = status;
+            this.requiredSkills = requiredSkills;
+            this.line = line.toString();
+        }
+    }
+
+    private class RecordHandler implements RecordParser.Handler {
+        @Override
+        public void jobSeeker(String name, String[] skills, int experienceYears, String preferredLocation) {
+            addJobSeeker(name, skills, experienceYears, preferredLocation);
+        }
+
+        @Override
+        public void job(String title, String company, String location, String description) {
+            addJob(title, company, location, description);
+        }
+
+        @Override
+        public void application(String jobSeekerName, String jobTitle, String company, String status,
+                CharSequence line) {
+            addApplication(jobSeekerName, jobTitle, company, status, line);
+        }
+
+        @Override
+        public void skillEdge(String jobSeekerName, String jobTitle, String company, String[] requiredSkills,
+                CharSequence line) {
+            addSkillEdge(jobSeekerName, jobTitle, requiredSkills, line);
+        }
+
+        @Override
+        public void invalid(CharSequence line) {
+            System.out.println("Invalid line: " + line);
+        }
+    }
+
+    JobSeekerNode findJobSeekerByName(String name) {
+        return jobSeekersByName.get(name); // null if JobSeekerNode not found
+    }
 
-            parseData(data.toString());
+    JobNode findJobByName(String name) {
+        return jobsByTitle.get(name); // null if JobNode not found
+    }
+
+    public void createGraph(String filename) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(filename), READ_BUFFER_SIZE)) {
+            parseData(reader);
+            printReferenceSummary();
         } catch (FileNotFoundException e) {
             System.out.println("File not found: " + filename);
         } catch (IOException e) {
@@ -135,10 +470,97 @@ public class CreateGraph {
         }
     }
 
+    /**
+     * Like {@link #createGraph(String)} but parses the records from a memory
+     * mapping of the file instead of copying it through a reader.
+     */
+    public void createGraphMapped(String filename) {
+        try {
+            parseMapped(Paths.get(filename));
+            printReferenceSummary();
+        } catch (NoSuchFileException e) {
+            System.out.println("File not found: " + filename);
+        } catch (IOException e) {
+            System.out.println("Error reading file: " + filename);
+        }
+    }
+
+    private void printReferenceSummary() {
+        if (deferredReferences > 0) {
+            System.out.println("Forward references: " + deferredReferences + " deferred, "
+                    + resolvedForwardReferences + " resolved, " + unresolvedReferences + " unresolved");
+        }
+    }
+
+    /**
+     * Like {@link #createGraph(String)} but splits the file into chunks parsed on
+     * the common fork join pool, see {@link ParallelGraphLoader}.
+     */
+    public void createGraphParallel(String filename) {
+        try {
+            new ParallelGraphLoader().load(Paths.get(filename), this);
+            if (unresolvedReferences > 0) {
+                System.out.println("Unresolved references: " + unresolvedReferences);
+            }
+        } catch (NoSuchFileException e) {
+            System.out.println("File not found: " + filename);
+        } catch (IOException e) {
+            System.out.println("Error reading file: " + filename);
+        }
+    }
+
     public void readDataFromFile(String filename) {
         createGraph(filename);
     }
 
+    /**
+     * Load a binary snapshot written by {@link #saveSnapshot(String)}, see
+     * {@link GraphSnapshot}.
+     */
+    public void readSnapshotFromFile(String filename) {
+        Path file = Paths.get(filename);
+        try (InputStream in = Files.newInputStream(file)) {
+            GraphSnapshot.read(in, Files.size(file), this);
+        } catch (NoSuchFileException e) {
+            System.out.println("File not found: " + filename);
+        } catch (IOException e) {
+            System.out.println("Error reading snapshot " + filename + ": " + e.getMessage());
+        }
+    }
+
+    public void saveSnapshot(String filename) {
+        try {
+            GraphSnapshot.save(this, Paths.get(filename));
+        } catch (IOException e) {
+            System.out.println("Error writing snapshot: " + filename);
+        }
+    }
+
+    /**
+     * Undirected graph of the parsed data: one vertex per job seeker and per job,
+     * valued by name and title, an edge of cost 1 per application and an edge
+     * costing the number of required skills per skill edge.
+     */
+    public Graph<String> toGraph() {
+        Graph.Builder<String> builder = new Graph.Builder<>(Graph.TYPE.UNDIRECTED, jobSeekers.size() + jobs.size(),
+                applications.size() + skillEdges.size());
+        Map<Object, Integer> numbers = new IdentityHashMap<>(jobSeekers.size() + jobs.size());
+        for (JobSeekerNode jobSeeker : jobSeekers) {
+            numbers.put(jobSeeker, builder.addVertex(new Graph.Vertex<>(jobSeeker.getName(), 0)));
+        }
+        for (JobNode job : jobs) {
+            numbers.put(job, builder.addVertex(new Graph.Vertex<>(job.getTitle(), 0)));
+        }
+        for (JobApplicationNode application : applications) {
+            builder.addEdge(numbers.get(application.getJobSeeker()), numbers.get(application.getJob()), 1);
+        }
+        for (JobSkillEdge skillEdge : skillEdges) {
+            builder.addEdge(numbers.get(skillEdge.getJobSeeker()), numbers.get(skillEdge.getJob()),
+                    Math.max(1, skillEdge.getRequiredSkillVector().cardinality()));
+        }
+        return builder.build();
+    }
+
     public void displayGraph() {
         System.out.println("\nJob Applications:");
         if (applications.isEmpty()) {
@@ -0,0 +1,222 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import graph.Graph.Edge;
+import graph.Graph.Vertex;
+
+/**
+ * Immutable compressed sparse row (CSR) snapshot of a {@link Graph} or a
+ * {@link ConcurrentGraph}. Vertices are numbered 0..n-1 in the order of
+ * getVertices() and the outgoing edges of vertex v occupy the slots offsets[v]
+ * to offsets[v + 1] - 1 of the parallel targets and costs arrays. Traversals over the snapshot touch
+ * only those three int arrays, no per-edge objects.
+ * <p>
+ * The snapshot does not track later changes to the graph, freeze again after
+ * mutating it, or use an {@link IntGraph} when the graph keeps changing.
+ */
+public final class CsrGraph<T extends Comparable<T>> implements IntAdjacency<T> {
+
+	private final Graph.TYPE type;
+	private final Vertex<T>[] vertices;
+	private final Map<Vertex<T>, Integer> ids;
+	private final int[] offsets;
+	private final int[] targets;
+	private final int[] costs;
+	// Outgoing edges per vertex id when taken from a ConcurrentGraph or from a
+	// graph with implicit reciprocals, null when the vertices' own edge lists
+	// are the adjacency
+	private final Edge<T>[][] edges;
+	// Set on a transpose, whose slots are the graph's edges reversed
+	private final boolean reversed;
+
+	CsrGraph(Graph<T> graph) {
+		this(graph.getType(), vertexArray(graph.getVertices()), null);
+	}
+
+	// Generic arrays cannot be created directly
+	@SuppressWarnings("unchecked")
+	private static <T extends Comparable<T>> Vertex<T>[] vertexArray(Collection<Vertex<T>> vertices) {
+		return vertices.toArray((Vertex<T>[]) new Vertex<?>[vertices.size()]);
+	}
+
+	/**
+	 * @param adjacency outgoing edges of each vertex, or null to use
+	 *                  {@link Vertex#getEdges()}
+	 */
+	CsrGraph(Graph.TYPE type, Vertex<T>[] vertices, Edge<T>[][] adjacency) {
+		this.type = type;
+		this.vertices = vertices;
+		this.edges = adjacency;
+		this.reversed = false;
+
+		final int n = vertices.length;
+		this.ids = new IdentityHashMap<Vertex<T>, Integer>(n);
+		for (int i = 0; i < n; i++)
+			ids.putIfAbsent(vertices[i], i);
+
+		// Edges to vertices that are not part of the graph are dropped
+		this.offsets = new int[n + 1];
+		for (int i = 0; i < n; i++) {
+			int degree = 0;
+			for (Edge<T> e : edgesOf(i)) {
+				if (ids.containsKey(e.getToVertex()))
+					degree++;
+			}
+			offsets[i + 1] = offsets[i] + degree;
+		}
+
+		final int m = offsets[n];
+		this.targets = new int[m];
+		this.costs = new int[m];
+		for (int i = 0; i < n; i++) {
+			int slot = offsets[i];
+			for (Edge<T> e : edgesOf(i)) {
+				final Integer to = ids.get(e.getToVertex());
+				if (to == null)
+					continue;
+				targets[slot] = to;
+				costs[slot] = e.getCost();
+				slot++;
+			}
+		}
+	}
+
+	private CsrGraph(Graph.TYPE type, Vertex<T>[] vertices, Map<Vertex<T>, Integer> ids, int[] offsets,
+			int[] targets, int[] costs, Edge<T>[][] edges, boolean reversed) {
+		this.type = type;
+		this.vertices = vertices;
+		this.ids = ids;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.costs = costs;
+		this.edges = edges;
+		this.reversed = reversed;
+	}
+
+	private List<Edge<T>> edgesOf(int v) {
+		return (edges != null) ? Arrays.asList(edges[v]) : vertices[v].getEdges();
+	}
+
+	/**
+	 * Snapshot with every edge reversed, sharing the vertex ids of this one. An
+	 * undirected snapshot is its own transpose. Its edges resolve to the graph's
+	 * edge objects they were reversed from, see {@link #getEdge(int, int)}.
+	 */
+	public CsrGraph<T> transpose() {
+		if (type == Graph.TYPE.UNDIRECTED)
+			return this;
+
+		final int n = vertices.length;
+		final int m = targets.length;
+		final int[] reverseOffsets = new int[n + 1];
+		for (int slot = 0; slot < m; slot++)
+			reverseOffsets[targets[slot] + 1]++;
+		for (int v = 0; v < n; v++)
+			reverseOffsets[v + 1] += reverseOffsets[v];
+
+		final int[] next = Arrays.copyOf(reverseOffsets, n);
+		final int[] reverseTargets = new int[m];
+		final int[] reverseCosts = new int[m];
+		for (int u = 0; u < n; u++) {
+			for (int slot = offsets[u]; slot < offsets[u + 1]; slot++) {
+				final int at = next[targets[slot]]++;
+				reverseTargets[at] = u;
+				reverseCosts[at] = costs[slot];
+			}
+		}
+		return new CsrGraph<T>(type, vertices, ids, reverseOffsets, reverseTargets, reverseCosts, edges, !reversed);
+	}
+
+	public Graph.TYPE getType() {
+		return type;
+	}
+
+	public int getVertexCount() {
+		return vertices.length;
+	}
+
+	/**
+	 * Number of adjacency slots. For undirected graphs every edge is stored once
+	 * per direction, same as {@link Graph#getEdges()} unless the graph has
+	 * implicit reciprocals.
+	 */
+	public int getEdgeCount() {
+		return targets.length;
+	}
+
+	/**
+	 * @param vertex a vertex of the frozen graph
+	 * @return its id or -1 if the vertex was not part of the graph
+	 */
+	public int getId(Vertex<T> vertex) {
+		final Integer id = ids.get(vertex);
+		return (id != null) ? id : -1;
+	}
+
+	public Vertex<T> getVertex(int id) {
+		return vertices[id];
+	}
+
+	public int getDegree(int v) {
+		return offsets[v + 1] - offsets[v];
+	}
+
+	/** First adjacency slot of vertex v. */
+	public int firstEdge(int v) {
+		return offsets[v];
+	}
+
+	/** One past the last adjacency slot of vertex v. */
+	public int endEdge(int v) {
+		return offsets[v + 1];
+	}
+
+	public int getTarget(int slot) {
+		return targets[slot];
+	}
+
+	public int getCost(int slot) {
+		return costs[slot];
+	}
+
+	/**
+	 * Resolve an adjacency slot of vertex from back to the graph's edge object.
+	 * Only meant for materialising results such as paths, O(degree). On a
+	 * transpose the graph holds no edge in the direction of the slot, the edge
+	 * it was reversed from, pointing at from, is returned.
+	 *
+	 * @return the edge or null if the graph changed since it was frozen
+	 */
+	public Edge<T> getEdge(int from, int slot) {
+		return findEdge(from, targets[slot], costs[slot]);
+	}
+
+	/**
+	 * Find the graph's edge object from one vertex id to another with the given
+	 * cost, O(degree). On a transpose the edge of the graph from to to from is
+	 * returned.
+	 *
+	 * @return the edge or null if there is none
+	 */
+	public Edge<T> findEdge(int from, int to, int cost) {
+		final int tail = reversed ? to : from;
+		final Vertex<T> target = vertices[reversed ? from : to];
+		for (Edge<T> e : edgesOf(tail)) {
+			if (e.getToVertex() == target && e.getCost() == cost)
+				return e;
+		}
+		return null;
+	}
+
+	/**
+	 * Approximate heap bytes of the adjacency arrays, without the vertex table.
+	 */
+	public long getAdjacencyBytes() {
+		return 4L * (offsets.length + targets.length + costs.length);
+	}
+}
@@ -1,88 +1,116 @@
 package graph;
 
+import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.Writer;
+import java.util.Arrays;
 import java.util.Random;
 
 public class DataGenerator {
     private static final int MAX_SKILLS_PER_JOB_SEEKER = 3;
     private static final String[] SKILLS = {"Java", "Python", "C++", "JavaScript", "HTML", "CSS"};
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
 
+    /**
+     * Usage: DataGenerator [file [jobSeekers jobs skills applicationsPerJobSeeker skillSkew seed]]
+     */
     public static void main(String[] args) {
-        String filename = "graph_data.txt";
-        generateDataFile(filename);
+        String filename = args.length > 0 ? args[0] : "graph_data.txt";
+        if (args.length >= 7) {
+            generateDataFile(filename, Integer.parseInt(args[1]), Integer.parseInt(args[2]),
+                    Integer.parseInt(args[3]), Integer.parseInt(args[4]), Double.parseDouble(args[5]),
+                    Long.parseLong(args[6]));
+        } else {
+            generateDataFile(filename);
+        }
     }
-    
+
     public static void generateDataFile(String filename) {
-        try (FileWriter writer = new FileWriter(filename)) {
-            Random random = new Random();
+        generateDataFile(filename, 10, 5, SKILLS.length, 1, 0.0, new Random());
+    }
 
-            // Generate job seekers
-            List<JobSeekerNode> jobSeekers = new ArrayList<>();
-            for (int i = 1; i <= 10; i++) {
-                String name = "JobSeeker " + i;
-                List<String> skills = new ArrayList<>();
-                int numSkills = random.nextInt(MAX_SKILLS_PER_JOB_SEEKER) + 1;
-                for (int j = 0; j < numSkills; j++) {
-                    String skill = SKILLS[random.nextInt(SKILLS.length)];
-                    skills.add(skill);
-                }
-                int experienceYears = random.nextInt(10) + 1;
+    /**
+     * Generate a data file of the given size. Lines are written as they are
+     * generated, nothing is kept in memory, so files of millions of seekers and
+     * jobs are fine.
+     *
+     * @param skillCount               number of distinct skills, the first ones
+     *                                 are the usual programming languages
+     * @param applicationsPerJobSeeker applications written for every seeker,
+     *                                 to random jobs
+     * @param skillSkew                Zipf exponent of skill popularity, the
+     *                                 k-th skill is drawn with probability
+     *                                 proportional to 1 / k^skew. 0 draws all
+     *                                 skills equally often, around 1 is typical
+     *                                 of real skill demand.
+     * @param seed                     seed of the random generator, the same
+     *                                 arguments always produce the same file
+     */
+    public static void generateDataFile(String filename, int jobSeekerCount, int jobCount, int skillCount,
+            int applicationsPerJobSeeker, double skillSkew, long seed) {
+        generateDataFile(filename, jobSeekerCount, jobCount, skillCount, applicationsPerJobSeeker, skillSkew,
+                new Random(seed));
+    }
+
+    private static void generateDataFile(String filename, int jobSeekerCount, int jobCount, int skillCount,
+            int applicationsPerJobSeeker, double skillSkew, Random random) {
+        if (jobSeekerCount < 0 || jobCount <= 0 || skillCount <= 0 || applicationsPerJobSeeker < 0
+                || skillSkew < 0) {
+            throw new IllegalArgumentException("Job and skill counts must be positive, the other counts and the skew not negative");
+        }
+        String[] skills = skillNames(skillCount);
+        double[] skillCdf = zipfCdf(skillCount, skillSkew);
+
+        try (Writer writer = new BufferedWriter(new FileWriter(filename), WRITE_BUFFER_SIZE)) {
+            StringBuilder line = new StringBuilder(256);
 
-                JobSeekerNode jobSeeker = new JobSeekerNode(name, skills, experienceYears);
-                jobSeekers.add(jobSeeker);
-                writer.write("Job Seeker: " + jobSeeker.getName() +
-                        " (Skills: " + String.join(", ", jobSeeker.getSkills()) +
-                        ", Experience: " + jobSeeker.getExperienceYears() + " years)\n");
+            // Generate job seekers
+            for (int i = 1; i <= jobSeekerCount; i++) {
+                line.setLength(0);
+                line.append("Job Seeker: JobSeeker ").append(i).append(" (Skills: ");
+                appendSkills(line, random, skills, skillCdf);
+                line.append(", Experience: ").append(random.nextInt(10) + 1)
+                        .append(" years, Preferred Location: Location ").append(random.nextInt(jobCount) + 1)
+                        .append(")\n");
+                writer.append(line);
             }
 
             // Generate jobs
-            List<JobNode> jobs = new ArrayList<>();
-            for (int i = 1; i <= 5; i++) {
-                String title = "Job " + i;
-                String company = "Company " + i;
-                String location = "Location " + i;
-                String description = "Description for Job " + i;
-
-                JobNode job = new JobNode(title, company, location, description);
-                jobs.add(job);
-                writer.write("Job: " + job.getTitle() +
-                        " (Company: " + job.getCompany() +
-                        ", Location: " + job.getLocation() +
-                        ", Description: " + job.getDescription() + ")\n");
+            for (int i = 1; i <= jobCount; i++) {
+                line.setLength(0);
+                line.append("Job: Job ").append(i)
+                        .append(" (Company: Company ").append(i)
+                        .append(", Location: Location ").append(i)
+                        .append(", Description: Description for Job ").append(i).append(")\n");
+                writer.append(line);
             }
 
-         // Generate job applications
-            for (JobSeekerNode jobSeeker : jobSeekers) {
-                JobNode job = jobs.get(random.nextInt(jobs.size()));
-                String applicationCompany = job.getCompany();
-                String status = random.nextBoolean() ? "Applied" : "Not Applied";
-
-                JobApplicationNode application = new JobApplicationNode(jobSeeker, job, applicationCompany, status);
-                writer.write("Job Application: " + application.getJobSeeker().getName() + " applied for " +
-                        application.getJob().getTitle() + " at " + application.getApplicationCompany() +
-                        " (Status: " + application.getStatus() + ")\n");
+            // Generate job applications
+            for (int i = 1; i <= jobSeekerCount; i++) {
+                for (int a = 0; a < applicationsPerJobSeeker; a++) {
+                    int job = random.nextInt(jobCount) + 1;
+                    String status = random.nextBoolean() ? "Applied" : "Not Applied";
+                    line.setLength(0);
+                    line.append("Job Application: JobSeeker ").append(i)
+                            .append(" applied for Job ").append(job)
+                            .append(" at Company ").append(job)
+                            .append(" (Status: ").append(status).append(")\n");
+                    writer.append(line);
+                }
             }
 
-
             // Generate skill edges
-            for (JobSeekerNode jobSeeker : jobSeekers) {
-                JobNode job = jobs.get(random.nextInt(jobs.size()));
-                int numSkills = random.nextInt(MAX_SKILLS_PER_JOB_SEEKER) + 1;
-
-                List<String> requiredSkills = new ArrayList<>();
-                for (int j = 0; j < numSkills; j++) {
-                    String skill = SKILLS[random.nextInt(SKILLS.length)];
-                    requiredSkills.add(skill);
-                }
-
-                JobSkillEdge skillEdge = new JobSkillEdge(jobSeeker, job, requiredSkills);
-                writer.write("Job Seeker: " + skillEdge.getJobSeeker().getName() +
-                        " has the following skills required for " + skillEdge.getJob().getTitle()
-                        + " at " + skillEdge.getJob().getCompany() +
-                        " (Required Skills: " + String.join(", ", skillEdge.getRequiredSkills()) + ")\n");
+            for (int i = 1; i <= jobSeekerCount; i++) {
+                int job = random.nextInt(jobCount) + 1;
+                line.setLength(0);
+                line.append("Job Seeker: JobSeeker ").append(i)
+                        .append(" has the following skills required for Job ").append(job)
+                        .append(" at Company ").append(job)
+                        .append(" (Required Skills: ");
+                appendSkills(line, random, skills, skillCdf);
+                line.append(")\n");
+                writer.append(line);
             }
 
             System.out.println("Data file has been generated: " + filename);
@@ -91,4 +119,60 @@ public class DataGenerator {
             e.printStackTrace();
         }
     }
+
+    // One to three distinct skills
+    private static void appendSkills(StringBuilder line, Random random, String[] skills, double[] skillCdf) {
+        int numSkills = Math.min(random.nextInt(MAX_SKILLS_PER_JOB_SEEKER) + 1, skills.length);
+        int[] chosen = new int[numSkills];
+        for (int j = 0; j < numSkills; j++) {
+            int skill = sample(random, skillCdf);
+            // Redraw repeats, with a steep skew fall back to the next unused skill
+            for (int attempt = 0; contains(chosen, j, skill); attempt++) {
+                skill = attempt < 16 ? sample(random, skillCdf) : (skill + 1) % skills.length;
+            }
+            chosen[j] = skill;
+            if (j > 0) {
+                line.append(", ");
+            }
+            line.append(skills[skill]);
+        }
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[] skillNames(int skillCount) {
+        String[] names = Arrays.copyOf(SKILLS, skillCount);
+        for (int i = SKILLS.length; i < skillCount; i++) {
+            names[i] = "Skill " + (i + 1);
+        }
+        return names;
+    }
+
+    // cdf[k] = P(skill <= k) for weights 1 / (k + 1)^skew
+    private static double[] zipfCdf(int count, double skew) {
+        double[] cdf = new double[count];
+        double sum = 0.0;
+        for (int k = 0; k < count; k++) {
+            sum += 1.0 / Math.pow(k + 1, skew);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < count; k++) {
+            cdf[k] /= sum;
+        }
+        cdf[count - 1] = 1.0;
+        return cdf;
+    }
+
+    // Index of the first cdf entry above a uniform draw, O(log n)
+    private static int sample(Random random, double[] cdf) {
+        int at = Arrays.binarySearch(cdf, random.nextDouble());
+        return at >= 0 ? at + 1 : -at - 1;
+    }
 }
@@ -0,0 +1,205 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import graph.Graph.CostPathPair;
+import graph.Graph.Edge;
+import graph.Graph.Vertex;
+
+/**
+ * Dijkstra's shortest path algorithm over an {@link IntAdjacency}, a frozen
+ * {@link CsrGraph} or an {@link IntGraph}. Finds the cheapest path from a start
+ * vertex to one or all other vertices, edge costs must be non-negative.
+ * <p>
+ * An instance owns its scratch arrays (distances, predecessors and an indexed
+ * heap with decrease-key) and reuses them for every query, so the int based
+ * queries do not allocate. An instance is not thread safe, use one per thread.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Dijkstra%27s_algorithm">Dijkstra's
+ *      shortest path (Wikipedia)</a> <br>
+ */
+public class Dijkstra<T extends Comparable<T>> {
+
+	public static final long UNREACHABLE = Long.MAX_VALUE;
+
+	private final IntAdjacency<T> graph;
+	private final IndexedMinHeap heap;
+	private final long[] distance;
+	private final int[] predecessor;
+	private final int[] predecessorSlot;
+	// distance/predecessor of v are only valid when stamp[v] == query
+	private final int[] stamp;
+	private int query = 0;
+	private int settled = 0;
+	private int source = -1;
+
+	/**
+	 * @param graph the graph to search, an IntGraph must not gain vertices
+	 *              afterwards
+	 */
+	public Dijkstra(IntAdjacency<T> graph) {
+		final int n = graph.getVertexCount();
+		this.graph = graph;
+		this.heap = new IndexedMinHeap(n);
+		this.distance = new long[n];
+		this.predecessor = new int[n];
+		this.predecessorSlot = new int[n];
+		this.stamp = new int[n];
+	}
+
+	/**
+	 * Shortest path between two vertices of a graph. Freezes the graph, prefer an
+	 * instance bound to a {@link CsrGraph} for repeated queries.
+	 *
+	 * @return the path or null if end is not reachable from start
+	 */
+	public static <T extends Comparable<T>> CostPathPair<T> getShortestPath(Graph<T> graph, Vertex<T> start,
+			Vertex<T> end) {
+		return new Dijkstra<T>(graph.freeze()).getShortestPath(start, end);
+	}
+
+	/**
+	 * Shortest paths from a vertex to every vertex reachable from it. Freezes the
+	 * graph, prefer an instance bound to a {@link CsrGraph} for repeated queries.
+	 */
+	public static <T extends Comparable<T>> Map<Vertex<T>, CostPathPair<T>> getShortestPaths(Graph<T> graph,
+			Vertex<T> start) {
+		return new Dijkstra<T>(graph.freeze()).getShortestPaths(start);
+	}
+
+	public IntAdjacency<T> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return the cheapest path from start to end or null if there is none
+	 * @throws ArithmeticException if the path costs more than
+	 *             Integer.MAX_VALUE, getDistance() returns the full cost
+	 */
+	public CostPathPair<T> getShortestPath(Vertex<T> start, Vertex<T> end) {
+		final int s = idOf(start);
+		final int t = idOf(end);
+		search(s, t);
+		if (getDistance(t) == UNREACHABLE)
+			return null;
+		return getPath(t);
+	}
+
+	/**
+	 * @return the cheapest path to every vertex reachable from start, including
+	 *         start itself with an empty path
+	 * @throws ArithmeticException if the path costs more than
+	 *             Integer.MAX_VALUE, getDistance() returns the full cost
+	 */
+	public Map<Vertex<T>, CostPathPair<T>> getShortestPaths(Vertex<T> start) {
+		search(idOf(start), -1);
+		final Map<Vertex<T>, CostPathPair<T>> paths = new IdentityHashMap<Vertex<T>, CostPathPair<T>>();
+		for (int v = 0; v < graph.getVertexCount(); v++) {
+			if (getDistance(v) != UNREACHABLE)
+				paths.put(graph.getVertex(v), getPath(v));
+		}
+		return paths;
+	}
+
+	/**
+	 * Allocation free single-pair query. Stops as soon as target is settled.
+	 *
+	 * @return the path cost or {@link #UNREACHABLE}
+	 */
+	public long getDistance(int start, int target) {
+		search(start, target);
+		return getDistance(target);
+	}
+
+	/**
+	 * Settle vertices from start in order of distance, stopping early once target
+	 * is settled. Pass -1 as target to settle everything reachable. Results are
+	 * read through {@link #getDistance(int)} and {@link #getPredecessor(int)}
+	 * until the next search.
+	 */
+	public void search(int start, int target) {
+		if (graph.getVertexCount() > stamp.length)
+			throw new IllegalStateException("The graph gained vertices after the search was created.");
+		if (++query == 0) {
+			// The stamp wrapped around, old stamps could look current again
+			Arrays.fill(stamp, 0);
+			query = 1;
+		}
+		heap.clear();
+		settled = 0;
+		source = start;
+
+		reach(start, 0, -1, -1);
+		heap.insert(start, 0);
+		while (!heap.isEmpty()) {
+			final int u = heap.poll();
+			settled++;
+			if (u == target)
+				break;
+
+			final long du = distance[u];
+			for (int slot = graph.firstEdge(u), end = graph.endEdge(u); slot < end; slot++) {
+				final int cost = graph.getCost(slot);
+				if (cost < 0)
+					throw new IllegalArgumentException("Negative cost edges are not allowed.");
+				final int v = graph.getTarget(slot);
+				final long dv = du + cost;
+				if (stamp[v] != query) {
+					reach(v, dv, u, slot);
+					heap.insert(v, dv);
+				} else if (dv < distance[v] && heap.contains(v)) {
+					reach(v, dv, u, slot);
+					heap.decreaseKey(v, dv);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the distance found by the last search or {@link #UNREACHABLE}. When
+	 *         the search stopped early only settled vertices are final.
+	 */
+	public long getDistance(int v) {
+		return (stamp[v] == query) ? distance[v] : UNREACHABLE;
+	}
+
+	/**
+	 * @return the vertex before v on its shortest path or -1 for the start vertex
+	 *         and unreached vertices
+	 */
+	public int getPredecessor(int v) {
+		return (stamp[v] == query) ? predecessor[v] : -1;
+	}
+
+	/** Number of vertices settled by the last search. */
+	public int getSettledCount() {
+		return settled;
+	}
+
+	private void reach(int v, long d, int from, int slot) {
+		stamp[v] = query;
+		distance[v] = d;
+		predecessor[v] = from;
+		predecessorSlot[v] = slot;
+	}
+
+	private CostPathPair<T> getPath(int target) {
+		final List<Edge<T>> path = new ArrayList<Edge<T>>();
+		for (int v = target; v != source; v = predecessor[v])
+			path.add(graph.getEdge(predecessor[v], predecessorSlot[v]));
+		Collections.reverse(path);
+		return new CostPathPair<T>(Math.toIntExact(distance[target]), path);
+	}
+
+	private int idOf(Vertex<T> vertex) {
+		final int id = graph.getId(vertex);
+		if (id < 0)
+			throw new IllegalArgumentException("Vertex is not part of the graph: " + vertex.getValue());
+		return id;
+	}
+}
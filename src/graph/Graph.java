@@ -1,10 +1,18 @@
 package graph;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
 /**
  * Graph. Could be directed or undirected depending on the TYPE enum. A graph is
@@ -19,20 +27,47 @@ import java.util.List;
 @SuppressWarnings("unchecked")
 public class Graph<T extends Comparable<T>> {
 
-	private List<Vertex<T>> allVertices = new ArrayList<Vertex<T>>();
-	private List<Edge<T>> allEdges = new ArrayList<Edge<T>>();
+	private ArrayList<Vertex<T>> allVertices = new ArrayList<Vertex<T>>();
+	private ArrayList<Edge<T>> allEdges = new ArrayList<Edge<T>>();
 
+	// First vertex registered for each value / value name. Both indexes are kept
+	// in sync by addVertex and removeVertex so lookups never scan allVertices.
+	private Map<T, Vertex<T>> valueIndex = new HashMap<T, Vertex<T>>();
+	private Map<String, Vertex<T>> nameIndex = new HashMap<String, Vertex<T>>();
+	// Later vertices with the value / name of an indexed one, in the order they
+	// were added, so removing the indexed vertex promotes the next in O(1)
+	private Map<T, ArrayDeque<Vertex<T>>> valueShadows = new HashMap<T, ArrayDeque<Vertex<T>>>();
+	private Map<String, ArrayDeque<Vertex<T>>> nameShadows = new HashMap<String, ArrayDeque<Vertex<T>>>();
+
+	// Membership backing the duplicate checks of addVertex and addEdge. Vertices
+	// are tracked by identity, edges by (from, to, cost) mapped to the edge the
+	// graph holds, so removeEdge finds it without a scan.
+	private Set<Vertex<T>> vertexSet = Collections.newSetFromMap(new IdentityHashMap<Vertex<T>, Boolean>());
+	private Map<EdgeKey<T>, Edge<T>> edgeIndex = new HashMap<EdgeKey<T>, Edge<T>>();
+
+	/**
+	 * Find the first vertex added to the graph with the given value in O(1).
+	 *
+	 * @param value the value to look up
+	 * @return the vertex or null if no vertex holds the value
+	 */
 	public Vertex<T> findVertexByValue(T value) {
-		return allVertices.stream().filter(vertex -> vertex.getValue().equals(value)).findFirst().orElse(null);
+		if (value == null)
+			return null;
+		return valueIndex.get(value);
 	}
 
+	/**
+	 * Find the first vertex added to the graph whose value's toString() equals
+	 * the given name in O(1).
+	 *
+	 * @param name the name to look up
+	 * @return the vertex or null if no vertex has the name
+	 */
 	public Vertex<T> findVertexByName(String name) {
-		for (Vertex<T> vertex : this.getVertices()) {
-			if (vertex.getValue().toString().equals(name)) {
-				return vertex;
-			}
-		}
-		return null;
+		if (name == null)
+			return null;
+		return nameIndex.get(name);
 	}
 
 	public enum TYPE {
@@ -40,6 +75,8 @@ public class Graph<T extends Comparable<T>> {
 	}
 
 	private TYPE type = TYPE.UNDIRECTED;
+	// Undirected edges are stored once, see Graph(TYPE, boolean)
+	private boolean implicitReciprocals = false;
 
 	public Graph() {
 	}
@@ -48,15 +85,77 @@ public class Graph<T extends Comparable<T>> {
 		this.type = type;
 	}
 
+	/**
+	 * Create a graph that, if undirected, stores every edge once instead of as
+	 * an edge and its reciprocal. The edge is in the adjacency list of both
+	 * endpoints, so {@link Vertex#getEdges()} holds the edges incident to the
+	 * vertex, which may point at it rather than away from it, use
+	 * {@link Edge#getOtherVertex(Vertex)} to step across them. getEdges() holds
+	 * every edge once, removeEdge() unlinks a single edge and freeze() emits both
+	 * directions. This takes about half the memory of the default storage.
+	 * <p>
+	 * Has no effect on a directed graph.
+	 *
+	 * @param implicitReciprocals store undirected edges once
+	 */
+	public Graph(TYPE type, boolean implicitReciprocals) {
+		this.type = type;
+		this.implicitReciprocals = implicitReciprocals && type == TYPE.UNDIRECTED;
+	}
+
+	/**
+	 * Copy the graph. Vertices and edges are copied, so changes to either graph
+	 * do not show in the other.
+	 */
 	public Graph(Graph<T> g) {
 		type = g.getType();
+		implicitReciprocals = g.implicitReciprocals;
+
+		final Map<Vertex<T>, Vertex<T>> vertexCopies = new HashMap<Vertex<T>, Vertex<T>>();
+		for (Vertex<T> v : g.getVertices()) {
+			final Vertex<T> copy = new Vertex<T>(v.value, v.weight);
+			copy.x = v.x;
+			copy.y = v.y;
+			copy.slot = this.allVertices.size();
+			this.allVertices.add(copy);
+			this.vertexSet.add(copy);
+			if (implicitReciprocals)
+				copy.useIncidentEdges();
+			index(copy);
+			vertexCopies.put(v, copy);
+		}
 
-		for (Vertex<T> v : g.getVertices())
-			this.allVertices.add(new Vertex<T>(v));
+		final Map<Edge<T>, Edge<T>> edgeCopies = new HashMap<Edge<T>, Edge<T>>();
+		for (Edge<T> e : g.getEdges()) {
+			final Vertex<T> from = vertexCopies.get(e.from);
+			final Vertex<T> to = vertexCopies.get(e.to);
+			final Edge<T> copy = new Edge<T>(e.cost, from != null ? from : e.from, to != null ? to : e.to);
+			append(copy);
+			this.edgeIndex.putIfAbsent(new EdgeKey<T>(copy.cost, copy.from, copy.to), copy);
+			edgeCopies.put(e, copy);
+			final Edge<T> reciprocal = e.reciprocal != null ? edgeCopies.get(e.reciprocal) : null;
+			if (reciprocal != null) {
+				copy.reciprocal = reciprocal;
+				reciprocal.reciprocal = copy;
+			}
+		}
 
-		for (Vertex<T> v : this.getVertices()) {
-			for (Edge<T> e : v.getEdges()) {
-				this.allEdges.add(e);
+		// Same adjacency order as the source
+		for (Vertex<T> v : g.getVertices()) {
+			final Vertex<T> copy = vertexCopies.get(v);
+			for (Edge<T> e : v.edges) {
+				final Edge<T> edgeCopy = edgeCopies.get(e);
+				if (edgeCopy == null)
+					continue;
+				if (implicitReciprocals && e.from != v)
+					copy.addIncident(edgeCopy);
+				else
+					copy.addEdge(edgeCopy);
+			}
+			for (Edge<T> e : v.incoming) {
+				final Edge<T> edgeCopy = edgeCopies.get(e);
+				if (edgeCopy != null)
+					copy.addIncoming(edgeCopy);
 			}
 		}
 	}
@@ -66,23 +165,53 @@ public class Graph<T extends Comparable<T>> {
 	}
 
 	public Graph(TYPE type, Collection<Vertex<T>> vertices, Collection<Edge<T>> edges) {
-		this(type);
+		this(type, false, vertices, edges);
+	}
+
+	/**
+	 * @see #Graph(TYPE, boolean)
+	 */
+	public Graph(TYPE type, boolean implicitReciprocals, Collection<Vertex<T>> vertices,
+			Collection<Edge<T>> edges) {
+		this(type, implicitReciprocals);
 		this.allVertices.addAll(vertices);
-		this.allEdges.addAll(edges);
+		for (Edge<T> e : edges)
+			append(e);
+		int slot = 0;
+		for (Vertex<T> v : vertices) {
+			v.slot = slot++;
+			this.vertexSet.add(v);
+			if (this.implicitReciprocals)
+				v.useIncidentEdges();
+			index(v);
+		}
 
 		for (Edge<T> e : edges) {
 			final Vertex<T> from = e.from;
 			final Vertex<T> to = e.to;
+			this.edgeIndex.putIfAbsent(new EdgeKey<T>(e.cost, from, to), e);
 
-			if (!this.allVertices.contains(from) || !this.allVertices.contains(to))
+			if (!containsVertex(from) || !containsVertex(to))
 				continue;
 
+			if (this.implicitReciprocals) {
+				from.addEdge(e);
+				if (to != from)
+					to.addIncident(e);
+				continue;
+			}
+
 			from.addEdge(e);
+			to.addIncoming(e);
 
 			if (this.type == TYPE.UNDIRECTED) {
 				Edge<T> reciprocal = new Edge<T>(e.cost, to, from);
+				e.reciprocal = reciprocal;
+				reciprocal.reciprocal = e;
+				append(reciprocal);
 				to.addEdge(reciprocal);
-				this.allEdges.add(reciprocal);
+				from.addIncoming(reciprocal);
+				this.edgeIndex.putIfAbsent(new EdgeKey<T>(e.cost, to, from), reciprocal);
 			}
 		}
 	}
@@ -91,77 +220,105 @@ public class Graph<T extends Comparable<T>> {
 		return type;
 	}
 
+	/**
+	 * @return true if undirected edges are stored once
+	 * @see #Graph(TYPE, boolean)
+	 */
+	public boolean hasImplicitReciprocals() {
+		return implicitReciprocals;
+	}
+
+	/**
+	 * Vertices of the graph. Use addVertex/removeVertex to change the set so the
+	 * lookup indexes stay in sync. Vertices are in the order they were added
+	 * until one is removed, see {@link #removeVertex(Vertex)}.
+	 */
 	public List<Vertex<T>> getVertices() {
 		return allVertices;
 	}
 
+	/**
+	 * Edges of the graph. An undirected graph holds every edge along with its
+	 * reciprocal, unless it stores them implicitly.
+	 */
 	public List<Edge<T>> getEdges() {
 		return allEdges;
 	}
 
-	public int hashCode() {
-		int code = this.type.hashCode() + this.allVertices.size() + this.allEdges.size();
-
-		for (Vertex<T> v : allVertices)
-			code *= v.hashCode();
-
-		for (Edge<T> e : allEdges)
-			code *= e.hashCode();
-
-		return 31 * code;
+	/**
+	 * Take an immutable compressed sparse row snapshot of the graph for
+	 * read-heavy traversal.
+	 *
+	 * @return the snapshot, which does not reflect later changes
+	 */
+	public CsrGraph<T> freeze() {
+		if (!implicitReciprocals)
+			return new CsrGraph<T>(this);
+
+		// Orient the incident edges, the ones pointing at a vertex are reversed
+		final Vertex<T>[] vertices = allVertices.toArray(Graph.<T>newVertexArray(0));
+		final Edge<T>[][] adjacency = Graph.<T>newAdjacency(vertices.length);
+		for (int i = 0; i < vertices.length; i++) {
+			final Vertex<T> v = vertices[i];
+			final Edge<T>[] out = v.edges.toArray(Graph.<T>newEdgeArray(0));
+			for (int j = 0; j < out.length; j++) {
+				if (out[j].from != v)
+					out[j] = new Edge<T>(out[j].cost, v, out[j].from);
+			}
+			adjacency[i] = out;
+		}
+		return new CsrGraph<T>(type, vertices, adjacency);
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * Compare the vertices and edges of two graphs by value, weight and cost
+	 * rather than by identity. Vertices and edges can contain duplicates and
+	 * appear in different order, both graphs only need to hold the same
+	 * elements. Sorting and comparing run in parallel, the graphs must not change
+	 * meanwhile.
+	 * <p>
+	 * equals() and hashCode() of a graph are identity based, like those of its
+	 * vertices and edges.
+	 *
+	 * @param g the graph to compare with
+	 * @return true if both graphs have the same type, vertices and edges
 	 */
-	public boolean equals(Object g1) {
-		if (!(g1 instanceof Graph))
+	public boolean structurallyEquals(Graph<T> g) {
+		if (g == this)
+			return true;
+		if (g == null || this.type != g.type)
 			return false;
-
-		final Graph<T> g = (Graph<T>) g1;
-		final boolean typeEquals = this.type == g.type;
-
-		if (!typeEquals)
+		if (this.allVertices.size() != g.allVertices.size() || this.allEdges.size() != g.allEdges.size())
 			return false;
 
-		final boolean verticesSizeEquals = this.allVertices.size() == g.allVertices.size();
-
-		if (!verticesSizeEquals)
+		final Vertex<T>[] ov1 = this.allVertices.toArray(Graph.<T>newVertexArray(0));
+		final Vertex<T>[] ov2 = g.allVertices.toArray(Graph.<T>newVertexArray(0));
+		Arrays.parallelSort(ov1);
+		Arrays.parallelSort(ov2);
+		if (!IntStream.range(0, ov1.length).parallel().allMatch(i -> ov1[i].structurallyEquals(ov2[i])))
 			return false;
 
-		final boolean edgesSizeEquals = this.allEdges.size() == g.allEdges.size();
-
-		if (!edgesSizeEquals)
-			return false;
-		// Vertices can contain duplicates and appear in different order but both arrays
-		// should contain the same elements
-		final Object[] ov1 = this.allVertices.toArray();
-		Arrays.sort(ov1);
-		final Object[] ov2 = g.allVertices.toArray();
-		Arrays.sort(ov2);
-
-		for (int i = 0; i < ov1.length; i++) {
-			final Vertex<T> v1 = (Vertex<T>) ov1[i];
-			final Vertex<T> v2 = (Vertex<T>) ov2[i];
-			if (!v1.equals(v2))
-				return false;
-		}
+		final Edge<T>[] oe1 = this.allEdges.toArray(Graph.<T>newEdgeArray(0));
+		final Edge<T>[] oe2 = g.allEdges.toArray(Graph.<T>newEdgeArray(0));
+		Arrays.parallelSort(oe1);
+		Arrays.parallelSort(oe2);
+		return IntStream.range(0, oe1.length).parallel().allMatch(i -> oe1[i].structurallyEquals(oe2[i]));
+	}
 
-		// Edges can contain duplicates and appear in different order but both arrays
-		// should contain the same elements
-		final Object[] oe1 = this.allEdges.toArray();
-		Arrays.sort(oe1);
-		final Object[] oe2 = g.allEdges.toArray();
-		Arrays.sort(oe2);
+	// Generic arrays cannot be created directly
+	@SuppressWarnings("unchecked")
+	static <T extends Comparable<T>> Vertex<T>[] newVertexArray(int length) {
+		return (Vertex<T>[]) new Vertex<?>[length];
+	}
 
-		for (int i = 0; i < oe1.length; i++) {
-			final Edge<T> e1 = (Edge<T>) oe1[i];
-			final Edge<T> e2 = (Edge<T>) oe2[i];
-			if (!e1.equals(e2))
-				return false;
-		}
+	@SuppressWarnings("unchecked")
+	static <T extends Comparable<T>> Edge<T>[] newEdgeArray(int length) {
+		return (Edge<T>[]) new Edge<?>[length];
+	}
 
-		return true;
+	@SuppressWarnings("unchecked")
+	static <T extends Comparable<T>> Edge<T>[][] newAdjacency(int length) {
+		return (Edge<T>[][]) new Edge<?>[length][];
 	}
 
 	/**
@@ -181,9 +338,92 @@ public class Graph<T extends Comparable<T>> {
 	 * @param vertex the vertex to be added to the graph
 	 */
 	public void addVertex(Vertex<T> vertex) {
-		if (vertex != null && !allVertices.contains(vertex)) {
+		if (vertex != null && !containsVertex(vertex)) {
+			vertex.slot = allVertices.size();
 			allVertices.add(vertex);
+			vertexSet.add(vertex);
+			if (implicitReciprocals)
+				vertex.useIncidentEdges();
+			index(vertex);
+		}
+	}
+
+	private boolean containsVertex(Vertex<T> vertex) {
+		return vertexSet.contains(vertex);
+	}
+
+	/**
+	 * Remove a vertex and every edge touching it from the graph, in time linear
+	 * in the number of those edges. If the vertex was the one found by value or
+	 * name, the next vertex added with that value or name takes its place.
+	 * <p>
+	 * Removal moves the last vertex into the freed slot, so the order of
+	 * getVertices() changes.
+	 *
+	 * @param vertex the vertex to be removed from the graph
+	 * @return true if the vertex was part of the graph
+	 */
+	public boolean removeVertex(Vertex<T> vertex) {
+		if (vertex == null || !containsVertex(vertex))
+			return false;
+
+		final int slot = slotOf(allVertices, vertex, vertex.slot);
+		if (slot < 0)
+			return false;
+		final Vertex<T> moved = swapRemove(allVertices, slot);
+		if (moved != null)
+			moved.slot = slot;
+		vertex.slot = -1;
+		vertexSet.remove(vertex);
+
+		for (Edge<T> e : new ArrayList<Edge<T>>(vertex.edges))
+			remove(e);
+		for (Edge<T> e : new ArrayList<Edge<T>>(vertex.incoming))
+			remove(e);
+		vertex.edges.clear();
+		vertex.incoming.clear();
+
+		unindex(vertex);
+		return true;
+	}
+
+	private void index(Vertex<T> vertex) {
+		final T value = vertex.getValue();
+		if (value == null)
+			return;
+		index(valueIndex, valueShadows, value, vertex);
+		index(nameIndex, nameShadows, value.toString(), vertex);
+	}
+
+	private static <K, T extends Comparable<T>> void index(Map<K, Vertex<T>> index,
+			Map<K, ArrayDeque<Vertex<T>>> shadows, K key, Vertex<T> vertex) {
+		if (index.putIfAbsent(key, vertex) != null)
+			shadows.computeIfAbsent(key, k -> new ArrayDeque<Vertex<T>>()).addLast(vertex);
+	}
+
+	private void unindex(Vertex<T> vertex) {
+		final T value = vertex.getValue();
+		if (value == null)
+			return;
+		unindex(valueIndex, valueShadows, value, vertex);
+		unindex(nameIndex, nameShadows, value.toString(), vertex);
+	}
+
+	// The removed vertex shadowed any later duplicates, promote the next one
+	private static <K, T extends Comparable<T>> void unindex(Map<K, Vertex<T>> index,
+			Map<K, ArrayDeque<Vertex<T>>> shadows, K key, Vertex<T> vertex) {
+		final ArrayDeque<Vertex<T>> shadowed = shadows.get(key);
+		if (index.get(key) == vertex) {
+			if (shadowed == null) {
+				index.remove(key);
+				return;
+			}
+			index.put(key, shadowed.pollFirst());
+		} else if (shadowed == null || !shadowed.remove(vertex)) {
+			return;
 		}
+		if (shadowed.isEmpty())
+			shadows.remove(key);
 	}
 
 	/**
@@ -192,43 +432,422 @@ public class Graph<T extends Comparable<T>> {
 	 * @param edge the edge to be added to the graph
 	 */
 	public void addEdge(Edge<T> edge) {
-		if (edge != null && !allEdges.contains(edge)) {
-			allEdges.add(edge);
-			edge.getFromVertex().addEdge(edge);
+		if (edge != null && implicitReciprocals) {
+			// Only the given direction is indexed, check for the other one
+			if (!edgeIndex.containsKey(new EdgeKey<T>(edge.cost, edge.to, edge.from))
+					&& edgeIndex.putIfAbsent(new EdgeKey<T>(edge.cost, edge.from, edge.to), edge) == null)
+				link(edge);
+			return;
+		}
+		if (edge != null && edgeIndex.putIfAbsent(new EdgeKey<T>(edge.cost, edge.from, edge.to), edge) == null) {
+			link(edge);
 			if (type == TYPE.UNDIRECTED) {
 				Edge<T> reciprical = new Edge<T>(edge.getCost(), edge.getToVertex(), edge.getFromVertex());
-				allEdges.add(reciprical);
-				edge.getToVertex().addEdge(reciprical);
+				edge.reciprocal = reciprical;
+				reciprical.reciprocal = edge;
+				edgeIndex.putIfAbsent(new EdgeKey<T>(edge.cost, edge.to, edge.from), reciprical);
+				link(reciprical);
 			}
 		}
 	}
 
 	/**
-	 * Remove an edge from the graph.
+	 * Change the cost of an edge the graph holds, and of its reciprocal in an
+	 * undirected graph. Edges are indexed by cost for the duplicate checks, so
+	 * the cost of an edge in a graph can only be changed here, see
+	 * {@link Edge#setCost(int)}.
+	 *
+	 * @param edge the edge held by the graph
+	 * @param cost the new cost
+	 * @return true if the cost was changed, false if the graph does not hold
+	 *         the edge or already holds one between the same vertices with the
+	 *         new cost
+	 */
+	public boolean setCost(Edge<T> edge, int cost) {
+		if (edge == null)
+			return false;
+		final EdgeKey<T> key = new EdgeKey<T>(edge.cost, edge.from, edge.to);
+		if (edgeIndex.get(key) != edge)
+			return false;
+		if (edge.cost == cost)
+			return true;
+		if (edgeIndex.containsKey(new EdgeKey<T>(cost, edge.from, edge.to))
+				|| (type == TYPE.UNDIRECTED && edgeIndex.containsKey(new EdgeKey<T>(cost, edge.to, edge.from))))
+			return false;
+
+		final Edge<T> reciprocal = edge.reciprocal;
+		edgeIndex.remove(key);
+		if (reciprocal != null)
+			edgeIndex.remove(new EdgeKey<T>(reciprocal.cost, reciprocal.from, reciprocal.to), reciprocal);
+		edge.cost = cost;
+		edgeIndex.put(new EdgeKey<T>(cost, edge.from, edge.to), edge);
+		if (reciprocal != null) {
+			reciprocal.cost = cost;
+			edgeIndex.putIfAbsent(new EdgeKey<T>(cost, reciprocal.from, reciprocal.to), reciprocal);
+		}
+		return true;
+	}
+
+	/**
+	 * Remove an edge, and its reciprocal in an undirected graph, from the graph
+	 * in O(1). The edge the graph holds between the same vertices with the same
+	 * cost is removed, which need not be the given instance.
+	 * <p>
+	 * Removal moves the last edge of each list into the freed slot, so the order
+	 * of getEdges() and of the adjacency lists changes.
 	 *
 	 * @param edge the edge to be removed from the graph
+	 * @return true if the graph held the edge
+	 */
+	public boolean removeEdge(Edge<T> edge) {
+		if (edge == null)
+			return false;
+		Edge<T> stored = edgeIndex.get(new EdgeKey<T>(edge.cost, edge.from, edge.to));
+		if (stored == null && implicitReciprocals)
+			stored = edgeIndex.get(new EdgeKey<T>(edge.cost, edge.to, edge.from));
+		if (stored == null)
+			return false;
+		remove(stored);
+		return true;
+	}
+
+	/**
+	 * Remove a batch of edges, each as with {@link #removeEdge(Edge)}, in time
+	 * linear in the size of the batch.
+	 *
+	 * @param edges the edges to be removed from the graph
+	 * @return the number of edges the graph held, not counting reciprocals
 	 */
+	public int removeEdges(Collection<? extends Edge<T>> edges) {
+		int removed = 0;
+		for (Edge<T> e : edges) {
+			if (removeEdge(e))
+				removed++;
+		}
+		return removed;
+	}
 
-	public void removeEdge(Edge<T> edge) {
-		if (allEdges.contains(edge)) {
-			allEdges.remove(edge);
-			edge.getFromVertex().getEdges().remove(edge);
+	private void append(Edge<T> edge) {
+		edge.allSlot = allEdges.size();
+		allEdges.add(edge);
+	}
 
-			if (type == TYPE.UNDIRECTED) {
-				Vertex<T> toVertex = edge.getToVertex();
-				Edge<T> reciprical = new Edge<>(edge.getCost(), toVertex, edge.getFromVertex());
-				toVertex.getEdges().remove(reciprical);
-				allEdges.remove(reciprical);
+	private void link(Edge<T> edge) {
+		append(edge);
+		edge.from.addEdge(edge);
+		if (!implicitReciprocals)
+			edge.to.addIncoming(edge);
+		else if (edge.to != edge.from)
+			edge.to.addIncident(edge);
+	}
+
+	// Unlinks the edge and its reciprocal, edges no longer in the graph are skipped
+	private void remove(Edge<T> edge) {
+		if (edge.allSlot < 0)
+			return;
+		unlink(edge);
+		final Edge<T> reciprocal = edge.reciprocal;
+		if (reciprocal != null) {
+			edge.reciprocal = null;
+			reciprocal.reciprocal = null;
+			if (reciprocal.allSlot >= 0)
+				unlink(reciprocal);
+		}
+	}
+
+	private void unlink(Edge<T> edge) {
+		edgeIndex.remove(new EdgeKey<T>(edge.cost, edge.from, edge.to), edge);
+
+		int slot = slotOf(allEdges, edge, edge.allSlot);
+		Edge<T> moved = slot >= 0 ? swapRemove(allEdges, slot) : null;
+		if (moved != null)
+			moved.allSlot = slot;
+
+		slot = slotOf(edge.from.edges, edge, edge.outSlot);
+		moved = slot >= 0 ? swapRemove(edge.from.edges, slot) : null;
+		if (moved != null)
+			moved.setSlotIn(edge.from, slot);
+
+		// With implicit reciprocals the edge is in the other endpoint's edges
+		final List<Edge<T>> in = implicitReciprocals ? edge.to.edges : edge.to.incoming;
+		slot = (edge.to != edge.from || !implicitReciprocals) ? slotOf(in, edge, edge.inSlot) : -1;
+		moved = slot >= 0 ? swapRemove(in, slot) : null;
+		if (moved != null) {
+			if (implicitReciprocals)
+				moved.setSlotIn(edge.to, slot);
+			else
+				moved.inSlot = slot;
+		}
+
+		edge.allSlot = edge.outSlot = edge.inSlot = -1;
+	}
+
+	// Position of the vertex or edge in the list, the stored slot unless the
+	// list was changed outside of the graph or the element is in another graph
+	private static <E> int slotOf(List<E> list, E element, int slot) {
+		if (slot >= 0 && slot < list.size() && list.get(slot) == element)
+			return slot;
+		for (int i = 0; i < list.size(); i++) {
+			if (list.get(i) == element)
+				return i;
+		}
+		return -1;
+	}
+
+	// Moves the last element into the slot, returns it or null if the slot was last
+	private static <E> E swapRemove(List<E> list, int slot) {
+		final E last = list.remove(list.size() - 1);
+		if (slot == list.size())
+			return null;
+		list.set(slot, last);
+		return last;
+	}
+
+	/**
+	 * Bulk loader for large graphs. Vertices are numbered in the order they are
+	 * added and edges are given as (from, to, cost) triples of those numbers,
+	 * one at a time or as parallel arrays. {@link #build()} then creates the
+	 * graph in a few passes: duplicates are dropped in one hash pass over the
+	 * primitive triples, every adjacency list is allocated once from the degree
+	 * counts and the edges, with their reciprocals in an undirected graph, are
+	 * linked without per-edge lookups.
+	 * <p>
+	 * The result is the same graph, in the same order, as adding the vertices
+	 * and then the edges one by one with {@link Graph#addVertex(Vertex)} and
+	 * {@link Graph#addEdge(Edge)}.
+	 */
+	public static class Builder<T extends Comparable<T>> {
+		private final TYPE type;
+		private final boolean implicitReciprocals;
+		private final ArrayList<Vertex<T>> vertices;
+		private final Map<Vertex<T>, Integer> numbers;
+		private int[] from;
+		private int[] to;
+		private int[] costs;
+		private int edgeCount = 0;
+
+		public Builder(TYPE type) {
+			this(type, 16, 16);
+		}
+
+		public Builder(TYPE type, int expectedVertices, int expectedEdges) {
+			this(type, false, expectedVertices, expectedEdges);
+		}
+
+		/**
+		 * @see Graph#Graph(TYPE, boolean)
+		 */
+		public Builder(TYPE type, boolean implicitReciprocals, int expectedVertices, int expectedEdges) {
+			this.type = type;
+			this.implicitReciprocals = implicitReciprocals;
+			this.vertices = new ArrayList<Vertex<T>>(expectedVertices);
+			this.numbers = new IdentityHashMap<Vertex<T>, Integer>(expectedVertices);
+			this.from = new int[Math.max(1, expectedEdges)];
+			this.to = new int[from.length];
+			this.costs = new int[from.length];
+		}
+
+		/**
+		 * @return the number edges refer to the vertex by, a vertex added again
+		 *         keeps its first number
+		 */
+		public int addVertex(Vertex<T> vertex) {
+			if (vertex == null)
+				throw new NullPointerException("vertex cannot be NULL.");
+			final Integer number = numbers.putIfAbsent(vertex, vertices.size());
+			if (number != null)
+				return number;
+			vertices.add(vertex);
+			return vertices.size() - 1;
+		}
+
+		public Builder<T> addVertices(Collection<Vertex<T>> vertices) {
+			for (Vertex<T> v : vertices)
+				addVertex(v);
+			return this;
+		}
+
+		public Builder<T> addEdge(int from, int to, int cost) {
+			if (edgeCount == this.from.length) {
+				final int capacity = Math.max(edgeCount + 1, edgeCount + (edgeCount >> 1));
+				this.from = Arrays.copyOf(this.from, capacity);
+				this.to = Arrays.copyOf(this.to, capacity);
+				this.costs = Arrays.copyOf(this.costs, capacity);
+			}
+			this.from[edgeCount] = from;
+			this.to[edgeCount] = to;
+			this.costs[edgeCount] = cost;
+			edgeCount++;
+			return this;
+		}
+
+		public Builder<T> addEdges(int[] from, int[] to, int[] costs) {
+			if (from.length != to.length || from.length != costs.length)
+				throw new IllegalArgumentException("Edge arrays differ in length: " + from.length + ", "
+						+ to.length + ", " + costs.length);
+			final int capacity = edgeCount + from.length;
+			if (capacity > this.from.length) {
+				this.from = Arrays.copyOf(this.from, capacity);
+				this.to = Arrays.copyOf(this.to, capacity);
+				this.costs = Arrays.copyOf(this.costs, capacity);
+			}
+			System.arraycopy(from, 0, this.from, edgeCount, from.length);
+			System.arraycopy(to, 0, this.to, edgeCount, to.length);
+			System.arraycopy(costs, 0, this.costs, edgeCount, costs.length);
+			edgeCount += from.length;
+			return this;
+		}
+
+		public Graph<T> build() {
+			final Graph<T> graph = new Graph<T>(type, implicitReciprocals);
+			graph.allVertices.ensureCapacity(vertices.size());
+			for (Vertex<T> v : vertices)
+				graph.addVertex(v);
+			graph.load(vertices, from, to, costs, edgeCount);
+			return graph;
+		}
+	}
+
+	// Bulk part of Builder.build(), the graph has its vertices and no edges yet
+	private void load(List<Vertex<T>> ids, int[] from, int[] to, int[] costs, int count) {
+		final int n = ids.size();
+		final boolean undirected = (type == TYPE.UNDIRECTED);
+		final boolean reciprocals = undirected && !implicitReciprocals;
+		for (int i = 0; i < count; i++) {
+			if (from[i] < 0 || from[i] >= n || to[i] < 0 || to[i] >= n)
+				throw new IndexOutOfBoundsException("Edge " + i + " (" + from[i] + " -> " + to[i]
+						+ ") refers to a vertex outside 0.." + (n - 1));
+		}
+
+		// Duplicates of an earlier triple, and for undirected graphs of its
+		// reverse, are dropped like addEdge does. Open addressing on the triple
+		// indexes, no boxing.
+		final boolean[] kept = new boolean[count];
+		int keptCount = 0;
+		final int[] table = new int[Integer.highestOneBit(Math.max(2, count * 2 - 1)) << 1];
+		final int mask = table.length - 1;
+		for (int i = 0; i < count; i++) {
+			final int u = undirected ? Math.min(from[i], to[i]) : from[i];
+			final int v = undirected ? Math.max(from[i], to[i]) : to[i];
+			int slot = mix(u, v, costs[i]) & mask;
+			while (true) {
+				final int j = table[slot] - 1;
+				if (j < 0) {
+					table[slot] = i + 1;
+					kept[i] = true;
+					keptCount++;
+					break;
+				}
+				final int ju = undirected ? Math.min(from[j], to[j]) : from[j];
+				final int jv = undirected ? Math.max(from[j], to[j]) : to[j];
+				if (ju == u && jv == v && costs[j] == costs[i])
+					break;
+				slot = (slot + 1) & mask;
+			}
+		}
+
+		// Exact sizes for every list
+		final int[] outDegree = new int[n];
+		final int[] inDegree = new int[n];
+		for (int i = 0; i < count; i++) {
+			if (!kept[i])
+				continue;
+			outDegree[from[i]]++;
+			if (implicitReciprocals) {
+				if (to[i] != from[i])
+					outDegree[to[i]]++;
+				continue;
+			}
+			inDegree[to[i]]++;
+			if (undirected) {
+				outDegree[to[i]]++;
+				inDegree[from[i]]++;
+			}
+		}
+		for (int i = 0; i < n; i++) {
+			final Vertex<T> v = ids.get(i);
+			v.edges.ensureCapacity(v.edges.size() + outDegree[i]);
+			v.incoming.ensureCapacity(v.incoming.size() + inDegree[i]);
+		}
+		final int edges = reciprocals ? 2 * keptCount : keptCount;
+		allEdges.ensureCapacity(edges);
+		edgeIndex = new HashMap<EdgeKey<T>, Edge<T>>(Math.max(16, (int) (edges / 0.75f) + 1));
+
+		for (int i = 0; i < count; i++) {
+			if (!kept[i])
+				continue;
+			final Vertex<T> u = ids.get(from[i]);
+			final Vertex<T> v = ids.get(to[i]);
+			final Edge<T> edge = new Edge<T>(costs[i], u, v);
+			edgeIndex.put(new EdgeKey<T>(costs[i], u, v), edge);
+			link(edge);
+			if (reciprocals) {
+				final Edge<T> reciprocal = new Edge<T>(costs[i], v, u);
+				edge.reciprocal = reciprocal;
+				reciprocal.reciprocal = edge;
+				edgeIndex.putIfAbsent(new EdgeKey<T>(costs[i], v, u), reciprocal);
+				link(reciprocal);
 			}
 		}
 	}
 
+	private static int mix(int u, int v, int cost) {
+		int h = u * 0x9E3779B9 + v;
+		h = h * 0x9E3779B9 + cost;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Key used for edge membership. Two edges collide when they connect the same
+	 * vertices with the same cost, even if they are distinct Edge objects.
+	 */
+	static final class EdgeKey<T extends Comparable<T>> {
+		private final int cost;
+		private final Vertex<T> from;
+		private final Vertex<T> to;
+
+		EdgeKey(int cost, Vertex<T> from, Vertex<T> to) {
+			this.cost = cost;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public int hashCode() {
+			int code = from.hashCode();
+			code = 31 * code + to.hashCode();
+			return 31 * code + cost;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof EdgeKey))
+				return false;
+			final EdgeKey<?> k = (EdgeKey<?>) o;
+			return cost == k.cost && from == k.from && to == k.to;
+		}
+	}
+
+	/**
+	 * Vertex of a graph. Every vertex gets a unique id when it is created, which
+	 * equals() and hashCode() are based on, so a vertex can be used as a key in
+	 * hash based collections while its edges change. Use structurallyEquals() to
+	 * compare vertices by value, weight and edge costs.
+	 */
 	public static class Vertex<T extends Comparable<T>> implements Comparable<Vertex<T>> {
+		private static final AtomicLong NEXT_ID = new AtomicLong();
+
+		private final long id = NEXT_ID.getAndIncrement();
 		private T value = null;
 		private int weight = 0;
-		private List<Edge<T>> edges = new ArrayList<Edge<T>>();
+		private ArrayList<Edge<T>> edges = new ArrayList<Edge<T>>();
+		// Edges pointing at this vertex, kept by the graph's addEdge/removeEdge
+		private final ArrayList<Edge<T>> incoming = new ArrayList<Edge<T>>();
+		private List<Edge<T>> incomingView = Collections.unmodifiableList(incoming);
 		private double x = 0.0;
 		private double y = 0.0;
+		// Position in the graph's vertex list
+		private int slot = -1;
 
 		public Vertex(T value, int i, int j) {
 			this.value = value;
@@ -238,15 +857,20 @@ public class Graph<T extends Comparable<T>> {
 
 		// Constructor
 		public Vertex(T value, int weight) {
-			this(value, weight, weight);
+			this(value, 0, 0);
 			this.weight = weight;
 		}
 
-		/** Deep copies the edges along with the value and weight **/
+		/** Deep copies the edges along with the value and weight, the copy gets a new id **/
 		public Vertex(Vertex<T> vertex) {
 			this(vertex.value, vertex.weight);
 
 			this.edges.addAll(vertex.edges);
+			this.incoming.addAll(vertex.incoming);
+		}
+
+		public long getId() {
+			return id;
 		}
 
 		public T getValue() {
@@ -262,16 +886,38 @@ public class Graph<T extends Comparable<T>> {
 		}
 
 		public void addEdge(Edge<T> e) {
+			e.outSlot = edges.size();
+			edges.add(e);
+		}
+
+		private void addIncoming(Edge<T> e) {
+			e.inSlot = incoming.size();
+			incoming.add(e);
+		}
+
+		// Edge of a graph with implicit reciprocals that points at this vertex
+		private void addIncident(Edge<T> e) {
+			e.inSlot = edges.size();
 			edges.add(e);
 		}
 
+		// In a graph with implicit reciprocals every incident edge is incoming
+		private void useIncidentEdges() {
+			incomingView = Collections.unmodifiableList(edges);
+		}
+
+		/**
+		 * Edges of the vertex as kept by the {@link Graph} it was added to.
+		 * {@link IntGraph} and {@link ConcurrentGraph} keep their edges apart
+		 * and do not change this list, ask them for a vertex's edges instead.
+		 */
 		public List<Edge<T>> getEdges() {
 			return edges;
 		}
 
 		public Edge<T> getEdge(Vertex<T> v) {
 			for (Edge<T> e : edges) {
-				if (e.to.equals(v))
+				if (e.getOtherVertex(this).equals(v))
 					return e;
 			}
 			return null;
@@ -279,7 +925,7 @@ public class Graph<T extends Comparable<T>> {
 
 		public boolean pathTo(Vertex<T> v) {
 			for (Edge<T> e : edges) {
-				if (e.to.equals(v))
+				if (e.getOtherVertex(this).equals(v))
 					return true;
 			}
 			return false;
@@ -290,8 +936,7 @@ public class Graph<T extends Comparable<T>> {
 		 */
 		@Override
 		public int hashCode() {
-			final int code = this.value.hashCode() + this.weight + this.edges.size();
-			return 31 * code;
+			return Long.hashCode(id);
 		}
 
 		/**
@@ -302,7 +947,18 @@ public class Graph<T extends Comparable<T>> {
 			if (!(v1 instanceof Vertex))
 				return false;
 
-			final Vertex<T> v = (Vertex<T>) v1;
+			return this.id == ((Vertex<?>) v1).id;
+		}
+
+		/**
+		 * Compare value, weight and the costs of the edges in order.
+		 *
+		 * @param v the vertex to compare with
+		 * @return true if both vertices hold the same data
+		 */
+		public boolean structurallyEquals(Vertex<T> v) {
+			if (v == null)
+				return false;
 
 			final boolean weightEquals = this.weight == v.weight;
 			if (!weightEquals)
@@ -375,33 +1031,45 @@ public class Graph<T extends Comparable<T>> {
 			return builder.toString();
 		}
 
+		/**
+		 * Edges of the graph that point at this vertex, in the order they were
+		 * added. In an undirected graph these are the reciprocals of the outgoing
+		 * edges, or with implicit reciprocals the same edges as getEdges(). Only
+		 * edges added through the graph are tracked.
+		 *
+		 * @return read only view of the incoming edges
+		 */
 		public List<Edge<T>> getIncomingEdges() {
-			List<Edge<T>> incomingEdges = new ArrayList<>();
-			for (Edge<T> e : this.edges) {
-				if (e.getToVertex().equals(this)) {
-					incomingEdges.add(e);
-				}
-			}
-			return incomingEdges;
+			return incomingView;
 		}
 
 		public double getX() {
-			// TODO Auto-generated method stub
-			return 0;
+			return x;
 		}
 
 		public double getY() {
-			// TODO Auto-generated method stub
-			return 0;
+			return y;
 		}
 
 	}
 
+	/**
+	 * Edge of a graph. Like vertices, edges are identified by a unique id given
+	 * at creation, use structurallyEquals() to compare cost and endpoints.
+	 */
 	public static class Edge<T extends Comparable<T>> implements Comparable<Edge<T>> {
+		private static final AtomicLong NEXT_ID = new AtomicLong();
 
+		private final long id = NEXT_ID.getAndIncrement();
 		private Vertex<T> from = null;
 		private Vertex<T> to = null;
 		private int cost = 0;
+		// Positions in the graph's edge list and the endpoints' adjacency lists
+		private int allSlot = -1;
+		private int outSlot = -1;
+		private int inSlot = -1;
+		// The other direction of an undirected edge
+		private Edge<T> reciprocal = null;
 
 		public Edge(int cost, Vertex<T> from, Vertex<T> to) {
 			if (from == null || to == null)
@@ -416,11 +1084,24 @@ public class Graph<T extends Comparable<T>> {
 			this(e.cost, e.from, e.to);
 		}
 
+		public long getId() {
+			return id;
+		}
+
 		public int getCost() {
 			return cost;
 		}
 
+		/**
+		 * Change the cost of an edge that is not part of a graph.
+		 *
+		 * @param cost the new cost
+		 * @throws IllegalStateException if a graph holds the edge, use
+		 *             {@link Graph#setCost(Edge, int)} so it stays findable
+		 */
 		public void setCost(int cost) {
+			if (allSlot >= 0)
+				throw new IllegalStateException("Edge is part of a graph, use Graph.setCost(Edge, int)");
 			this.cost = cost;
 		}
 
@@ -432,13 +1113,33 @@ public class Graph<T extends Comparable<T>> {
 			return to;
 		}
 
+		/**
+		 * Step across the edge. Works for the edges of a vertex in any graph,
+		 * including the incident edges of a graph with implicit reciprocals.
+		 *
+		 * @param vertex the endpoint the edge is left from
+		 * @return the from vertex if the edge points at the given one, else the to
+		 *         vertex
+		 */
+		public Vertex<T> getOtherVertex(Vertex<T> vertex) {
+			return (to == vertex) ? from : to;
+		}
+
+		// Records the position in the adjacency list of the vertex, where an
+		// edge pointing at it sits with implicit reciprocals
+		private void setSlotIn(Vertex<T> vertex, int slot) {
+			if (from == vertex)
+				outSlot = slot;
+			else
+				inSlot = slot;
+		}
+
 		/**
 		 * {@inheritDoc}
 		 */
 		@Override
 		public int hashCode() {
-			final int cost = (this.cost * (this.getFromVertex().hashCode() * this.getToVertex().hashCode()));
-			return 31 * cost;
+			return Long.hashCode(id);
 		}
 
 		/**
@@ -449,17 +1150,29 @@ public class Graph<T extends Comparable<T>> {
 			if (!(e1 instanceof Edge))
 				return false;
 
-			final Edge<T> e = (Edge<T>) e1;
+			return this.id == ((Edge<?>) e1).id;
+		}
+
+		/**
+		 * Compare the cost and both endpoints with
+		 * {@link Vertex#structurallyEquals(Vertex)}.
+		 *
+		 * @param e the edge to compare with
+		 * @return true if both edges hold the same data
+		 */
+		public boolean structurallyEquals(Edge<T> e) {
+			if (e == null)
+				return false;
 
 			final boolean costs = this.cost == e.cost;
 			if (!costs)
 				return false;
 
-			final boolean from = this.from.equals(e.from);
+			final boolean from = this.from.structurallyEquals(e.from);
 			if (!from)
 				return false;
 
-			final boolean to = this.to.equals(e.to);
+			final boolean to = this.to.structurallyEquals(e.to);
 			if (!to)
 				return false;
 
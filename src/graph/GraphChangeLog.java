@@ -0,0 +1,495 @@
+package graph;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Keeps a {@link CreateGraph} durable as an append-only log of changes on top
+ * of a {@link GraphSnapshot}. Every change is validated against the graph,
+ * appended to the log and then applied, so an update costs O(1) instead of a
+ * reload of the whole data file. Nodes are built before their record is
+ * appended, applying a logged change only links them into the graph's lists
+ * and maps and can not fail, so the log never holds a change the graph lacks.
+ * Startup loads the snapshot and replays the log, {@link #compact()} folds
+ * the log into a new snapshot.
+ * <p>
+ * Log layout: a header of magic "JGL1", version, and length and CRC-32 of the
+ * snapshot the log applies to, followed by records of payload length, payload
+ * CRC-32 and payload. Strings in a payload are their UTF-8 byte length
+ * followed by the bytes. A record cut short by a crash or failing its checksum ends
+ * the log, it is dropped on recovery. A log whose header names another snapshot
+ * is stale, a compaction replaced the snapshot but did not get to reset the
+ * log, and its changes are already part of the snapshot.
+ * <p>
+ * Records reach the file on every change, {@link #sync()} forces them to disk.
+ * A failed compaction leaves the instance usable, appending to the log that
+ * belongs to whichever snapshot is in place.
+ * Instances are not thread safe.
+ */
+public final class GraphChangeLog implements Closeable {
+    public static final int VERSION = 3;
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 64L << 20;
+    private static final byte[] MAGIC = {'J', 'G', 'L', '1'};
+    private static final int HEADER_SIZE = MAGIC.length + 4 + 8 + 4;
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private static final byte ADD_JOB_SEEKER = 1;
+    private static final byte ADD_JOB = 2;
+    private static final byte ADD_APPLICATION = 3;
+    private static final byte UPDATE_STATUS = 4;
+    private static final byte REMOVE_APPLICATION = 5;
+
+    private final Path snapshot;
+    private final Path log;
+    private final CreateGraph graph;
+    private final long compactionThreshold;
+    private FileChannel channel;
+    private int replayedRecords;
+    private long droppedBytes;
+    // Runs between the two moves of a compaction, lets tests fail it there
+    Runnable afterSnapshotMove;
+
+    private GraphChangeLog(Path snapshot, Path log, CreateGraph graph, long compactionThreshold) {
+        this.snapshot = snapshot;
+        this.log = log;
+        this.graph = graph;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public static GraphChangeLog open(Path snapshot, Path log) throws IOException {
+        return open(snapshot, log, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Load the snapshot, if there is one, and replay the log on top of it.
+     *
+     * @param compactionThreshold log size in bytes above which a change also
+     *                            compacts the log, 0 to only compact on request
+     */
+    public static GraphChangeLog open(Path snapshot, Path log, long compactionThreshold) throws IOException {
+        CreateGraph graph = new CreateGraph();
+        long snapshotLength = 0;
+        int snapshotCrc = 0;
+        if (Files.exists(snapshot)) {
+            CRC32 crc = new CRC32();
+            try (InputStream in = new CheckedInputStream(Files.newInputStream(snapshot), crc)) {
+                GraphSnapshot.read(in, Files.size(snapshot), graph);
+                byte[] rest = new byte[4096];
+                while (in.read(rest) >= 0) {
+                    // The checksum covers the whole file
+                }
+            }
+            snapshotLength = Files.size(snapshot);
+            snapshotCrc = (int) crc.getValue();
+        }
+
+        GraphChangeLog changeLog = new GraphChangeLog(snapshot, log, graph, compactionThreshold);
+        changeLog.channel = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            changeLog.recover(snapshotLength, snapshotCrc);
+        } catch (IOException | RuntimeException e) {
+            changeLog.channel.close();
+            throw e;
+        }
+        return changeLog;
+    }
+
+    public CreateGraph getGraph() {
+        return graph;
+    }
+
+    /** Number of changes replayed from the log on open. */
+    public int getReplayedCount() {
+        return replayedRecords;
+    }
+
+    /** Bytes of torn or corrupt records cut off the end of the log on open. */
+    public long getDroppedBytes() {
+        return droppedBytes;
+    }
+
+    public void addJobSeeker(String name, List<String> skills, int experienceYears) throws IOException {
+        addJobSeeker(name, skills, experienceYears, null);
+    }
+
+    /**
+     * @param preferredLocation location the seeker would like to work in, or
+     *                          null for no preference
+     */
+    public void addJobSeeker(String name, List<String> skills, int experienceYears, String preferredLocation)
+            throws IOException {
+        Record record = new Record(ADD_JOB_SEEKER);
+        record.writeString(name);
+        record.out.writeInt(skills.size());
+        for (String skill : skills) {
+            record.writeString(skill);
+        }
+        record.out.writeInt(experienceYears);
+        record.out.writeBoolean(preferredLocation != null);
+        if (preferredLocation != null) {
+            record.writeString(preferredLocation);
+        }
+        JobSeekerNode jobSeeker = newJobSeeker(name, skills, experienceYears, preferredLocation);
+        append(record);
+        graph.addJobSeeker(jobSeeker);
+        compactIfNeeded();
+    }
+
+    public void addJob(String title, String company, String location, String description) throws IOException {
+        Record record = new Record(ADD_JOB);
+        record.writeString(title);
+        record.writeString(company);
+        record.writeString(location);
+        record.writeString(description);
+        JobNode job = new JobNode(title, company, location, description);
+        append(record);
+        graph.addJob(job);
+        compactIfNeeded();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the seeker or the job is unknown
+     */
+    public void addApplication(String jobSeekerName, String jobTitle, String company, String status)
+            throws IOException {
+        JobSeekerNode jobSeeker = graph.findJobSeekerByName(jobSeekerName);
+        JobNode job = graph.findJobByName(jobTitle);
+        if (jobSeeker == null || job == null) {
+            throw new IllegalArgumentException("Unknown job seeker or job: " + jobSeekerName + ", " + jobTitle);
+        }
+        Record record = new Record(ADD_APPLICATION);
+        record.writeString(jobSeekerName);
+        record.writeString(jobTitle);
+        record.writeString(company);
+        record.writeString(status);
+        JobApplicationNode application = new JobApplicationNode(jobSeeker, job, company, status);
+        append(record);
+        graph.addApplication(application);
+        compactIfNeeded();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the seeker has not applied for the job
+     */
+    public void updateStatus(String jobSeekerName, String jobTitle, String status) throws IOException {
+        JobApplicationNode application = requireApplication(jobSeekerName, jobTitle);
+        Record record = new Record(UPDATE_STATUS);
+        record.writeString(jobSeekerName);
+        record.writeString(jobTitle);
+        record.writeString(status);
+        append(record);
+        application.setStatus(status);
+        compactIfNeeded();
+    }
+
+    /**
+     * Remove the application edge between the seeker and the job, see
+     * {@link CreateGraph#removeApplication(String, String)}.
+     *
+     * @throws IllegalArgumentException if the seeker has not applied for the job
+     */
+    public void removeApplication(String jobSeekerName, String jobTitle) throws IOException {
+        requireApplication(jobSeekerName, jobTitle);
+        Record record = new Record(REMOVE_APPLICATION);
+        record.writeString(jobSeekerName);
+        record.writeString(jobTitle);
+        append(record);
+        graph.removeApplication(jobSeekerName, jobTitle);
+        compactIfNeeded();
+    }
+
+    /** Force the appended changes to the storage device. */
+    public void sync() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * Write the graph to a new snapshot and start an empty log on top of it.
+     * Both files are written aside and moved in place, a crash at any point
+     * leaves a snapshot and log that recover to the same graph.
+     */
+    public void compact() throws IOException {
+        Path snapshotTemp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        Path logTemp = log.resolveSibling(log.getFileName() + ".tmp");
+
+        CRC32 crc = new CRC32();
+        try (FileChannel out = FileChannel.open(snapshotTemp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream stream = new CheckedOutputStream(Channels.newOutputStream(out), crc);
+            GraphSnapshot.write(graph, stream);
+            stream.flush();
+            out.force(true);
+        }
+        long snapshotLength = Files.size(snapshotTemp);
+        try (FileChannel out = FileChannel.open(logTemp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(out, header(snapshotLength, (int) crc.getValue()), 0);
+            out.force(true);
+        }
+
+        channel.close();
+        boolean snapshotMoved = false;
+        try {
+            // The snapshot rename has to be durable before the new log can name it
+            Files.move(snapshotTemp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            snapshotMoved = true;
+            syncDirectory(snapshot);
+            if (afterSnapshotMove != null) {
+                afterSnapshotMove.run();
+            }
+            Files.move(logTemp, log, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory(log);
+        } catch (IOException | RuntimeException e) {
+            try {
+                reopenAfterFailedCompaction(snapshotMoved, snapshotLength, (int) crc.getValue());
+            } catch (IOException reopenFailure) {
+                e.addSuppressed(reopenFailure);
+            }
+            throw e;
+        }
+        channel = FileChannel.open(log, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void recover(long snapshotLength, int snapshotCrc) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (size < HEADER_SIZE || readFully(header, 0) < HEADER_SIZE || !isHeaderOf(header, snapshotLength,
+                snapshotCrc)) {
+            // New log, a stale one a compaction left behind or a header torn on creation
+            resetLog(snapshotLength, snapshotCrc);
+            return;
+        }
+
+        long position = HEADER_SIZE;
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        while (position + RECORD_HEADER_SIZE <= size) {
+            recordHeader.clear();
+            readFully(recordHeader, position);
+            int length = recordHeader.getInt(0);
+            int checksum = recordHeader.getInt(4);
+            if (length <= 0 || position + RECORD_HEADER_SIZE + length > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(payload, position + RECORD_HEADER_SIZE);
+            crc.reset();
+            crc.update(payload.array(), 0, length);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            replay(payload.array());
+            replayedRecords++;
+            position += RECORD_HEADER_SIZE + length;
+        }
+        droppedBytes = size - position;
+        if (droppedBytes > 0) {
+            channel.truncate(position);
+        }
+        channel.position(position);
+    }
+
+    private void resetLog(long snapshotLength, int snapshotCrc) throws IOException {
+        channel.truncate(0);
+        writeFully(channel, header(snapshotLength, snapshotCrc), 0);
+        channel.force(true);
+        channel.position(HEADER_SIZE);
+    }
+
+    // The log on disk has to belong to the snapshot on disk. Once the new
+    // snapshot is in place the old log is stale and starts over on top of it.
+    private void reopenAfterFailedCompaction(boolean snapshotMoved, long snapshotLength, int snapshotCrc)
+            throws IOException {
+        channel = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (snapshotMoved) {
+            resetLog(snapshotLength, snapshotCrc);
+        } else {
+            channel.position(channel.size());
+        }
+    }
+
+    // Makes a rename in the directory of the file durable. Platforms that can
+    // not open a directory leave that to the file system.
+    private static void syncDirectory(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (FileChannel opened = channel) {
+            opened.force(true);
+        }
+    }
+
+    private void replay(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte op = in.readByte();
+        switch (op) {
+            case ADD_JOB_SEEKER: {
+                String name = readString(in);
+                int count = in.readInt();
+                List<String> skills = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    skills.add(readString(in));
+                }
+                int experienceYears = in.readInt();
+                String preferredLocation = in.readBoolean() ? readString(in) : null;
+                graph.addJobSeeker(newJobSeeker(name, skills, experienceYears, preferredLocation));
+                break;
+            }
+            case ADD_JOB:
+                graph.addJob(new JobNode(readString(in), readString(in), readString(in), readString(in)));
+                break;
+            case ADD_APPLICATION: {
+                JobSeekerNode jobSeeker = graph.findJobSeekerByName(readString(in));
+                JobNode job = graph.findJobByName(readString(in));
+                if (jobSeeker == null || job == null) {
+                    throw new IOException("Corrupt change log, application of an unknown job seeker or job");
+                }
+                graph.addApplication(new JobApplicationNode(jobSeeker, job, readString(in), readString(in)));
+                break;
+            }
+            case UPDATE_STATUS: {
+                JobApplicationNode application = graph.findApplication(readString(in), readString(in));
+                if (application == null) {
+                    throw new IOException("Corrupt change log, status update of an unknown application");
+                }
+                application.setStatus(readString(in));
+                break;
+            }
+            case REMOVE_APPLICATION:
+                if (!graph.removeApplication(readString(in), readString(in))) {
+                    throw new IOException("Corrupt change log, removal of an unknown application");
+                }
+                break;
+            default:
+                throw new IOException("Unsupported change log record " + op);
+        }
+    }
+
+    private static JobSeekerNode newJobSeeker(String name, List<String> skills, int experienceYears,
+            String preferredLocation) {
+        JobSeekerNode jobSeeker = new JobSeekerNode(name, skills, experienceYears);
+        jobSeeker.setPreferredLocation(preferredLocation);
+        return jobSeeker;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available()) {
+            throw new IOException("Corrupt change log, string of " + length + " bytes");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private JobApplicationNode requireApplication(String jobSeekerName, String jobTitle) {
+        JobApplicationNode application = graph.findApplication(jobSeekerName, jobTitle);
+        if (application == null) {
+            throw new IllegalArgumentException("No application of " + jobSeekerName + " for " + jobTitle);
+        }
+        return application;
+    }
+
+    private void append(Record record) throws IOException {
+        byte[] payload = record.bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+        buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void compactIfNeeded() throws IOException {
+        if (compactionThreshold > 0 && channel.size() > compactionThreshold) {
+            compact();
+        }
+    }
+
+    private static ByteBuffer header(long snapshotLength, int snapshotCrc) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.put(MAGIC).putInt(VERSION).putLong(snapshotLength).putInt(snapshotCrc).flip();
+        return header;
+    }
+
+    private static boolean isHeaderOf(ByteBuffer header, long snapshotLength, int snapshotCrc) throws IOException {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (header.get(i) != MAGIC[i]) {
+                throw new IOException("Not a graph change log");
+            }
+        }
+        int version = header.getInt(MAGIC.length);
+        if (version != VERSION) {
+            throw new IOException("Unsupported change log version " + version);
+        }
+        return header.getLong(MAGIC.length + 4) == snapshotLength && header.getInt(MAGIC.length + 12) == snapshotCrc;
+    }
+
+    private int readFully(ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Payload of one change, the operation byte followed by its fields.
+     */
+    private static final class Record {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        private Record(byte op) throws IOException {
+            out.writeByte(op);
+        }
+
+        // Length prefixed UTF-8, unlike writeUTF not limited to 64KB
+        private void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+}
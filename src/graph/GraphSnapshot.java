@@ -0,0 +1,521 @@
+package graph;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary snapshot of a {@link CreateGraph}, much faster to load than the text
+ * format since nothing has to be tokenized or looked up by name. Layout, every
+ * number is an unsigned LEB128 varint unless noted:
+ *
+ * <pre>
+ * magic "JGS1" (4 bytes), version
+ * skills:       count, count x string           (snapshot local skill ids)
+ * skill lists:  count, count x (skill count, skill ids)
+ * strings:      count, count x string           (every other text, deduplicated)
+ * job seekers:  count, count x (name, experience (zigzag), preferred location, skill list)
+ * jobs:         count, count x (title, company, location, description)
+ * applications: count, count x (seeker delta (zigzag), job delta (zigzag), company, status)
+ * skill edges:  count, count x (seeker delta (zigzag), job delta (zigzag), skill list)
+ * </pre>
+ *
+ * A string is its UTF-8 byte length followed by the bytes, texts of nodes are
+ * their index into the string table plus one, 0 stands for null. Applications
+ * and skill edges refer to seekers and jobs by their position in the graph
+ * lists, stored as the difference to the previous record because files list
+ * them in roughly that order.
+ * <p>
+ * Every count read is checked against the bytes left in the snapshot, a
+ * corrupt count fails with an IOException instead of a huge allocation. When
+ * the length of the stream is not known the tables grow as their entries
+ * arrive.
+ * <p>
+ * Nodes and edges with the same skills in the same order share one
+ * unmodifiable skill list and {@link SkillVector} after loading, which keeps the
+ * number of objects a large graph loads down. Use the setters to change them.
+ */
+public final class GraphSnapshot {
+    public static final int VERSION = 1;
+    private static final byte[] MAGIC = {'J', 'G', 'S', '1'};
+    private static final int BUFFER_SIZE = 1 << 16;
+    // Tables of a stream of unknown length start at most this large
+    private static final int UNVERIFIED_CAPACITY = 1 << 12;
+    // Fewest bytes an entry of each section takes
+    private static final int MIN_STRING_BYTES = 1;
+    private static final int MIN_SKILL_LIST_BYTES = 1;
+    private static final int MIN_SKILL_ID_BYTES = 1;
+    private static final int MIN_JOB_SEEKER_BYTES = 4;
+    private static final int MIN_JOB_BYTES = 4;
+    private static final int MIN_APPLICATION_BYTES = 4;
+    private static final int MIN_SKILL_EDGE_BYTES = 3;
+
+    private GraphSnapshot() {
+    }
+
+    public static void save(CreateGraph graph, Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            write(graph, out);
+        }
+    }
+
+    public static CreateGraph load(Path file) throws IOException {
+        CreateGraph graph = new CreateGraph();
+        try (InputStream in = Files.newInputStream(file)) {
+            read(in, Files.size(file), graph);
+        }
+        return graph;
+    }
+
+    public static void write(CreateGraph graph, OutputStream out) throws IOException {
+        Output output = new Output(out);
+        output.writeBytes(MAGIC);
+        output.writeVarint(VERSION);
+
+        List<JobSeekerNode> jobSeekers = graph.getJobSeekers();
+        List<JobNode> jobs = graph.getJobs();
+        List<JobApplicationNode> applications = graph.getApplications();
+        List<JobSkillEdge> skillEdges = graph.getSkillEdges();
+
+        Table<String> skills = new Table<>();
+        Table<SkillList> skillLists = new Table<>();
+        Table<String> strings = new Table<>();
+        int[] jobSeekerSkills = new int[jobSeekers.size()];
+        for (int i = 0; i < jobSeekerSkills.length; i++) {
+            JobSeekerNode jobSeeker = jobSeekers.get(i);
+            strings.add(jobSeeker.getName());
+            strings.add(jobSeeker.getPreferredLocation());
+            jobSeekerSkills[i] = skillLists.addAndGet(SkillList.of(jobSeeker.getSkills(), skills));
+        }
+        for (JobNode job : jobs) {
+            strings.add(job.getTitle());
+            strings.add(job.getCompany());
+            strings.add(job.getLocation());
+            strings.add(job.getDescription());
+        }
+        for (JobApplicationNode application : applications) {
+            strings.add(application.getApplicationCompany());
+            strings.add(application.getStatus());
+        }
+        int[] skillEdgeSkills = new int[skillEdges.size()];
+        for (int i = 0; i < skillEdgeSkills.length; i++) {
+            skillEdgeSkills[i] = skillLists.addAndGet(SkillList.of(skillEdges.get(i).getRequiredSkills(), skills));
+        }
+        output.writeVarint(skills.size());
+        for (String skill : skills.values) {
+            output.writeString(skill);
+        }
+        output.writeVarint(skillLists.size());
+        for (SkillList skillList : skillLists.values) {
+            output.writeVarint(skillList.ids.length);
+            for (int skill : skillList.ids) {
+                output.writeVarint(skill);
+            }
+        }
+        output.writeVarint(strings.size());
+        for (String string : strings.values) {
+            output.writeString(string);
+        }
+
+        output.writeVarint(jobSeekers.size());
+        Map<JobSeekerNode, Integer> jobSeekerIds = new IdentityHashMap<>();
+        for (int i = 0; i < jobSeekerSkills.length; i++) {
+            JobSeekerNode jobSeeker = jobSeekers.get(i);
+            jobSeekerIds.putIfAbsent(jobSeeker, i);
+            output.writeVarint(strings.reference(jobSeeker.getName()));
+            output.writeVarint(zigzag(jobSeeker.getExperienceYears()));
+            output.writeVarint(strings.reference(jobSeeker.getPreferredLocation()));
+            output.writeVarint(jobSeekerSkills[i]);
+        }
+
+        output.writeVarint(jobs.size());
+        Map<JobNode, Integer> jobIds = new IdentityHashMap<>();
+        for (JobNode job : jobs) {
+            jobIds.putIfAbsent(job, jobIds.size());
+            output.writeVarint(strings.reference(job.getTitle()));
+            output.writeVarint(strings.reference(job.getCompany()));
+            output.writeVarint(strings.reference(job.getLocation()));
+            output.writeVarint(strings.reference(job.getDescription()));
+        }
+
+        output.writeVarint(applications.size());
+        int previousSeeker = 0;
+        int previousJob = 0;
+        for (JobApplicationNode application : applications) {
+            int seekerId = idOf(jobSeekerIds, application.getJobSeeker());
+            int jobId = idOf(jobIds, application.getJob());
+            output.writeVarint(zigzag(seekerId - previousSeeker));
+            output.writeVarint(zigzag(jobId - previousJob));
+            output.writeVarint(strings.reference(application.getApplicationCompany()));
+            output.writeVarint(strings.reference(application.getStatus()));
+            previousSeeker = seekerId;
+            previousJob = jobId;
+        }
+
+        output.writeVarint(skillEdges.size());
+        previousSeeker = 0;
+        previousJob = 0;
+        for (int i = 0; i < skillEdgeSkills.length; i++) {
+            JobSkillEdge skillEdge = skillEdges.get(i);
+            int seekerId = idOf(jobSeekerIds, skillEdge.getJobSeeker());
+            int jobId = idOf(jobIds, skillEdge.getJob());
+            output.writeVarint(zigzag(seekerId - previousSeeker));
+            output.writeVarint(zigzag(jobId - previousJob));
+            output.writeVarint(skillEdgeSkills[i]);
+            previousSeeker = seekerId;
+            previousJob = jobId;
+        }
+        output.flush();
+    }
+
+    /**
+     * Add the contents of a snapshot to the graph.
+     *
+     * @throws IOException if the stream is not a snapshot of a supported version
+     *                     or is truncated
+     */
+    public static void read(InputStream in, CreateGraph graph) throws IOException {
+        read(in, -1, graph);
+    }
+
+    /**
+     * Add the contents of a snapshot of the given length, e.g. the size of its
+     * file, to the graph. Counts that need more bytes than are left are rejected
+     * before anything is allocated for them.
+     *
+     * @param length bytes of the snapshot, -1 if unknown
+     * @throws IOException if the stream is not a snapshot of a supported version,
+     *                     is truncated or is corrupt
+     */
+    public static void read(InputStream in, long length, CreateGraph graph) throws IOException {
+        Input input = new Input(in, length);
+        byte[] magic = input.readBytes(MAGIC.length);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a graph snapshot");
+        }
+        int version = input.readVarint();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+
+        // Snapshot skill ids to the dictionary's own instances
+        SkillDictionary dictionary = SkillDictionary.getGlobal();
+        int count = input.readCount(MIN_STRING_BYTES);
+        List<String> skills = new ArrayList<>(input.capacity(count));
+        for (int i = 0; i < count; i++) {
+            skills.add(dictionary.canonical(input.readString()));
+        }
+        count = input.readCount(MIN_SKILL_LIST_BYTES);
+        List<SkillVector> skillVectors = new ArrayList<>(input.capacity(count));
+        for (int i = 0; i < count; i++) {
+            int size = input.readCount(MIN_SKILL_ID_BYTES);
+            List<String> names = new ArrayList<>(input.capacity(size));
+            for (int j = 0; j < size; j++) {
+                names.add(lookup(skills, input.readVarint()));
+            }
+            skillVectors.add(SkillVector.of(names, dictionary));
+        }
+        count = input.readCount(MIN_STRING_BYTES);
+        List<String> strings = new ArrayList<>(input.capacity(count));
+        for (int i = 0; i < count; i++) {
+            strings.add(input.readString());
+        }
+
+        count = input.readCount(MIN_JOB_SEEKER_BYTES);
+        List<JobSeekerNode> jobSeekers = new ArrayList<>(input.capacity(count));
+        graph.ensureCapacity(input.capacity(count), 0, 0, 0);
+        for (int i = 0; i < count; i++) {
+            String name = input.readString(strings);
+            int experienceYears = unzigzag(input.readVarint());
+            String preferredLocation = input.readString(strings);
+            int skillList = input.readVarint();
+            JobSeekerNode jobSeeker = new JobSeekerNode(name, lookup(skillVectors, skillList), experienceYears);
+            jobSeeker.setPreferredLocation(preferredLocation);
+            jobSeekers.add(jobSeeker);
+            graph.addJobSeeker(jobSeeker);
+        }
+
+        count = input.readCount(MIN_JOB_BYTES);
+        List<JobNode> jobs = new ArrayList<>(input.capacity(count));
+        graph.ensureCapacity(0, input.capacity(count), 0, 0);
+        for (int i = 0; i < count; i++) {
+            JobNode job = new JobNode(input.readString(strings), input.readString(strings), input.readString(strings),
+                    input.readString(strings));
+            jobs.add(job);
+            graph.addJob(job);
+        }
+
+        count = input.readCount(MIN_APPLICATION_BYTES);
+        graph.ensureCapacity(0, 0, input.capacity(count), 0);
+        int seekerId = 0;
+        int jobId = 0;
+        for (int i = 0; i < count; i++) {
+            seekerId += unzigzag(input.readVarint());
+            jobId += unzigzag(input.readVarint());
+            graph.addApplication(new JobApplicationNode(lookup(jobSeekers, seekerId), lookup(jobs, jobId),
+                    input.readString(strings), input.readString(strings)));
+        }
+
+        count = input.readCount(MIN_SKILL_EDGE_BYTES);
+        graph.ensureCapacity(0, 0, 0, input.capacity(count));
+        seekerId = 0;
+        jobId = 0;
+        for (int i = 0; i < count; i++) {
+            seekerId += unzigzag(input.readVarint());
+            jobId += unzigzag(input.readVarint());
+            int skillList = input.readVarint();
+            graph.addSkillEdge(new JobSkillEdge(lookup(jobSeekers, seekerId), lookup(jobs, jobId),
+                    lookup(skillVectors, skillList)));
+        }
+    }
+
+    private static <N> int idOf(Map<N, Integer> ids, N node) {
+        Integer id = ids.get(node);
+        if (id == null) {
+            throw new IllegalArgumentException("Edge refers to a node that is not part of the graph");
+        }
+        return id;
+    }
+
+    private static <E> E lookup(List<E> table, int index) throws IOException {
+        if (index < 0 || index >= table.size()) {
+            throw new IOException("Corrupt snapshot, reference " + index + " out of " + table.size());
+        }
+        return table.get(index);
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Values in order of first use, null is not stored.
+     */
+    private static final class Table<V> {
+        private final Map<V, Integer> ids = new HashMap<>();
+        private final List<V> values = new ArrayList<>();
+
+        private void add(V value) {
+            if (value != null && ids.putIfAbsent(value, values.size()) == null) {
+                values.add(value);
+            }
+        }
+
+        private int addAndGet(V value) {
+            add(value);
+            return get(value);
+        }
+
+        private int size() {
+            return values.size();
+        }
+
+        private int get(V value) {
+            return ids.get(value);
+        }
+
+        // Index plus one, 0 for null
+        private int reference(V value) {
+            return value == null ? 0 : ids.get(value) + 1;
+        }
+    }
+
+    /**
+     * Skill ids of a skill list, hashed with more mixing than List.hashCode(),
+     * whose polynomial over similar skill names collides a lot.
+     */
+    private static final class SkillList {
+        private final int[] ids;
+        private final int hash;
+
+        private SkillList(int[] ids) {
+            this.ids = ids;
+            int h = ids.length;
+            for (int id : ids) {
+                h = (h ^ id) * 0x9E3779B9;
+                h ^= h >>> 16;
+            }
+            this.hash = h;
+        }
+
+        private static SkillList of(List<String> names, Table<String> skills) {
+            int[] ids = new int[names.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = skills.addAndGet(names.get(i));
+            }
+            return new SkillList(ids);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof SkillList && Arrays.equals(ids, ((SkillList) other).ids);
+        }
+    }
+
+    private static final class Output {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position = 0;
+
+        private Output(OutputStream out) {
+            this.out = out;
+        }
+
+        private void writeVarint(int value) throws IOException {
+            if (position + 5 > buffer.length) {
+                flushBuffer();
+            }
+            while ((value & ~0x7F) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            writeBytes(bytes);
+        }
+
+        private void writeBytes(byte[] bytes) throws IOException {
+            if (bytes.length > buffer.length - position) {
+                flushBuffer();
+                if (bytes.length > buffer.length) {
+                    out.write(bytes);
+                    return;
+                }
+            }
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private void flushBuffer() throws IOException {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+
+        private void flush() throws IOException {
+            flushBuffer();
+            out.flush();
+        }
+    }
+
+    private static final class Input {
+        private final InputStream in;
+        // Bytes of the snapshot, -1 if unknown
+        private final long length;
+        private byte[] buffer = new byte[BUFFER_SIZE];
+        private int position = 0;
+        private int limit = 0;
+        // Bytes taken from the stream so far
+        private long streamed = 0;
+
+        private Input(InputStream in, long length) {
+            this.in = in;
+            this.length = length;
+        }
+
+        private int readVarint() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                if (position == limit) {
+                    fill(1);
+                }
+                byte b = buffer[position++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Corrupt snapshot, varint longer than 5 bytes");
+        }
+
+        // A length or count, which can not be negative nor need more than the
+        // bytes left for its entries of at least minBytes each
+        private int readCount(int minBytes) throws IOException {
+            int count = readVarint();
+            if (count < 0) {
+                throw new IOException("Corrupt snapshot, negative count " + count);
+            }
+            if (length >= 0) {
+                long remaining = length - (streamed - (limit - position));
+                if ((long) count * minBytes > remaining) {
+                    throw new IOException("Corrupt snapshot, count " + count + " does not fit in the remaining "
+                            + remaining + " bytes");
+                }
+            }
+            return count;
+        }
+
+        // Initial capacity for a table of count entries, counts of a stream of
+        // unknown length are not checked and only trusted up to a point
+        private int capacity(int count) {
+            return length >= 0 ? count : Math.min(count, UNVERIFIED_CAPACITY);
+        }
+
+        private String readString() throws IOException {
+            int size = readCount(1);
+            if (limit - position < size) {
+                fill(size);
+            }
+            String value = new String(buffer, position, size, StandardCharsets.UTF_8);
+            position += size;
+            return value;
+        }
+
+        // A reference into the string table
+        private String readString(List<String> strings) throws IOException {
+            int reference = readVarint();
+            return reference == 0 ? null : lookup(strings, reference - 1);
+        }
+
+        private byte[] readBytes(int size) throws IOException {
+            if (limit - position < size) {
+                fill(size);
+            }
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + size);
+            position += size;
+            return bytes;
+        }
+
+        // Makes at least `needed` bytes available from position on. The buffer
+        // grows with the bytes that actually arrive, not with `needed`.
+        private void fill(int needed) throws IOException {
+            int available = limit - position;
+            System.arraycopy(buffer, position, buffer, 0, available);
+            position = 0;
+            limit = available;
+            while (limit < needed) {
+                if (limit == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, (int) Math.min(needed, 2L * buffer.length));
+                }
+                int read = in.read(buffer, limit, buffer.length - limit);
+                if (read < 0) {
+                    throw new EOFException("Truncated snapshot");
+                }
+                limit += read;
+                streamed += read;
+            }
+        }
+    }
+}
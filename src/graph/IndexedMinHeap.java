@@ -0,0 +1,121 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap over the ints 0..capacity-1 with long priorities and
+ * O(log n) decrease-key. Positions are tracked per id so an id is never in the
+ * heap twice, and clear() only touches the ids still queued which lets path
+ * searches reuse one heap across queries.
+ */
+final class IndexedMinHeap {
+
+	private final int[] heap;
+	private final int[] position;
+	private final long[] keys;
+	private int size = 0;
+
+	IndexedMinHeap(int capacity) {
+		this.heap = new int[capacity];
+		this.position = new int[capacity];
+		this.keys = new long[capacity];
+		Arrays.fill(position, -1);
+	}
+
+	int size() {
+		return size;
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	boolean contains(int id) {
+		return position[id] >= 0;
+	}
+
+	long getKey(int id) {
+		return keys[id];
+	}
+
+	long peekKey() {
+		return keys[heap[0]];
+	}
+
+	int peek() {
+		return heap[0];
+	}
+
+	void insert(int id, long key) {
+		keys[id] = key;
+		heap[size] = id;
+		position[id] = size;
+		siftUp(size++);
+	}
+
+	void decreaseKey(int id, long key) {
+		keys[id] = key;
+		siftUp(position[id]);
+	}
+
+	/** Insert the id or lower its priority, whichever applies. */
+	void insertOrDecrease(int id, long key) {
+		if (position[id] < 0)
+			insert(id, key);
+		else if (key < keys[id])
+			decreaseKey(id, key);
+	}
+
+	int poll() {
+		final int min = heap[0];
+		position[min] = -1;
+		if (--size > 0) {
+			heap[0] = heap[size];
+			position[heap[0]] = 0;
+			siftDown(0);
+		}
+		return min;
+	}
+
+	void clear() {
+		for (int i = 0; i < size; i++)
+			position[heap[i]] = -1;
+		size = 0;
+	}
+
+	private void siftUp(int slot) {
+		final int id = heap[slot];
+		final long key = keys[id];
+		while (slot > 0) {
+			final int parent = (slot - 1) >>> 1;
+			final int parentId = heap[parent];
+			if (keys[parentId] <= key)
+				break;
+			heap[slot] = parentId;
+			position[parentId] = slot;
+			slot = parent;
+		}
+		heap[slot] = id;
+		position[id] = slot;
+	}
+
+	private void siftDown(int slot) {
+		final int id = heap[slot];
+		final long key = keys[id];
+		final int half = size >>> 1;
+		while (slot < half) {
+			int child = 2 * slot + 1;
+			final int right = child + 1;
+			if (right < size && keys[heap[right]] < keys[heap[child]])
+				child = right;
+			final int childId = heap[child];
+			if (key <= keys[childId])
+				break;
+			heap[slot] = childId;
+			position[childId] = slot;
+			slot = child;
+		}
+		heap[slot] = id;
+		position[id] = slot;
+	}
+}
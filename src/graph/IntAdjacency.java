@@ -0,0 +1,66 @@
+package graph;
+
+import graph.Graph.Edge;
+import graph.Graph.Vertex;
+
+/**
+ * Primitive view of a graph for traversal hot loops. Vertices are numbered
+ * 0..n-1 and the outgoing edges of vertex v occupy the adjacency slots
+ * firstEdge(v) to endEdge(v) - 1, read through getTarget(slot) and
+ * getCost(slot). Walking a vertex's edges is a plain int loop, no iterators,
+ * no boxing and no edge objects:
+ *
+ * <pre>
+ * for (int slot = graph.firstEdge(u), end = graph.endEdge(u); slot &lt; end; slot++)
+ * 	visit(graph.getTarget(slot), graph.getCost(slot));
+ * </pre>
+ *
+ * Implemented by the frozen {@link CsrGraph} and the mutable {@link IntGraph}.
+ * Slots are only valid until the graph changes.
+ */
+public interface IntAdjacency<T extends Comparable<T>> {
+
+	Graph.TYPE getType();
+
+	int getVertexCount();
+
+	/**
+	 * Number of adjacency slots. For undirected graphs every edge is stored once
+	 * per direction.
+	 */
+	int getEdgeCount();
+
+	/**
+	 * @return the id of the vertex or -1 if the vertex is not part of the graph
+	 */
+	int getId(Vertex<T> vertex);
+
+	Vertex<T> getVertex(int id);
+
+	int getDegree(int v);
+
+	/** First adjacency slot of vertex v. */
+	int firstEdge(int v);
+
+	/** One past the last adjacency slot of vertex v. */
+	int endEdge(int v);
+
+	int getTarget(int slot);
+
+	int getCost(int slot);
+
+	/**
+	 * Resolve an adjacency slot of vertex from to an edge object. Only meant for
+	 * materialising results such as paths.
+	 *
+	 * @return the edge or null if there is none
+	 */
+	Edge<T> getEdge(int from, int slot);
+
+	/**
+	 * Graph with every edge reversed and the same vertex ids, for searches that
+	 * walk edges backwards. An undirected graph is its own transpose. The
+	 * transpose of a mutable graph does not follow later changes.
+	 */
+	IntAdjacency<T> transpose();
+}
@@ -0,0 +1,436 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import graph.Graph.Edge;
+import graph.Graph.Vertex;
+
+/**
+ * Mutable graph over dense int vertex ids with primitive adjacency storage.
+ * The edges of all vertices live in two growable int arrays, targets and costs,
+ * where every vertex owns a block of slots and the first getDegree(v) slots of
+ * the block starting at firstEdge(v) hold its outgoing edges. A full block
+ * doubles by moving to the end of the arrays, the slots it leaves behind are
+ * reclaimed by compacting once they make up half of the arrays. Adding an edge
+ * is amortized O(1) plus an O(degree) duplicate check, removing one is
+ * O(degree).
+ * <p>
+ * Vertices are the usual {@link Vertex} objects, numbered 0..n-1 in the order
+ * they are added, and {@link Edge}s map onto (from, to, cost) triples of those
+ * numbers. Edge objects are only created when asked for. Like in {@link Graph}
+ * an undirected edge is stored once per direction. Vertices cannot be removed,
+ * which keeps the ids dense.
+ * <p>
+ * The vertices' own edge lists are not touched: {@link Vertex#getEdges()} of a
+ * vertex in an IntGraph does not show the edges added here, it keeps whatever
+ * it held before, e.g. the edges of the {@link Graph} the vertex was copied
+ * from. Ask the IntGraph with {@link #getEdges(Vertex)} or walk the slots.
+ * <p>
+ * As an {@link IntAdjacency} the graph is traversed by {@link Dijkstra},
+ * {@link AStar}, {@link BidirectionalDijkstra}, {@link BreadthFirstSearch} and
+ * {@link BipartiteMatching} without freezing or boxing.
+ * Not thread safe.
+ */
+public class IntGraph<T extends Comparable<T>> implements IntAdjacency<T> {
+
+	private static final int MIN_BLOCK = 4;
+
+	private final Graph.TYPE type;
+	private final Map<Vertex<T>, Integer> ids = new IdentityHashMap<Vertex<T>, Integer>();
+	private Vertex<T>[] vertices = Graph.<T>newVertexArray(16);
+	private int vertexCount = 0;
+	// Block of vertex v: slots offsets[v] to offsets[v] + capacities[v] - 1, the
+	// first degrees[v] of them in use
+	private int[] offsets = new int[16];
+	private int[] capacities = new int[16];
+	private int[] degrees = new int[16];
+	private int[] targets = new int[64];
+	private int[] costs = new int[64];
+	// Edge objects handed out by getEdge, by slot like targets and costs, null
+	// until the first is asked for. Slots without an edge hold null.
+	private Edge<T>[] edgeCache = null;
+	// Slots handed out to blocks, and how many of them moved blocks left behind
+	private int allocated = 0;
+	private int abandoned = 0;
+	private int edgeCount = 0;
+
+	public IntGraph() {
+		this(Graph.TYPE.UNDIRECTED);
+	}
+
+	public IntGraph(Graph.TYPE type) {
+		this.type = type;
+	}
+
+	/**
+	 * Copy the vertices and edges of a graph, numbering the vertices in the order
+	 * of getVertices(). Edges to vertices that are not part of the graph are
+	 * dropped.
+	 */
+	public IntGraph(Graph<T> graph) {
+		this(graph.getType());
+		for (Vertex<T> v : graph.getVertices())
+			addVertex(v);
+		// Both directions of an undirected edge are in the lists already, edges
+		// stored once are stepped across from either end
+		for (int id = 0; id < vertexCount; id++) {
+			final Vertex<T> v = vertices[id];
+			reserve(id, v.getEdges().size());
+			for (Edge<T> e : v.getEdges()) {
+				final int to = getId(e.getOtherVertex(v));
+				if (to >= 0)
+					append(id, to, e.getCost());
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Graph.TYPE getType() {
+		return type;
+	}
+
+	/**
+	 * Add a vertex to the graph. Its {@link Vertex#getEdges()} does not follow
+	 * the edges of this graph, use {@link #getEdges(Vertex)}.
+	 *
+	 * @return the id of the vertex, a vertex added again keeps its first id
+	 */
+	public int addVertex(Vertex<T> vertex) {
+		if (vertex == null)
+			throw new NullPointerException("vertex cannot be NULL.");
+		final Integer existing = ids.putIfAbsent(vertex, vertexCount);
+		if (existing != null)
+			return existing;
+
+		if (vertexCount == vertices.length) {
+			final int capacity = vertices.length + (vertices.length >> 1);
+			vertices = Arrays.copyOf(vertices, capacity);
+			offsets = Arrays.copyOf(offsets, capacity);
+			capacities = Arrays.copyOf(capacities, capacity);
+			degrees = Arrays.copyOf(degrees, capacity);
+		}
+		final int id = vertexCount++;
+		vertices[id] = vertex;
+		offsets[id] = allocated;
+		return id;
+	}
+
+	/**
+	 * Add an edge, and its reciprocal in an undirected graph.
+	 *
+	 * @return false if an edge between the same vertices with the same cost
+	 *         already is part of the graph
+	 */
+	public boolean addEdge(int from, int to, int cost) {
+		checkId(from);
+		checkId(to);
+		if (indexOf(from, to, cost) >= 0)
+			return false;
+		append(from, to, cost);
+		if (type == Graph.TYPE.UNDIRECTED)
+			append(to, from, cost);
+		return true;
+	}
+
+	/**
+	 * Add an edge between two vertices of the graph, as
+	 * {@link #addEdge(int, int, int)}.
+	 *
+	 * @return false if an endpoint is not part of the graph or the edge already
+	 *         is
+	 */
+	public boolean addEdge(Edge<T> edge) {
+		final int from = getId(edge.getFromVertex());
+		final int to = getId(edge.getToVertex());
+		if (from < 0 || to < 0)
+			return false;
+		return addEdge(from, to, edge.getCost());
+	}
+
+	/**
+	 * Remove an edge, and its reciprocal in an undirected graph. The last edge of
+	 * each vertex moves into the freed slot.
+	 *
+	 * @return true if the graph held the edge
+	 */
+	public boolean removeEdge(int from, int to, int cost) {
+		checkId(from);
+		checkId(to);
+		if (!removeSlot(from, indexOf(from, to, cost)))
+			return false;
+		if (type == Graph.TYPE.UNDIRECTED)
+			removeSlot(to, indexOf(to, from, cost));
+		return true;
+	}
+
+	/**
+	 * Remove the edge between the same vertices with the same cost, as
+	 * {@link #removeEdge(int, int, int)}.
+	 *
+	 * @return true if the graph held the edge
+	 */
+	public boolean removeEdge(Edge<T> edge) {
+		final int from = getId(edge.getFromVertex());
+		final int to = getId(edge.getToVertex());
+		if (from < 0 || to < 0)
+			return false;
+		return removeEdge(from, to, edge.getCost());
+	}
+
+	public boolean containsEdge(int from, int to, int cost) {
+		checkId(from);
+		checkId(to);
+		return indexOf(from, to, cost) >= 0;
+	}
+
+	/**
+	 * Outgoing edges of a vertex as edge objects, for callers of the object API.
+	 * Traversals should loop over the slots instead.
+	 *
+	 * @return the edges or an empty list if the vertex is not part of the graph
+	 */
+	public List<Edge<T>> getEdges(Vertex<T> vertex) {
+		final int v = getId(vertex);
+		if (v < 0)
+			return new ArrayList<Edge<T>>(0);
+		final List<Edge<T>> edges = new ArrayList<Edge<T>>(degrees[v]);
+		for (int slot = firstEdge(v), end = endEdge(v); slot < end; slot++)
+			edges.add(getEdge(v, slot));
+		return edges;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getId(Vertex<T> vertex) {
+		final Integer id = ids.get(vertex);
+		return (id != null) ? id : -1;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Vertex<T> getVertex(int id) {
+		checkId(id);
+		return vertices[id];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getDegree(int v) {
+		return degrees[v];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int firstEdge(int v) {
+		return offsets[v];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int endEdge(int v) {
+		return offsets[v] + degrees[v];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getTarget(int slot) {
+		return targets[slot];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getCost(int slot) {
+		return costs[slot];
+	}
+
+	/**
+	 * The edge object is created on first use and handed out again until the
+	 * edge is removed.
+	 */
+	@Override
+	public Edge<T> getEdge(int from, int slot) {
+		if (edgeCache == null)
+			edgeCache = Graph.<T>newEdgeArray(targets.length);
+		Edge<T> edge = edgeCache[slot];
+		if (edge == null) {
+			edge = new Edge<T>(costs[slot], vertices[from], vertices[targets[slot]]);
+			edgeCache[slot] = edge;
+		}
+		return edge;
+	}
+
+	/**
+	 * Copy with every edge reversed and the same vertex ids, or the graph itself
+	 * if it is undirected.
+	 */
+	@Override
+	public IntGraph<T> transpose() {
+		if (type == Graph.TYPE.UNDIRECTED)
+			return this;
+
+		final IntGraph<T> reverse = new IntGraph<T>(type);
+		for (int v = 0; v < vertexCount; v++)
+			reverse.addVertex(vertices[v]);
+		final int[] inDegrees = new int[vertexCount];
+		for (int u = 0; u < vertexCount; u++) {
+			for (int slot = offsets[u], end = slot + degrees[u]; slot < end; slot++)
+				inDegrees[targets[slot]]++;
+		}
+		for (int v = 0; v < vertexCount; v++)
+			reverse.reserve(v, inDegrees[v]);
+		// The edges are distinct already, no duplicate checks needed
+		for (int u = 0; u < vertexCount; u++) {
+			for (int slot = offsets[u], end = slot + degrees[u]; slot < end; slot++)
+				reverse.append(targets[slot], u, costs[slot]);
+		}
+		return reverse;
+	}
+
+	/**
+	 * Approximate heap bytes of the adjacency arrays, including unused slots,
+	 * without the vertex table. Edge objects handed out are not counted, the
+	 * references to them are.
+	 */
+	public long getAdjacencyBytes() {
+		final long references = (edgeCache != null) ? 4L * edgeCache.length : 0;
+		return 4L * (targets.length + costs.length + offsets.length + capacities.length + degrees.length)
+				+ references;
+	}
+
+	private void checkId(int v) {
+		if (v < 0 || v >= vertexCount)
+			throw new IndexOutOfBoundsException("No vertex with id " + v + ", the graph has " + vertexCount);
+	}
+
+	private int indexOf(int from, int to, int cost) {
+		for (int slot = offsets[from], end = slot + degrees[from]; slot < end; slot++) {
+			if (targets[slot] == to && costs[slot] == cost)
+				return slot;
+		}
+		return -1;
+	}
+
+	private void append(int v, int to, int cost) {
+		if (degrees[v] == capacities[v])
+			grow(v, degrees[v] + 1);
+		final int slot = offsets[v] + degrees[v]++;
+		targets[slot] = to;
+		costs[slot] = cost;
+		edgeCount++;
+	}
+
+	// Moves the last edge of the vertex into the slot
+	private boolean removeSlot(int v, int slot) {
+		if (slot < 0)
+			return false;
+		final int last = offsets[v] + --degrees[v];
+		targets[slot] = targets[last];
+		costs[slot] = costs[last];
+		if (edgeCache != null) {
+			edgeCache[slot] = edgeCache[last];
+			edgeCache[last] = null;
+		}
+		edgeCount--;
+		return true;
+	}
+
+	private void reserve(int v, int extra) {
+		if (degrees[v] + extra > capacities[v])
+			grow(v, degrees[v] + extra);
+	}
+
+	// Gives the vertex a block of at least the needed size, at least doubling it
+	private void grow(int v, int needed) {
+		final int capacity = Math.max(MIN_BLOCK, Math.max(needed, 2 * capacities[v]));
+		if (offsets[v] + capacities[v] == allocated) {
+			// The last block grows in place
+			ensureSlots(offsets[v] + capacity);
+			allocated = offsets[v] + capacity;
+			capacities[v] = capacity;
+			return;
+		}
+
+		ensureSlots(allocated + capacity);
+		System.arraycopy(targets, offsets[v], targets, allocated, degrees[v]);
+		System.arraycopy(costs, offsets[v], costs, allocated, degrees[v]);
+		if (edgeCache != null) {
+			System.arraycopy(edgeCache, offsets[v], edgeCache, allocated, degrees[v]);
+			Arrays.fill(edgeCache, offsets[v], offsets[v] + degrees[v], null);
+		}
+		abandoned += capacities[v];
+		offsets[v] = allocated;
+		capacities[v] = capacity;
+		allocated += capacity;
+		if (abandoned > allocated / 2)
+			compact();
+	}
+
+	private void ensureSlots(int size) {
+		if (size <= targets.length)
+			return;
+		final int length = Math.max(size, targets.length + (targets.length >> 1));
+		targets = Arrays.copyOf(targets, length);
+		costs = Arrays.copyOf(costs, length);
+		if (edgeCache != null)
+			edgeCache = Arrays.copyOf(edgeCache, length);
+	}
+
+	// Packs the blocks in id order, dropping the slots moved blocks left behind
+	private void compact() {
+		final int size = allocated - abandoned;
+		final int[] packedTargets = new int[Math.max(size, 64)];
+		final int[] packedCosts = new int[packedTargets.length];
+		final Edge<T>[] packedEdges = (edgeCache != null) ? Graph.<T>newEdgeArray(packedTargets.length) : null;
+		int next = 0;
+		for (int v = 0; v < vertexCount; v++) {
+			System.arraycopy(targets, offsets[v], packedTargets, next, degrees[v]);
+			System.arraycopy(costs, offsets[v], packedCosts, next, degrees[v]);
+			if (edgeCache != null)
+				System.arraycopy(edgeCache, offsets[v], packedEdges, next, degrees[v]);
+			offsets[v] = next;
+			next += capacities[v];
+		}
+		targets = packedTargets;
+		costs = packedCosts;
+		edgeCache = packedEdges;
+		allocated = next;
+		abandoned = 0;
+	}
+}
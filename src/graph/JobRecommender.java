@@ -0,0 +1,369 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Ranks jobs for job seekers. A job's required skills are the union of the
+ * required skills of its {@link JobSkillEdge}s, as kept by the graph's
+ * {@link SkillIndex}, and only jobs sharing at least one skill with the seeker
+ * are candidates. The score of a candidate is
+ * <ul>
+ * <li>the sum of the weights of the shared skills, where rarer skills weigh
+ * more: ln(1 + jobs / jobs requiring the skill)</li>
+ * <li>plus the location weight if the job is in the seeker's preferred
+ * location</li>
+ * <li>plus the experience weight scaled by how close the seeker's experience
+ * is to the average experience of the job's applicants: 1 - min(|difference|,
+ * 20) / 20. Jobs nobody applied for get no experience part.</li>
+ * </ul>
+ * Top-K queries walk the job posting lists of the seeker's skills in job id
+ * order, keep the best K in a bounded heap and skip lists whose combined upper
+ * bound can no longer beat the K-th score (max-score pruning), so most jobs are
+ * never scored.
+ * <p>
+ * The recommender works on a snapshot of the jobs, skill postings and
+ * applications taken at construction and is safe to use from many threads.
+ */
+public class JobRecommender {
+    public static final double DEFAULT_LOCATION_WEIGHT = 1.0;
+    public static final double DEFAULT_EXPERIENCE_WEIGHT = 0.5;
+    private static final int MAX_EXPERIENCE_YEARS = 20;
+
+    private final CreateGraph graph;
+    private final List<JobNode> jobs;
+    private final Map<JobNode, Integer> jobIds = new IdentityHashMap<>();
+    private final int[][] jobsBySkill;
+    // Average experience of each job's applicants, NaN for jobs without any
+    private final double[] jobExperience;
+    private final double[] skillWeights;
+    private final double locationWeight;
+    private final double experienceWeight;
+
+    public JobRecommender(CreateGraph graph) {
+        this(graph, DEFAULT_LOCATION_WEIGHT, DEFAULT_EXPERIENCE_WEIGHT);
+    }
+
+    public JobRecommender(CreateGraph graph, double locationWeight, double experienceWeight) {
+        this.graph = graph;
+        this.jobs = new ArrayList<>(graph.getJobs());
+        this.locationWeight = locationWeight;
+        this.experienceWeight = experienceWeight;
+
+        for (int id = 0; id < jobs.size(); id++) {
+            jobIds.putIfAbsent(jobs.get(id), id);
+        }
+
+        // Posting lists of the skill index are sorted by job id
+        SkillIndex index = graph.getSkillIndex();
+        int skillCount = index.getDictionary().size();
+        this.jobsBySkill = new int[skillCount][];
+        this.skillWeights = new double[skillCount];
+        for (int skillId = 0; skillId < skillCount; skillId++) {
+            int[] postings = index.getJobsWithSkill(skillId);
+            jobsBySkill[skillId] = postings;
+            skillWeights[skillId] = postings.length == 0 ? 0.0
+                    : Math.log(1.0 + jobs.size() / (double) postings.length);
+        }
+
+        double[] experienceSums = new double[jobs.size()];
+        int[] applicants = new int[jobs.size()];
+        for (JobApplicationNode application : graph.getApplications()) {
+            Integer id = jobIds.get(application.getJob());
+            if (id != null) {
+                experienceSums[id] += application.getJobSeeker().getExperienceYears();
+                applicants[id]++;
+            }
+        }
+        this.jobExperience = new double[jobs.size()];
+        for (int id = 0; id < jobs.size(); id++) {
+            jobExperience[id] = applicants[id] == 0 ? Double.NaN : experienceSums[id] / applicants[id];
+        }
+    }
+
+    /**
+     * @return up to k jobs for the seeker, best first
+     */
+    public List<Recommendation> recommend(JobSeekerNode seeker, int k) {
+        if (k <= 0 || jobs.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int[] terms = seekerTerms(seeker);
+        int termCount = terms.length;
+        String location = seeker.getPreferredLocation();
+        // Most the location and experience parts can add to a job's skill score
+        double extraBound = (location == null ? 0.0 : locationWeight) + experienceWeight;
+
+        // Terms by increasing weight, bounds[i] = summed weight of terms 0..i-1
+        double[] bounds = new double[termCount + 1];
+        for (int i = 0; i < termCount; i++) {
+            bounds[i + 1] = bounds[i] + skillWeights[terms[i]];
+        }
+        int[] cursors = new int[termCount];
+        // No more results than jobs, so a large k does not size the heap
+        TopK top = new TopK(Math.min(k, jobs.size()));
+        int firstEssential = 0;
+
+        while (firstEssential < termCount) {
+            // Next candidate is the smallest job id among the essential lists
+            int candidate = Integer.MAX_VALUE;
+            for (int i = firstEssential; i < termCount; i++) {
+                int[] postings = jobsBySkill[terms[i]];
+                if (cursors[i] < postings.length && postings[cursors[i]] < candidate) {
+                    candidate = postings[cursors[i]];
+                }
+            }
+            if (candidate == Integer.MAX_VALUE) {
+                break;
+            }
+
+            double score = 0.0;
+            for (int i = termCount - 1; i >= firstEssential; i--) {
+                int[] postings = jobsBySkill[terms[i]];
+                if (cursors[i] < postings.length && postings[cursors[i]] == candidate) {
+                    score += skillWeights[terms[i]];
+                    cursors[i]++;
+                }
+            }
+            for (int i = firstEssential - 1; i >= 0; i--) {
+                if (score + bounds[i + 1] + extraBound <= top.threshold()) {
+                    score = -1.0;
+                    break;
+                }
+                int[] postings = jobsBySkill[terms[i]];
+                cursors[i] = seek(postings, cursors[i], candidate);
+                if (cursors[i] < postings.length && postings[cursors[i]] == candidate) {
+                    score += skillWeights[terms[i]];
+                }
+            }
+            if (score < 0.0) {
+                continue;
+            }
+            if (location != null && location.equals(jobs.get(candidate).getLocation())) {
+                score += locationWeight;
+            }
+            score += experienceScore(seeker, candidate);
+            if (top.offer(candidate, score)) {
+                while (firstEssential < termCount && bounds[firstEssential + 1] + extraBound <= top.threshold()) {
+                    firstEssential++;
+                }
+            }
+        }
+
+        int size = top.sortBestFirst();
+        List<Recommendation> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new Recommendation(seeker, jobs.get(top.jobIds[i]), top.scores[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Top k jobs for every job seeker of the graph, computed in parallel on the
+     * common fork join pool.
+     *
+     * @return the recommendations, in the order of {@link CreateGraph#getJobSeekers()}
+     */
+    public List<List<Recommendation>> recommendAll(int k) {
+        List<JobSeekerNode> seekers = graph.getJobSeekers();
+        return IntStream.range(0, seekers.size()).parallel()
+                .mapToObj(id -> recommend(seekers.get(id), k))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Score of a single job for a seeker, same formula as the ranking. Returns 0
+     * for jobs not sharing any skill with the seeker.
+     */
+    public double score(JobSeekerNode seeker, JobNode job) {
+        Integer jobId = jobIds.get(job);
+        if (jobId == null) {
+            return 0.0;
+        }
+        double score = 0.0;
+        for (int term : seekerTerms(seeker)) {
+            if (Arrays.binarySearch(jobsBySkill[term], jobId) >= 0) {
+                score += skillWeights[term];
+            }
+        }
+        if (score == 0.0) {
+            return 0.0;
+        }
+        if (seeker.getPreferredLocation() != null && seeker.getPreferredLocation().equals(job.getLocation())) {
+            score += locationWeight;
+        }
+        return score + experienceScore(seeker, jobId);
+    }
+
+    private double experienceScore(JobSeekerNode seeker, int jobId) {
+        double expected = jobExperience[jobId];
+        if (Double.isNaN(expected)) {
+            return 0.0;
+        }
+        double difference = Math.min(Math.abs(seeker.getExperienceYears() - expected), MAX_EXPERIENCE_YEARS);
+        return experienceWeight * (1.0 - difference / MAX_EXPERIENCE_YEARS);
+    }
+
+    // Seeker skills that some job requires, by increasing weight
+    private int[] seekerTerms(JobSeekerNode seeker) {
+        int[] skillIds = seeker.getSkillVector().getSkillIds();
+        int count = 0;
+        for (int skillId : skillIds) {
+            if (skillId < jobsBySkill.length && jobsBySkill[skillId].length > 0) {
+                skillIds[count++] = skillId;
+            }
+        }
+        int[] terms = Arrays.copyOf(skillIds, count);
+        for (int i = 1; i < count; i++) {
+            int term = terms[i];
+            int j = i - 1;
+            while (j >= 0 && skillWeights[terms[j]] > skillWeights[term]) {
+                terms[j + 1] = terms[j];
+                j--;
+            }
+            terms[j + 1] = term;
+        }
+        return terms;
+    }
+
+    // First position at or after from holding a job id >= target, galloping
+    private static int seek(int[] postings, int from, int target) {
+        int step = 1;
+        int hi = from;
+        while (hi < postings.length && postings[hi] < target) {
+            from = hi + 1;
+            hi += step;
+            step <<= 1;
+        }
+        int at = Arrays.binarySearch(postings, from, Math.min(hi + 1, postings.length), target);
+        return at >= 0 ? at : -at - 1;
+    }
+
+    public static class Recommendation {
+        private final JobSeekerNode jobSeeker;
+        private final JobNode job;
+        private final double score;
+
+        public Recommendation(JobSeekerNode jobSeeker, JobNode job, double score) {
+            this.jobSeeker = jobSeeker;
+            this.job = job;
+            this.score = score;
+        }
+
+        public JobSeekerNode getJobSeeker() {
+            return jobSeeker;
+        }
+
+        public JobNode getJob() {
+            return job;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        @Override
+        public String toString() {
+            return jobSeeker.getName() + " -> " + job.getTitle() + " at " + job.getCompany()
+                    + String.format(" (score %.3f)", score);
+        }
+    }
+
+    /**
+     * Bounded min-heap of (score, job id). Among equal scores the larger job id
+     * ranks lower, candidates arrive in increasing id order so ties keep the
+     * earlier job.
+     */
+    private static final class TopK {
+        private final int capacity;
+        private final int[] jobIds;
+        private final double[] scores;
+        private int size = 0;
+
+        private TopK(int capacity) {
+            this.capacity = capacity;
+            this.jobIds = new int[capacity];
+            this.scores = new double[capacity];
+        }
+
+        private double threshold() {
+            return size < capacity ? Double.NEGATIVE_INFINITY : scores[0];
+        }
+
+        private boolean offer(int jobId, double score) {
+            if (size < capacity) {
+                jobIds[size] = jobId;
+                scores[size] = score;
+                siftUp(size++);
+                return size == capacity;
+            }
+            if (score <= scores[0]) {
+                return false;
+            }
+            jobIds[0] = jobId;
+            scores[0] = score;
+            siftDown(0);
+            return true;
+        }
+
+        // Heap sort in place, the best entry ends up first. Returns the size.
+        private int sortBestFirst() {
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+            return size;
+        }
+
+        private boolean lower(int a, int b) {
+            return scores[a] < scores[b] || (scores[a] == scores[b] && jobIds[a] > jobIds[b]);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!lower(i, parent)) {
+                    break;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            siftDown(i, size);
+        }
+
+        private void siftDown(int i, int limit) {
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= limit) {
+                    return;
+                }
+                if (child + 1 < limit && lower(child + 1, child)) {
+                    child++;
+                }
+                if (!lower(child, i)) {
+                    return;
+                }
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int id = jobIds[a];
+            jobIds[a] = jobIds[b];
+            jobIds[b] = id;
+            double score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
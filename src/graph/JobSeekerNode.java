@@ -4,12 +4,19 @@ import java.util.List;
 
 public class JobSeekerNode {
     private String name;
-    private List<String> skills;
+    // Only the vector is kept, the skill names are derived from it
+    private SkillVector skillVector;
     private int experienceYears;
+    private String preferredLocation;
 
     public JobSeekerNode(String name, List<String> skills, int experienceYears) {
+        this(name, SkillVector.of(skills), experienceYears);
+    }
+
+    // For loaders that already hold the vector of the skills
+    JobSeekerNode(String name, SkillVector skillVector, int experienceYears) {
         this.name = name;
-        this.skills = skills;
+        this.skillVector = skillVector;
         this.experienceYears = experienceYears;
     }
 
@@ -21,13 +28,28 @@ public class JobSeekerNode {
         this.name = name;
     }
 
+    /**
+     * Skills without duplicates, in the order the {@link SkillDictionary} first
+     * saw them. Built from the skill vector on every call.
+     */
     public List<String> getSkills() {
-        return skills;
+        return skillVector.getNames();
     }
 
     public void setSkills(List<String> skills) {
-        this.skills = skills;
-}
+        this.skillVector = SkillVector.of(skills);
+    }
+
+    /**
+     * Skills as a bit vector over the global {@link SkillDictionary}.
+     */
+    public SkillVector getSkillVector() {
+        return skillVector;
+    }
+
+    public boolean hasAllSkills(SkillVector requiredSkills) {
+        return skillVector.containsAll(requiredSkills);
+    }
     
     public int getExperienceYears() {
         return experienceYears;
@@ -36,6 +58,17 @@ public class JobSeekerNode {
     public void setExperienceYears(int experienceYears) {
         this.experienceYears = experienceYears;
     }
+
+    /**
+     * Location the seeker would like to work in, or null for no preference.
+     */
+    public String getPreferredLocation() {
+        return preferredLocation;
+    }
+
+    public void setPreferredLocation(String preferredLocation) {
+        this.preferredLocation = preferredLocation;
+    }
 }
 
 
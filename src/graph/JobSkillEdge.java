@@ -5,12 +5,18 @@ import java.util.List;
 public class JobSkillEdge {
     private JobSeekerNode jobSeeker;
     private JobNode job;
-    private List<String> requiredSkills;
+    // Only the vector is kept, the skill names are derived from it
+    private SkillVector requiredSkillVector;
 
     public JobSkillEdge(JobSeekerNode jobSeeker, JobNode job, List<String> requiredSkills) {
+        this(jobSeeker, job, SkillVector.of(requiredSkills));
+    }
+
+    // For loaders that already hold the vector of the skills
+    JobSkillEdge(JobSeekerNode jobSeeker, JobNode job, SkillVector requiredSkillVector) {
         this.jobSeeker = jobSeeker;
         this.job = job;
-        this.requiredSkills = requiredSkills;
+        this.requiredSkillVector = requiredSkillVector;
     }
 
     public JobSeekerNode getJobSeeker() {
@@ -29,11 +35,30 @@ public class JobSkillEdge {
         this.job = job;
     }
 
+    /**
+     * Required skills without duplicates, in the order the
+     * {@link SkillDictionary} first saw them. Built from the skill vector on
+     * every call.
+     */
     public List<String> getRequiredSkills() {
-        return requiredSkills;
+        return requiredSkillVector.getNames();
     }
 
     public void setRequiredSkills(List<String> requiredSkills) {
-        this.requiredSkills = requiredSkills;
+        this.requiredSkillVector = SkillVector.of(requiredSkills);
+    }
+
+    /**
+     * Required skills as a bit vector over the global {@link SkillDictionary}.
+     */
+    public SkillVector getRequiredSkillVector() {
+        return requiredSkillVector;
+    }
+
+    /**
+     * @return true if the job seeker has every required skill
+     */
+    public boolean isCovered() {
+        return jobSeeker.getSkillVector().containsAll(requiredSkillVector);
     }
 }
@@ -0,0 +1,99 @@
+package graph;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Feeds the records of a graph data file to a {@link RecordParser.Handler}
+ * straight from a memory mapped view of the file. The mapping is scanned for
+ * newlines through one small reusable block, nothing but the current line is
+ * copied to the heap and ASCII lines, the common case, skip the charset
+ * decoder. Lines holding other bytes are decoded as UTF-8.
+ * <p>
+ * Files larger than 2 GB are mapped in several regions, each ending on a line
+ * boundary.
+ */
+public final class MappedRecordReader {
+    private static final long MAX_REGION_SIZE = Integer.MAX_VALUE;
+    private static final int BLOCK_SIZE = 1 << 16;
+
+    private MappedRecordReader() {
+    }
+
+    public static void read(Path file, RecordParser.Handler handler) throws IOException {
+        read(file, handler, MAX_REGION_SIZE);
+    }
+
+    // The region size is a parameter so that the splitting can be exercised on small files
+    static void read(Path file, RecordParser.Handler handler, long maxRegionSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            byte[] block = new byte[BLOCK_SIZE];
+            while (position < size) {
+                long regionSize = Math.min(maxRegionSize, size - position);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize);
+                int end = (int) regionSize;
+                if (position + regionSize < size) {
+                    // Leave the partial last line to the next region
+                    end = lastIndexOfNewline(region, end) + 1;
+                    if (end == 0) {
+                        throw new IOException("Line longer than " + maxRegionSize + " bytes at offset " + position);
+                    }
+                }
+                parseLines(region, end, block, handler);
+                position += end;
+            }
+        }
+    }
+
+    // Lines are scanned in blocks copied from the mapping, a line that does not
+    // fit the rest of a block starts the next one
+    private static void parseLines(MappedByteBuffer region, int end, byte[] block, RecordParser.Handler handler) {
+        int position = 0;
+        while (position < end) {
+            int length = Math.min(block.length, end - position);
+            region.get(position, block, 0, length);
+            int from = 0;
+            while (true) {
+                int to = from;
+                int high = 0;
+                while (to < length && block[to] != '\n') {
+                    high |= block[to];
+                    to++;
+                }
+                if (to == length && position + length < end) {
+                    break;
+                }
+                // Same lines as BufferedReader.readLine()
+                int lineEnd = (to > from && block[to - 1] == '\r') ? to - 1 : to;
+                // ASCII lines are copied byte for byte, without a decoder
+                RecordParser.parse(new String(block, from, lineEnd - from,
+                        (high & 0x80) == 0 ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8), handler);
+                from = to + 1;
+                if (from >= length) {
+                    break;
+                }
+            }
+            if (from == 0) {
+                // Line longer than the block
+                block = new byte[block.length * 2];
+                continue;
+            }
+            position += from;
+        }
+    }
+
+    private static int lastIndexOfNewline(MappedByteBuffer region, int end) {
+        for (int i = end - 1; i >= 0; i--) {
+            if (region.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,314 @@
+package graph;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Loads a graph data file on several cores. The file is cut into chunks that
+ * end on line boundaries and every chunk is read and parsed by its own task:
+ * seekers and jobs are built right away, applications and skill edges are kept
+ * by name. Loading then runs in two phases:
+ * <ol>
+ * <li>the seekers and jobs of every chunk are added to the graph in file
+ * order, while later chunks are still being parsed, so ids and "first name
+ * wins" are the same as with {@link CreateGraph#createGraph(String)}</li>
+ * <li>once all names are known the references of every chunk are resolved in
+ * parallel, which also links applications to seekers defined in other chunks,
+ * and the results are appended in file order</li>
+ * </ol>
+ * Unlike the sequential reader, applications and skill edges keep their file
+ * order even when they precede their seeker or job.
+ */
+public class ParallelGraphLoader {
+    public static final int DEFAULT_CHUNK_SIZE = 16 << 20;
+    private static final int BOUNDARY_SCAN_SIZE = 1 << 12;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public ParallelGraphLoader() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParallelGraphLoader(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    public CreateGraph load(Path file) throws IOException {
+        CreateGraph graph = new CreateGraph();
+        load(file, graph);
+        return graph;
+    }
+
+    /**
+     * Add the records of the file to the graph. Pending references of the graph
+     * are resolved as well.
+     */
+    public void load(Path file, CreateGraph graph) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] boundaries = chunkBoundaries(channel);
+            List<ForkJoinTask<Chunk>> parsing = new ArrayList<>(boundaries.length - 1);
+            for (int i = 0; i + 1 < boundaries.length; i++) {
+                long start = boundaries[i];
+                long end = boundaries[i + 1];
+                parsing.add(pool.submit(() -> Chunk.parse(channel, start, end)));
+            }
+
+            // Phase 1: names, in file order
+            List<Chunk> chunks = new ArrayList<>(parsing.size());
+            for (ForkJoinTask<Chunk> task : parsing) {
+                Chunk chunk = await(task);
+                for (CharSequence line : chunk.invalidLines) {
+                    System.out.println("Invalid line: " + line);
+                }
+                for (JobSeekerNode jobSeeker : chunk.jobSeekers) {
+                    graph.addJobSeeker(jobSeeker);
+                }
+                for (JobNode job : chunk.jobs) {
+                    graph.addJob(job);
+                }
+                chunk.jobSeekers.clear();
+                chunk.jobs.clear();
+                chunk.invalidLines.clear();
+                chunks.add(chunk);
+            }
+            graph.resolvePendingReferences();
+
+            // Phase 2: references, resolved in parallel and linked in file order
+            List<ForkJoinTask<Chunk>> resolving = new ArrayList<>(chunks.size());
+            for (Chunk chunk : chunks) {
+                resolving.add(pool.submit(() -> chunk.resolve(graph, channel)));
+            }
+            for (ForkJoinTask<Chunk> task : resolving) {
+                Chunk chunk = await(task);
+                for (Object resolved : chunk.resolved) {
+                    if (resolved instanceof JobApplicationNode) {
+                        graph.addApplication((JobApplicationNode) resolved);
+                    } else if (resolved instanceof JobSkillEdge) {
+                        graph.addSkillEdge((JobSkillEdge) resolved);
+                    } else {
+                        graph.dropUnresolved((CreateGraph.PendingReference) resolved);
+                    }
+                }
+                chunk.resolved = null;
+            }
+        }
+    }
+
+    // Chunk start offsets plus the file size, every chunk but the first starts
+    // right after a '\n'
+    private long[] chunkBoundaries(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long[] boundaries = new long[(int) Math.min(Integer.MAX_VALUE - 1, size / chunkSize + 1) + 1];
+        int count = 1;
+        ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_SCAN_SIZE);
+        long next = chunkSize;
+        while (next < size) {
+            long boundary = nextLineStart(channel, next, size, buffer);
+            if (boundary >= size) {
+                break;
+            }
+            boundaries[count++] = boundary;
+            next = Math.max(boundary, next) + chunkSize;
+        }
+        boundaries[count++] = size;
+        return Arrays.copyOf(boundaries, count);
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, long size, ByteBuffer buffer)
+            throws IOException {
+        long position = from;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static Chunk await(ForkJoinTask<Chunk> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading graph data");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Records of one chunk. Filled by a single task, then handed to the loading
+     * thread through the task's completion.
+     */
+    private static final class Chunk implements RecordParser.Handler {
+        private final long start;
+        private final List<JobSeekerNode> jobSeekers = new ArrayList<>();
+        private final List<JobNode> jobs = new ArrayList<>();
+        private final List<CreateGraph.PendingReference> references = new ArrayList<>();
+        // Offset of each reference's line in the chunk, the text is only read
+        // back if the reference does not resolve
+        private int[] referenceLines = new int[16];
+        private final List<CharSequence> invalidLines = new ArrayList<>();
+        private int lineStart;
+        // JobApplicationNode, JobSkillEdge or the unresolved PendingReference, in file order
+        private List<Object> resolved;
+
+        private Chunk(long start) {
+            this.start = start;
+        }
+
+        private static Chunk parse(FileChannel channel, long start, long end) {
+            Chunk chunk = new Chunk(start);
+            byte[] bytes = read(channel, start, Math.toIntExact(end - start));
+            int from = 0;
+            while (from < bytes.length) {
+                int to = indexOfNewline(bytes, from, bytes.length);
+                // Same lines as BufferedReader.readLine()
+                int lineEnd = (to > from && bytes[to - 1] == '\r') ? to - 1 : to;
+                chunk.lineStart = from;
+                RecordParser.parse(new String(bytes, from, lineEnd - from, StandardCharsets.UTF_8), chunk);
+                from = to + 1;
+            }
+            return chunk;
+        }
+
+        // Read only access to the graph's name maps, which phase 1 completed
+        private Chunk resolve(CreateGraph graph, FileChannel channel) {
+            resolved = new ArrayList<>(references.size());
+            for (int i = 0; i < references.size(); i++) {
+                CreateGraph.PendingReference reference = references.get(i);
+                JobSeekerNode jobSeeker = graph.findJobSeekerByName(reference.jobSeekerName);
+                JobNode job = graph.findJobByName(reference.jobTitle);
+                if (jobSeeker == null || job == null) {
+                    resolved.add(new CreateGraph.PendingReference(reference.jobSeekerName, reference.jobTitle,
+                            reference.company, reference.status, reference.requiredSkills,
+                            readLine(channel, start + referenceLines[i])));
+                } else if (reference.requiredSkills == null) {
+                    resolved.add(new JobApplicationNode(jobSeeker, job, reference.company, reference.status));
+                } else {
+                    resolved.add(new JobSkillEdge(jobSeeker, job, Arrays.asList(reference.requiredSkills)));
+                }
+            }
+            references.clear();
+            return this;
+        }
+
+        private void reference(CreateGraph.PendingReference reference) {
+            if (references.size() == referenceLines.length) {
+                referenceLines = Arrays.copyOf(referenceLines, referenceLines.length * 2);
+            }
+            referenceLines[references.size()] = lineStart;
+            references.add(reference);
+        }
+
+        private static String readLine(FileChannel channel, long position) {
+            byte[] line = new byte[256];
+            int length = 0;
+            while (true) {
+                byte[] block = read(channel, position + length, BOUNDARY_SCAN_SIZE);
+                int newline = indexOfNewline(block, 0, block.length);
+                if (length + newline > line.length) {
+                    line = Arrays.copyOf(line, Math.max(line.length * 2, length + newline));
+                }
+                System.arraycopy(block, 0, line, length, newline);
+                length += newline;
+                if (newline < block.length || block.length < BOUNDARY_SCAN_SIZE) {
+                    break;
+                }
+            }
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            return new String(line, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private static int indexOfNewline(byte[] bytes, int from, int end) {
+            for (int i = from; i < end; i++) {
+                if (bytes[i] == '\n') {
+                    return i;
+                }
+            }
+            return end;
+        }
+
+        // Up to length bytes from position, fewer at the end of the file
+        private static byte[] read(FileChannel channel, long position, int length) {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            try {
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, position + buffer.position()) < 0) {
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return buffer.position() == length ? buffer.array() : Arrays.copyOf(buffer.array(), buffer.position());
+        }
+
+        @Override
+        public void jobSeeker(String name, String[] skills, int experienceYears, String preferredLocation) {
+            JobSeekerNode jobSeeker = new JobSeekerNode(name, Arrays.asList(skills), experienceYears);
+            jobSeeker.setPreferredLocation(preferredLocation);
+            jobSeekers.add(jobSeeker);
+        }
+
+        @Override
+        public void job(String title, String company, String location, String description) {
+            jobs.add(new JobNode(title, company, location, description));
+        }
+
+        @Override
+        public void application(String jobSeekerName, String jobTitle, String company, String status,
+                CharSequence line) {
+            reference(new CreateGraph.PendingReference(jobSeekerName, jobTitle, company, status, null, ""));
+        }
+
+        @Override
+        public void skillEdge(String jobSeekerName, String jobTitle, String company, String[] requiredSkills,
+                CharSequence line) {
+            reference(new CreateGraph.PendingReference(jobSeekerName, jobTitle, null, null,
+                    requiredSkills, ""));
+        }
+
+        @Override
+        public void invalid(CharSequence line) {
+            invalidLines.add(line.toString());
+        }
+    }
+}
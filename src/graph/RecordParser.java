@@ -0,0 +1,261 @@
+package graph;
+
+/**
+ * Tokenizer for the lines of the graph data format written by
+ * {@link DataGenerator}:
+ *
+ * <pre>
+ * Job Seeker: NAME (Skills: SKILL, SKILL, Experience: N years[, Preferred Location: LOCATION])
+ * Job: TITLE (Company: COMPANY, Location: LOCATION, Description: DESCRIPTION)
+ * Job Application: NAME applied for TITLE at COMPANY (Status: STATUS)
+ * Job Seeker Skill: NAME has the following skills required for TITLE at COMPANY (Required Skills: SKILL, SKILL)
+ * </pre>
+ *
+ * The preferred location of a seeker is optional, the handler gets null
+ * without it. Skill lines are also accepted with the "Job Seeker: " prefix the generator
+ * writes. Fields are located with plain index scans over the
+ * {@link CharSequence}, no regular expressions, and only the field values are
+ * copied out as Strings. Records are reported to a {@link Handler}.
+ */
+public final class RecordParser {
+    private static final String CATEGORY_SEPARATOR = ": ";
+    private static final String SKILLS = " (Skills: ";
+    private static final String EXPERIENCE = ", Experience: ";
+    private static final String YEARS = " years";
+    private static final String PREFERRED_LOCATION = ", Preferred Location: ";
+    private static final String COMPANY = " (Company: ";
+    private static final String LOCATION = ", Location: ";
+    private static final String DESCRIPTION = ", Description: ";
+    private static final String APPLIED_FOR = " applied for ";
+    private static final String AT = " at ";
+    private static final String STATUS = " (Status: ";
+    private static final String HAS_SKILLS_FOR = " has the following skills required for ";
+    private static final String REQUIRED_SKILLS = " (Required Skills: ";
+    private static final String LIST_SEPARATOR = ", ";
+    private static final String[] NO_SKILLS = new String[0];
+
+    /**
+     * Receives the records of parsed lines. The line passed along may be a view
+     * that is reused for the next line, call toString() to keep it.
+     */
+    public interface Handler {
+        void jobSeeker(String name, String[] skills, int experienceYears, String preferredLocation);
+
+        void job(String title, String company, String location, String description);
+
+        void application(String jobSeekerName, String jobTitle, String company, String status, CharSequence line);
+
+        void skillEdge(String jobSeekerName, String jobTitle, String company, String[] requiredSkills,
+                CharSequence line);
+
+        void invalid(CharSequence line);
+    }
+
+    private RecordParser() {
+    }
+
+    /**
+     * Parse one line, without its terminator, and report it to the handler.
+     */
+    public static void parse(CharSequence line, Handler handler) {
+        int length = line.length();
+        int separator = indexOf(line, CATEGORY_SEPARATOR, 0, length);
+        if (separator < 0) {
+            handler.invalid(line);
+            return;
+        }
+        int rest = separator + CATEGORY_SEPARATOR.length();
+        boolean parsed;
+        if (regionEquals(line, 0, separator, "Job Seeker")) {
+            parsed = parseJobSeeker(line, rest, length, handler) || parseSkillEdge(line, rest, length, handler);
+        } else if (regionEquals(line, 0, separator, "Job")) {
+            parsed = parseJob(line, rest, length, handler);
+        } else if (regionEquals(line, 0, separator, "Job Application")) {
+            parsed = parseApplication(line, rest, length, handler);
+        } else if (regionEquals(line, 0, separator, "Job Seeker Skill")) {
+            parsed = parseSkillEdge(line, rest, length, handler);
+        } else {
+            parsed = false;
+        }
+        if (!parsed) {
+            handler.invalid(line);
+        }
+    }
+
+    private static boolean parseJobSeeker(CharSequence line, int start, int end, Handler handler) {
+        int skills = indexOf(line, SKILLS, start, end);
+        if (skills < 0) {
+            return false;
+        }
+        int skillsStart = skills + SKILLS.length();
+        int experience = indexOf(line, EXPERIENCE, skillsStart, end);
+        if (experience < 0) {
+            return false;
+        }
+        int yearsStart = experience + EXPERIENCE.length();
+        int closingParen = withoutClosingParen(line, end);
+        if (closingParen == end) {
+            return false;
+        }
+        int preferredLocation = indexOf(line, PREFERRED_LOCATION, yearsStart, closingParen);
+        int years = parseInt(line, yearsStart, preferredLocation < 0 ? closingParen : preferredLocation);
+        if (years == Integer.MIN_VALUE) {
+            return false;
+        }
+        handler.jobSeeker(substring(line, start, skills), splitList(line, skillsStart, experience), years,
+                preferredLocation < 0 ? null
+                        : substring(line, preferredLocation + PREFERRED_LOCATION.length(), closingParen));
+        return true;
+    }
+
+    private static boolean parseJob(CharSequence line, int start, int end, Handler handler) {
+        int company = indexOf(line, COMPANY, start, end);
+        if (company < 0) {
+            return false;
+        }
+        int companyStart = company + COMPANY.length();
+        int location = indexOf(line, LOCATION, companyStart, end);
+        if (location < 0) {
+            return false;
+        }
+        int locationStart = location + LOCATION.length();
+        int description = indexOf(line, DESCRIPTION, locationStart, end);
+        if (description < 0) {
+            return false;
+        }
+        handler.job(substring(line, start, company), substring(line, companyStart, location),
+                substring(line, locationStart, description),
+                substring(line, description + DESCRIPTION.length(), withoutClosingParen(line, end)));
+        return true;
+    }
+
+    private static boolean parseApplication(CharSequence line, int start, int end, Handler handler) {
+        int appliedFor = indexOf(line, APPLIED_FOR, start, end);
+        if (appliedFor < 0) {
+            return false;
+        }
+        int titleStart = appliedFor + APPLIED_FOR.length();
+        int at = indexOf(line, AT, titleStart, end);
+        if (at < 0) {
+            return false;
+        }
+        int companyStart = at + AT.length();
+        int status = indexOf(line, STATUS, companyStart, end);
+        if (status < 0) {
+            return false;
+        }
+        handler.application(substring(line, start, appliedFor), substring(line, titleStart, at),
+                substring(line, companyStart, status),
+                substring(line, status + STATUS.length(), withoutClosingParen(line, end)), line);
+        return true;
+    }
+
+    private static boolean parseSkillEdge(CharSequence line, int start, int end, Handler handler) {
+        int hasSkills = indexOf(line, HAS_SKILLS_FOR, start, end);
+        if (hasSkills < 0) {
+            return false;
+        }
+        int titleStart = hasSkills + HAS_SKILLS_FOR.length();
+        int at = indexOf(line, AT, titleStart, end);
+        if (at < 0) {
+            return false;
+        }
+        int companyStart = at + AT.length();
+        int required = indexOf(line, REQUIRED_SKILLS, companyStart, end);
+        if (required < 0) {
+            return false;
+        }
+        handler.skillEdge(substring(line, start, hasSkills), substring(line, titleStart, at),
+                substring(line, companyStart, required),
+                splitList(line, required + REQUIRED_SKILLS.length(), withoutClosingParen(line, end)), line);
+        return true;
+    }
+
+    private static int withoutClosingParen(CharSequence line, int end) {
+        return (end > 0 && line.charAt(end - 1) == ')') ? end - 1 : end;
+    }
+
+    // Parses "N years" up to end, Integer.MIN_VALUE if malformed
+    private static int parseInt(CharSequence line, int start, int end) {
+        int at = start;
+        boolean negative = at < end && line.charAt(at) == '-';
+        if (negative) {
+            at++;
+        }
+        int digitsStart = at;
+        long value = 0;
+        while (at < end && Character.isDigit(line.charAt(at))) {
+            value = value * 10 + (line.charAt(at) - '0');
+            if (value > Integer.MAX_VALUE) {
+                return Integer.MIN_VALUE;
+            }
+            at++;
+        }
+        if (at == digitsStart || at + YEARS.length() != end || !regionEquals(line, at, end, YEARS)) {
+            return Integer.MIN_VALUE;
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    private static String[] splitList(CharSequence line, int start, int end) {
+        if (start >= end) {
+            return NO_SKILLS;
+        }
+        int count = 1;
+        for (int at = indexOf(line, LIST_SEPARATOR, start, end); at >= 0;
+                at = indexOf(line, LIST_SEPARATOR, at + LIST_SEPARATOR.length(), end)) {
+            count++;
+        }
+        String[] values = new String[count];
+        int from = start;
+        for (int i = 0; i < count - 1; i++) {
+            int at = indexOf(line, LIST_SEPARATOR, from, end);
+            values[i] = substring(line, from, at);
+            from = at + LIST_SEPARATOR.length();
+        }
+        values[count - 1] = substring(line, from, end);
+        return values;
+    }
+
+    private static String substring(CharSequence line, int start, int end) {
+        if (line instanceof String) {
+            return ((String) line).substring(start, end);
+        }
+        return line.subSequence(start, end).toString();
+    }
+
+    private static boolean regionEquals(CharSequence line, int start, int end, String expected) {
+        if (end - start != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (line.charAt(start + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // First index of target within line[from, end), or -1
+    static int indexOf(CharSequence line, String target, int from, int end) {
+        if (line instanceof String) {
+            int at = ((String) line).indexOf(target, from);
+            return (at >= 0 && at + target.length() <= end) ? at : -1;
+        }
+        char first = target.charAt(0);
+        int last = end - target.length();
+        for (int i = from; i <= last; i++) {
+            if (line.charAt(i) != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < target.length() && line.charAt(i + j) == target.charAt(j)) {
+                j++;
+            }
+            if (j == target.length()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,76 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns skill names to small dense int ids (0, 1, 2, ...) so skill sets can
+ * be stored as bit vectors, see {@link SkillVector}. The shared dictionary
+ * returned by {@link #getGlobal()} is used by the job seeker and skill edge
+ * nodes. Lookups are lock free, new names are added under a lock.
+ */
+public final class SkillDictionary {
+    private static final SkillDictionary GLOBAL = new SkillDictionary();
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[16];
+    private volatile int size = 0;
+
+    public static SkillDictionary getGlobal() {
+        return GLOBAL;
+    }
+
+    /**
+     * @return the id of the skill, assigning the next free id to unseen names
+     */
+    public int intern(String skill) {
+        Integer id = ids.get(skill);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(skill);
+            if (id != null) {
+                return id;
+            }
+            int next = size;
+            String[] current = names;
+            if (next == current.length) {
+                current = Arrays.copyOf(current, next * 2);
+            }
+            current[next] = skill;
+            names = current;
+            size = next + 1;
+            ids.put(skill, next);
+            return next;
+        }
+    }
+
+    /**
+     * @return the id of the skill or -1 if it was never interned
+     */
+    public int getId(String skill) {
+        Integer id = ids.get(skill);
+        return id == null ? -1 : id;
+    }
+
+    public String getName(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Unknown skill id " + id);
+        }
+        return names[id];
+    }
+
+    /**
+     * @return the dictionary's own instance of the name, so equal skill names
+     *         parsed from many lines share one String
+     */
+    public String canonical(String skill) {
+        int id = intern(skill);
+        return names[id];
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,277 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Inverted index from skill to the sorted ids of the job seekers having the
+ * skill and of the jobs requiring it. Skills are keyed by their
+ * {@link SkillDictionary} id, seeker and job ids are the positions of the
+ * seekers and jobs in {@link CreateGraph#getJobSeekers()} and
+ * {@link CreateGraph#getJobs()}. {@link SkillVector}s passed in have to come
+ * from the index's dictionary, their ids mean other skills in any other one.
+ * <p>
+ * "All of" queries intersect posting lists starting from the shortest one with
+ * galloping search, "any of" queries merge them. The index is updated
+ * incrementally and is not thread safe while it is being updated.
+ */
+public class SkillIndex {
+    private static final int[] EMPTY = new int[0];
+
+    private final SkillDictionary dictionary;
+    private Postings[] seekersBySkill = new Postings[0];
+    private Postings[] jobsBySkill = new Postings[0];
+
+    public SkillIndex() {
+        this(SkillDictionary.getGlobal());
+    }
+
+    public SkillIndex(SkillDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    public void addJobSeeker(int seekerId, List<String> skills) {
+        seekersBySkill = add(seekersBySkill, seekerId, SkillVector.of(skills, dictionary));
+    }
+
+    public void addJobSeeker(int seekerId, SkillVector skills) {
+        seekersBySkill = add(seekersBySkill, seekerId, checked(skills));
+    }
+
+    public void addJobSkills(int jobId, List<String> requiredSkills) {
+        jobsBySkill = add(jobsBySkill, jobId, SkillVector.of(requiredSkills, dictionary));
+    }
+
+    public void addJobSkills(int jobId, SkillVector requiredSkills) {
+        jobsBySkill = add(jobsBySkill, jobId, checked(requiredSkills));
+    }
+
+    public int[] getJobSeekersWithAll(Collection<String> skills) {
+        return intersect(seekersBySkill, toIds(skills));
+    }
+
+    public int[] getJobSeekersWithAll(SkillVector skills) {
+        return intersect(seekersBySkill, checked(skills).getSkillIds());
+    }
+
+    public int[] getJobSeekersWithAny(Collection<String> skills) {
+        return union(seekersBySkill, toIds(skills));
+    }
+
+    public int[] getJobSeekersWithAny(SkillVector skills) {
+        return union(seekersBySkill, checked(skills).getSkillIds());
+    }
+
+    public int[] getJobsWithAll(Collection<String> skills) {
+        return intersect(jobsBySkill, toIds(skills));
+    }
+
+    public int[] getJobsWithAll(SkillVector skills) {
+        return intersect(jobsBySkill, checked(skills).getSkillIds());
+    }
+
+    public int[] getJobsWithAny(Collection<String> skills) {
+        return union(jobsBySkill, toIds(skills));
+    }
+
+    public int[] getJobsWithAny(SkillVector skills) {
+        return union(jobsBySkill, checked(skills).getSkillIds());
+    }
+
+    public int getJobSeekerCount(String skill) {
+        return size(seekersBySkill, dictionary.getId(skill));
+    }
+
+    public int getJobCount(String skill) {
+        return size(jobsBySkill, dictionary.getId(skill));
+    }
+
+    SkillDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Sorted ids of the jobs requiring the skill, a copy. Empty for skills no
+     * job requires.
+     */
+    int[] getJobsWithSkill(int skillId) {
+        Postings postings = get(jobsBySkill, skillId);
+        return postings == null ? EMPTY : Arrays.copyOf(postings.ids, postings.size);
+    }
+
+    private static int size(Postings[] index, int skillId) {
+        if (skillId < 0 || skillId >= index.length || index[skillId] == null) {
+            return 0;
+        }
+        return index[skillId].size();
+    }
+
+    private SkillVector checked(SkillVector skills) {
+        SkillDictionary from = skills.getDictionary();
+        if (from != null && from != dictionary) {
+            throw new IllegalArgumentException("Skill vector is from another dictionary than the index");
+        }
+        return skills;
+    }
+
+    // Unknown skills map to -1, which no posting list matches
+    private int[] toIds(Collection<String> skills) {
+        int[] ids = new int[skills.size()];
+        int at = 0;
+        for (String skill : skills) {
+            ids[at++] = dictionary.getId(skill);
+        }
+        return ids;
+    }
+
+    private static Postings[] add(Postings[] index, int id, SkillVector skills) {
+        for (int skillId : skills.getSkillIds()) {
+            if (skillId >= index.length) {
+                index = Arrays.copyOf(index, Math.max(skillId + 1, index.length * 2));
+            }
+            if (index[skillId] == null) {
+                index[skillId] = new Postings();
+            }
+            index[skillId].add(id);
+        }
+        return index;
+    }
+
+    private static Postings get(Postings[] index, int skillId) {
+        if (skillId < 0 || skillId >= index.length) {
+            return null;
+        }
+        Postings postings = index[skillId];
+        if (postings != null) {
+            postings.sort();
+        }
+        return postings;
+    }
+
+    private static int[] intersect(Postings[] index, int[] skillIds) {
+        if (skillIds.length == 0) {
+            return EMPTY;
+        }
+        Postings[] lists = new Postings[skillIds.length];
+        for (int i = 0; i < skillIds.length; i++) {
+            Postings postings = get(index, skillIds[i]);
+            if (postings == null) {
+                return EMPTY;
+            }
+            lists[i] = postings;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        int[] result = Arrays.copyOf(lists[0].ids, lists[0].size);
+        int size = result.length;
+        for (int i = 1; i < lists.length && size > 0; i++) {
+            size = intersectInto(result, size, lists[i].ids, lists[i].size);
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    // Keeps the ids of result[0..size) also found in other[0..otherSize), galloping
+    // through the longer list. Returns the new size.
+    private static int intersectInto(int[] result, int size, int[] other, int otherSize) {
+        int kept = 0;
+        int from = 0;
+        for (int i = 0; i < size && from < otherSize; i++) {
+            int id = result[i];
+            int step = 1;
+            int hi = from;
+            while (hi < otherSize && other[hi] < id) {
+                from = hi + 1;
+                hi += step;
+                step <<= 1;
+            }
+            int at = Arrays.binarySearch(other, from, Math.min(hi + 1, otherSize), id);
+            if (at >= 0) {
+                result[kept++] = id;
+                from = at + 1;
+            } else {
+                from = -at - 1;
+            }
+        }
+        return kept;
+    }
+
+    private static int[] union(Postings[] index, int[] skillIds) {
+        int[] result = EMPTY;
+        for (int skillId : skillIds) {
+            Postings postings = get(index, skillId);
+            if (postings == null) {
+                continue;
+            }
+            result = merge(result, result.length, postings.ids, postings.size);
+        }
+        return result;
+    }
+
+    private static int[] merge(int[] a, int aSize, int[] b, int bSize) {
+        int[] merged = new int[aSize + bSize];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < aSize && j < bSize) {
+            if (a[i] < b[j]) {
+                merged[size++] = a[i++];
+            } else if (a[i] > b[j]) {
+                merged[size++] = b[j++];
+            } else {
+                merged[size++] = a[i++];
+                j++;
+            }
+        }
+        while (i < aSize) {
+            merged[size++] = a[i++];
+        }
+        while (j < bSize) {
+            merged[size++] = b[j++];
+        }
+        return size == merged.length ? merged : Arrays.copyOf(merged, size);
+    }
+
+    /**
+     * Growable sorted int list. Ids normally arrive in increasing order, anything
+     * else is appended and the list is sorted lazily on the next read.
+     */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size = 0;
+        private boolean sorted = true;
+
+        private int size() {
+            sort();
+            return size;
+        }
+
+        private void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1));
+            }
+            if (size > 0 && ids[size - 1] > id) {
+                sorted = false;
+            }
+            ids[size++] = id;
+        }
+
+        private void sort() {
+            if (sorted) {
+                return;
+            }
+            Arrays.sort(ids, 0, size);
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (unique == 0 || ids[unique - 1] != ids[i]) {
+                    ids[unique++] = ids[i];
+                }
+            }
+            size = unique;
+            sorted = true;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable set of skill ids from a {@link SkillDictionary} stored as a bit
+ * vector, so coverage checks are a few AND and popcount operations per 64
+ * skills instead of nested string comparisons. Duplicate skills collapse.
+ * <p>
+ * Ids only mean the same skill within one dictionary, so vectors from
+ * different dictionaries cannot be combined or compared. The empty vector
+ * belongs to every dictionary.
+ */
+public final class SkillVector {
+    public static final SkillVector EMPTY = new SkillVector(null, new long[0]);
+
+    // Null for the empty vector
+    private final SkillDictionary dictionary;
+    private final long[] words;
+
+    private SkillVector(SkillDictionary dictionary, long[] words) {
+        this.dictionary = dictionary;
+        this.words = words;
+    }
+
+    public static SkillVector of(Collection<String> skills) {
+        return of(skills, SkillDictionary.getGlobal());
+    }
+
+    public static SkillVector of(Collection<String> skills, SkillDictionary dictionary) {
+        if (skills == null || skills.isEmpty()) {
+            return EMPTY;
+        }
+        long[] words = new long[0];
+        for (String skill : skills) {
+            int id = dictionary.intern(skill);
+            int word = id >>> 6;
+            if (word >= words.length) {
+                words = Arrays.copyOf(words, word + 1);
+            }
+            words[word] |= 1L << id;
+        }
+        return new SkillVector(dictionary, words);
+    }
+
+    /**
+     * @param skillIds ids of the global {@link SkillDictionary}
+     */
+    public static SkillVector ofIds(int... skillIds) {
+        long[] words = new long[0];
+        for (int id : skillIds) {
+            int word = id >>> 6;
+            if (word >= words.length) {
+                words = Arrays.copyOf(words, word + 1);
+            }
+            words[word] |= 1L << id;
+        }
+        return words.length == 0 ? EMPTY : new SkillVector(SkillDictionary.getGlobal(), words);
+    }
+
+    /**
+     * @return the dictionary the ids are from, null for the empty vector
+     */
+    SkillDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * @return the skill names in increasing id order, the order the dictionary
+     *         first saw them
+     */
+    public List<String> getNames() {
+        int[] ids = getSkillIds();
+        String[] names = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            names[i] = dictionary.getName(ids[i]);
+        }
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    public boolean contains(int skillId) {
+        int word = skillId >>> 6;
+        return word < words.length && (words[word] & (1L << skillId)) != 0;
+    }
+
+    /**
+     * @return true if every skill of other is also in this vector
+     */
+    public boolean containsAll(SkillVector other) {
+        checkDictionary(other);
+        long[] theirs = other.words;
+        for (int i = 0; i < theirs.length; i++) {
+            long mine = i < words.length ? words[i] : 0L;
+            if ((theirs[i] & ~mine) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of skills shared with other
+     */
+    public int intersectionCount(SkillVector other) {
+        checkDictionary(other);
+        long[] theirs = other.words;
+        int n = Math.min(words.length, theirs.length);
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            count += Long.bitCount(words[i] & theirs[i]);
+        }
+        return count;
+    }
+
+    public SkillVector or(SkillVector other) {
+        checkDictionary(other);
+        long[] longer = words.length >= other.words.length ? words : other.words;
+        long[] shorter = longer == words ? other.words : words;
+        long[] merged = longer.clone();
+        for (int i = 0; i < shorter.length; i++) {
+            merged[i] |= shorter[i];
+        }
+        return new SkillVector(dictionary != null ? dictionary : other.dictionary, merged);
+    }
+
+    private void checkDictionary(SkillVector other) {
+        if (dictionary != other.dictionary && dictionary != null && other.dictionary != null) {
+            throw new IllegalArgumentException("Skill vectors are from different dictionaries");
+        }
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return cardinality() == 0;
+    }
+
+    /**
+     * @return the skill ids in increasing order
+     */
+    public int[] getSkillIds() {
+        int[] ids = new int[cardinality()];
+        int at = 0;
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                ids[at++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public int hashCode() {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        int hash = 1;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + Long.hashCode(words[i]);
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof SkillVector)) {
+            return false;
+        }
+        SkillVector other = (SkillVector) o;
+        if (dictionary != other.dictionary && !isEmpty() && !other.isEmpty()) {
+            return false;
+        }
+        return containsAll(other) && other.containsAll(this);
+    }
+}
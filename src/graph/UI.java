@@ -10,11 +10,15 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
 public class UI extends JFrame {
+	private static final String DATA_FILE = "graph_data.txt";
+
 	private JButton readDataButton;
 	private JButton buildGraphButton;
 	private JButton findShortestPathButton;
 	private JTextArea textArea;
 	private GraphCanvas graphCanvas;
+	private CreateGraph data;
+	private Graph<String> graph;
 
 	public UI() {
 		initializeUI();
@@ -84,27 +88,69 @@ public class UI extends JFrame {
 	private void setupListeners() {
 		readDataButton.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				// TODO: Implement read data functionality
-				textArea.setText("Reading data...");
+				data = new CreateGraph();
+				data.readDataFromFile(DATA_FILE);
+				graph = null;
+				textArea.setText("Read " + data.getJobSeekers().size() + " job seekers, " + data.getJobs().size()
+						+ " jobs, " + data.getApplications().size() + " applications and "
+						+ data.getSkillEdges().size() + " skill edges from " + DATA_FILE);
 			}
 		});
 
 		buildGraphButton.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				// TODO: Implement build graph functionality
-				textArea.setText("Building graph...");
+				if (data == null) {
+					textArea.setText("Read the data first.");
+					return;
+				}
+				graph = data.toGraph();
+				textArea.setText("Built a graph of " + graph.getVertices().size() + " vertices and "
+						+ graph.getEdges().size() + " edges.");
 				graphCanvas.repaint(); // Redraw the graph on canvas
 			}
 		});
 
 		findShortestPathButton.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				// TODO: Implement find shortest path functionality
-				textArea.setText("Finding shortest path...");
+				if (graph == null) {
+					textArea.setText("Build the graph first.");
+					return;
+				}
+				Graph.Vertex<String> start = askForVertex("Start (job seeker name or job title):");
+				if (start == null)
+					return;
+				Graph.Vertex<String> end = askForVertex("End (job seeker name or job title):");
+				if (end == null)
+					return;
+
+				Graph.CostPathPair<String> path = Dijkstra.getShortestPath(graph, start, end);
+				if (path == null) {
+					textArea.setText("No path from " + start.getValue() + " to " + end.getValue() + ".");
+					return;
+				}
+				StringBuilder text = new StringBuilder(start.getValue());
+				Graph.Vertex<String> at = start;
+				for (Graph.Edge<String> edge : path.getPath()) {
+					at = edge.getOtherVertex(at);
+					text.append(" -> ").append(at.getValue());
+				}
+				text.append("\nCost: ").append(path.getCost());
+				textArea.setText(text.toString());
 			}
 		});
 	}
 
+	// null if the dialog was cancelled or no vertex has that value
+	private Graph.Vertex<String> askForVertex(String message) {
+		String value = JOptionPane.showInputDialog(this, message);
+		if (value == null)
+			return null;
+		Graph.Vertex<String> vertex = graph.findVertexByValue(value.trim());
+		if (vertex == null)
+			textArea.setText("No job seeker or job named " + value.trim() + ".");
+		return vertex;
+	}
+
 	public static void main(String[] args) {
 		SwingUtilities.invokeLater(new Runnable() {
 			public void run() {